@@ -0,0 +1,69 @@
+package com.notekeeper.collab;
+
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory state of a note open for collaborative editing. Mutable fields are guarded by the
+ * instance monitor; {@link #flushLock} serialises snapshot writes so two flushes never race.
+ */
+public final class CollabDocument {
+
+    public final Long noteId;
+    public final Long ownerId;
+    public final Object flushLock = new Object();
+    public final Map<String, WebSocketSession> sessions = new LinkedHashMap<>();
+
+    public String content;
+    public int revision;
+    public long noteVersion;
+    public boolean dirty;
+    public boolean closed;
+
+    // Operations for revisions historyStart .. revision-1, used to transform late client ops
+    private final List<TextOperation> history = new ArrayList<>();
+    private int historyStart;
+
+    public CollabDocument(Long noteId, Long ownerId, String content, long noteVersion) {
+        this.noteId = noteId;
+        this.ownerId = ownerId;
+        this.content = content != null ? content : "";
+        this.noteVersion = noteVersion;
+    }
+
+    public boolean canTransformFrom(int clientRevision) {
+        return clientRevision >= historyStart && clientRevision <= revision;
+    }
+
+    /** Rebases an operation made at {@code clientRevision} onto the current revision. */
+    public TextOperation rebase(TextOperation operation, int clientRevision) {
+        for (int i = clientRevision - historyStart; i < history.size(); i++) {
+            operation = TextOperation.transform(operation, history.get(i))[0];
+        }
+        return operation;
+    }
+
+    public void record(TextOperation operation, int maxHistory) {
+        history.add(operation);
+        revision++;
+        if (history.size() > maxHistory) {
+            int drop = history.size() - maxHistory;
+            history.subList(0, drop).clear();
+            historyStart += drop;
+        }
+    }
+
+    /** Replaces the text wholesale; clients on older revisions must resynchronise. */
+    public void reset(String content, long noteVersion) {
+        this.content = content != null ? content : "";
+        this.noteVersion = noteVersion;
+        this.dirty = false;
+        revision++;
+        history.clear();
+        historyStart = revision;
+    }
+}
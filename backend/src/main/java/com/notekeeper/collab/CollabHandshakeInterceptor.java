@@ -0,0 +1,63 @@
+package com.notekeeper.collab;
+
+import com.notekeeper.security.JwtAuthenticationFilter;
+import com.notekeeper.security.JwtUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+
+/**
+ * Resolves the user and note for a collaboration socket before the upgrade. Browsers cannot
+ * set headers on WebSocket requests, so a stream token may also come from the {@code token}
+ * parameter.
+ */
+@Component
+public class CollabHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String USER_ID = "userId";
+    public static final String NOTE_ID = "noteId";
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return false;
+        }
+        HttpServletRequest http = servletRequest.getServletRequest();
+        String path = http.getRequestURI().substring(http.getContextPath().length());
+        Matcher matcher = JwtAuthenticationFilter.COLLAB_PATH.matcher(path);
+        if (!matcher.matches()) {
+            response.setStatusCode(HttpStatus.NOT_FOUND);
+            return false;
+        }
+
+        String header = http.getHeader("Authorization");
+        String token = header != null && header.startsWith("Bearer ") ? header.substring(7)
+                : JwtAuthenticationFilter.streamToken(http);
+        try {
+            attributes.put(USER_ID, jwtUtil.extractUserId(token));
+            attributes.put(NOTE_ID, Long.valueOf(matcher.group(1)));
+            return true;
+        } catch (Exception e) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.notekeeper.collab;
+
+import com.notekeeper.service.CollabService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+@Component
+public class CollabWebSocketHandler extends TextWebSocketHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(CollabWebSocketHandler.class);
+
+    @Autowired
+    private CollabService collabService;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        try {
+            collabService.join(noteId(session), userId(session), session);
+        } catch (RuntimeException e) {
+            logger.debug("Rejected collaboration session for note {}: {}", noteId(session), e.getMessage());
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Note not found or access denied"));
+        }
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        collabService.receive(noteId(session), session, message.getPayload());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        collabService.leave(noteId(session), session);
+    }
+
+    private static Long noteId(WebSocketSession session) {
+        return (Long) session.getAttributes().get(CollabHandshakeInterceptor.NOTE_ID);
+    }
+
+    private static Long userId(WebSocketSession session) {
+        return (Long) session.getAttributes().get(CollabHandshakeInterceptor.USER_ID);
+    }
+}
@@ -0,0 +1,212 @@
+package com.notekeeper.collab;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Text edit in the ot.js wire format: a list of components where a positive integer retains
+ * that many characters, a negative integer deletes that many, and a string inserts itself.
+ * The operation spans the whole document, so {@link #apply} checks the length it was built for.
+ * Lengths are UTF-16 code units, the same unit JavaScript strings use.
+ */
+public final class TextOperation {
+
+    private final List<Object> components = new ArrayList<>();
+    private int baseLength;
+    private int targetLength;
+
+    public static TextOperation fromJson(List<?> json) {
+        TextOperation operation = new TextOperation();
+        for (Object component : json) {
+            if (component instanceof String text) {
+                operation.insert(text);
+            } else if (component instanceof Number number && number.longValue() == number.intValue()) {
+                int n = number.intValue();
+                if (n > 0) {
+                    operation.retain(n);
+                } else if (n < 0) {
+                    operation.delete(-n);
+                } else {
+                    throw new IllegalArgumentException("Zero-length component");
+                }
+            } else {
+                throw new IllegalArgumentException("Invalid component: " + component);
+            }
+        }
+        return operation;
+    }
+
+    public List<Object> toJson() {
+        return Collections.unmodifiableList(components);
+    }
+
+    public int getBaseLength() {
+        return baseLength;
+    }
+
+    public int getTargetLength() {
+        return targetLength;
+    }
+
+    public TextOperation retain(int n) {
+        if (n <= 0) {
+            return this;
+        }
+        baseLength += n;
+        targetLength += n;
+        Object last = last();
+        if (isRetain(last)) {
+            components.set(components.size() - 1, (Integer) last + n);
+        } else {
+            components.add(n);
+        }
+        return this;
+    }
+
+    public TextOperation insert(String text) {
+        if (text.isEmpty()) {
+            return this;
+        }
+        targetLength += text.length();
+        Object last = last();
+        if (last instanceof String previous) {
+            components.set(components.size() - 1, previous + text);
+        } else if (isDelete(last)) {
+            // Keep inserts ahead of deletes at the same position so equal edits normalise identically
+            int at = components.size() - 1;
+            if (at > 0 && components.get(at - 1) instanceof String previous) {
+                components.set(at - 1, previous + text);
+            } else {
+                components.add(at, text);
+            }
+        } else {
+            components.add(text);
+        }
+        return this;
+    }
+
+    public TextOperation delete(int n) {
+        if (n <= 0) {
+            return this;
+        }
+        baseLength += n;
+        Object last = last();
+        if (isDelete(last)) {
+            components.set(components.size() - 1, (Integer) last - n);
+        } else {
+            components.add(-n);
+        }
+        return this;
+    }
+
+    public boolean isNoop() {
+        return components.isEmpty() || (components.size() == 1 && isRetain(components.get(0)));
+    }
+
+    public String apply(String document) {
+        if (document.length() != baseLength) {
+            throw new IllegalArgumentException("Operation expects a document of length " + baseLength
+                    + " but it has " + document.length());
+        }
+        StringBuilder result = new StringBuilder(targetLength);
+        int index = 0;
+        for (Object component : components) {
+            if (component instanceof String text) {
+                result.append(text);
+            } else {
+                int n = (Integer) component;
+                if (n > 0) {
+                    result.append(document, index, index + n);
+                    index += n;
+                } else {
+                    index -= n;
+                }
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Transforms two operations made against the same document into a pair (a', b') such that
+     * applying a then b' gives the same text as applying b then a'. Inserts from {@code a} win
+     * ties at the same position.
+     */
+    public static TextOperation[] transform(TextOperation a, TextOperation b) {
+        if (a.baseLength != b.baseLength) {
+            throw new IllegalArgumentException("Operations are based on different document lengths");
+        }
+        TextOperation aPrime = new TextOperation();
+        TextOperation bPrime = new TextOperation();
+        List<Object> ops1 = a.components;
+        List<Object> ops2 = b.components;
+        int i1 = 0;
+        int i2 = 0;
+        Object op1 = i1 < ops1.size() ? ops1.get(i1++) : null;
+        Object op2 = i2 < ops2.size() ? ops2.get(i2++) : null;
+
+        while (op1 != null || op2 != null) {
+            if (op1 instanceof String text) {
+                aPrime.insert(text);
+                bPrime.retain(text.length());
+                op1 = i1 < ops1.size() ? ops1.get(i1++) : null;
+                continue;
+            }
+            if (op2 instanceof String text) {
+                aPrime.retain(text.length());
+                bPrime.insert(text);
+                op2 = i2 < ops2.size() ? ops2.get(i2++) : null;
+                continue;
+            }
+            if (op1 == null || op2 == null) {
+                throw new IllegalArgumentException("Operations have mismatched lengths");
+            }
+
+            int n1 = (Integer) op1;
+            int n2 = (Integer) op2;
+            int step;
+            if (n1 > 0 && n2 > 0) {
+                step = Math.min(n1, n2);
+                aPrime.retain(step);
+                bPrime.retain(step);
+                n1 -= step;
+                n2 -= step;
+            } else if (n1 < 0 && n2 < 0) {
+                // Both deleted the same span; nothing left to do for either side
+                step = Math.min(-n1, -n2);
+                n1 += step;
+                n2 += step;
+            } else if (n1 < 0) {
+                step = Math.min(-n1, n2);
+                aPrime.delete(step);
+                n1 += step;
+                n2 -= step;
+            } else {
+                step = Math.min(n1, -n2);
+                bPrime.delete(step);
+                n1 -= step;
+                n2 += step;
+            }
+            op1 = n1 != 0 ? Integer.valueOf(n1) : (i1 < ops1.size() ? ops1.get(i1++) : null);
+            op2 = n2 != 0 ? Integer.valueOf(n2) : (i2 < ops2.size() ? ops2.get(i2++) : null);
+        }
+        return new TextOperation[] {aPrime, bPrime};
+    }
+
+    private Object last() {
+        return components.isEmpty() ? null : components.get(components.size() - 1);
+    }
+
+    private static boolean isRetain(Object component) {
+        return component instanceof Integer n && n > 0;
+    }
+
+    private static boolean isDelete(Object component) {
+        return component instanceof Integer n && n < 0;
+    }
+
+    @Override
+    public String toString() {
+        return "TextOperation" + components;
+    }
+}
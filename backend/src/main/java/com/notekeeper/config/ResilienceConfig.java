@@ -0,0 +1,28 @@
+package com.notekeeper.config;
+
+import com.notekeeper.resilience.CircuitBreakingDataSource;
+import com.notekeeper.resilience.DatabaseCircuitBreaker;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class ResilienceConfig {
+
+    // Wraps the auto-configured pool, so JPA, JdbcTemplate and Flyway all go through the breaker
+    @Bean
+    public static BeanPostProcessor circuitBreakingDataSourcePostProcessor(ObjectProvider<DatabaseCircuitBreaker> breaker) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof CircuitBreakingDataSource)) {
+                    return new CircuitBreakingDataSource(dataSource, breaker.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.notekeeper.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Validates the JPA mapping against the live schema once the application is serving, instead
+ * of making Hibernate introspect the database during boot.
+ */
+@Component
+@ConditionalOnProperty(name = "schema.verify-after-startup", havingValue = "true")
+public class SchemaVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaVerifier.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyInBackground() {
+        CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager().validateMappedObjects();
+                logger.info("Schema validated in {} ms", (System.nanoTime() - start) / 1_000_000);
+            } catch (Exception e) {
+                logger.error("Schema does not match the entity mapping: {}", e.getMessage());
+            }
+        });
+    }
+}
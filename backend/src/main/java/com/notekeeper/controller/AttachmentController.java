@@ -0,0 +1,211 @@
+package com.notekeeper.controller;
+
+import com.notekeeper.dto.AttachmentResponse;
+import com.notekeeper.dto.ErrorResponse;
+import com.notekeeper.dto.UploadRequest;
+import com.notekeeper.dto.UploadStatusResponse;
+import com.notekeeper.entity.Attachment;
+import com.notekeeper.security.JwtUtil;
+import com.notekeeper.service.AttachmentService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+@RestController
+@RequestMapping("/attachments")
+@CrossOrigin(origins = "*")
+public class AttachmentController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final List<MediaType> INLINE_TYPES = List.of(
+            MediaType.IMAGE_PNG, MediaType.IMAGE_JPEG, MediaType.IMAGE_GIF, MediaType.parseMediaType("image/webp"),
+            MediaType.APPLICATION_PDF, MediaType.TEXT_PLAIN);
+
+    @Autowired
+    private AttachmentService attachmentService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @PostMapping("/uploads")
+    public ResponseEntity<?> startUpload(@Valid @RequestBody UploadRequest request, HttpServletRequest httpRequest) {
+        try {
+            Long userId = extractUserId(httpRequest);
+            return ResponseEntity.status(201).body(attachmentService.startUpload(request, userId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    public ResponseEntity<UploadStatusResponse> getUploadStatus(@PathVariable String uploadId, HttpServletRequest request) {
+        try {
+            Long userId = extractUserId(request);
+            return ResponseEntity.ok(attachmentService.getUploadStatus(uploadId, userId));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PutMapping(path = "/uploads/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> appendChunk(
+            @PathVariable String uploadId,
+            @RequestParam long offset,
+            HttpServletRequest request) {
+        try {
+            Long userId = extractUserId(request);
+            return ResponseEntity.ok(attachmentService.appendChunk(uploadId, offset, request.getInputStream(), userId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/uploads/{uploadId}/complete")
+    public ResponseEntity<?> completeUpload(@PathVariable String uploadId, HttpServletRequest request) {
+        try {
+            Long userId = extractUserId(request);
+            return ResponseEntity.status(201).body(attachmentService.completeUpload(uploadId, userId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<AttachmentResponse>> getAttachments(@RequestParam Long noteId, HttpServletRequest request) {
+        try {
+            Long userId = extractUserId(request);
+            return ResponseEntity.ok(attachmentService.getAttachmentsForNote(noteId, userId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{id}")
+    public void download(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Attachment attachment;
+        try {
+            attachment = attachmentService.getAttachment(id, extractUserId(request));
+        } catch (Exception e) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        long length = attachment.getSize();
+        long start = 0;
+        long end = length - 1;
+
+        // Blobs are content-addressed, so the hash is a strong validator that never goes stale
+        String etag = "\"" + attachment.getSha256() + "\"";
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && length > 0 && (ifRange == null || ifRange.equals(etag))) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                // Multipart byteranges are rarely used by players and viewers; serve them the whole file
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+        }
+
+        // The type is whatever the uploader claimed; only types a browser shows without running
+        // anything are rendered in place, the rest download, and nosniff stops the browser guessing
+        MediaType contentType = contentType(attachment.getContentType());
+        ContentDisposition.Builder disposition = INLINE_TYPES.stream().anyMatch(type -> type.equalsTypeAndSubtype(contentType))
+                ? ContentDisposition.inline()
+                : ContentDisposition.attachment();
+        response.setContentType(contentType.toString());
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition
+                .filename(attachment.getFilename(), StandardCharsets.UTF_8)
+                .build()
+                .toString());
+        response.setContentLengthLong(end - start + 1);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        Path file = attachmentService.blobPath(attachment.getSha256());
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat hands the region to the kernel with sendfile once the request returns
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        // Without sendfile (e.g. TLS) the range is a plain copy through the response buffer
+        try (InputStream in = Files.newInputStream(file)) {
+            long copied = StreamUtils.copyRange(in, response.getOutputStream(), start, end);
+            if (copied != end - start + 1) {
+                throw new IOException("Blob " + attachment.getSha256() + " ended after " + copied + " of " + (end - start + 1) + " bytes");
+            }
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteAttachment(@PathVariable Long id, HttpServletRequest request) {
+        try {
+            Long userId = extractUserId(request);
+            attachmentService.deleteAttachment(id, userId);
+            return ResponseEntity.ok().build();
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    private static MediaType contentType(String declared) {
+        if (declared != null) {
+            try {
+                return MediaType.parseMediaType(declared);
+            } catch (InvalidMediaTypeException e) {
+                // Unparseable, so treated as opaque bytes
+            }
+        }
+        return MediaType.APPLICATION_OCTET_STREAM;
+    }
+
+    private Long extractUserId(HttpServletRequest request) {
+        String bearerToken = request.getHeader("Authorization");
+        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
+            return jwtUtil.extractUserId(bearerToken.substring(7));
+        }
+        throw new RuntimeException("Invalid token");
+    }
+}
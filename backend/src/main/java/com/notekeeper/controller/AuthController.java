@@ -57,4 +57,42 @@ public class AuthController {
                 .body(new ErrorResponse("Login failed. Please try again."));
         }
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return ResponseEntity.status(401).body(new ErrorResponse("Authorization token is required"));
+        }
+        try {
+            userService.logout(authorization.substring(7));
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(401).body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/logout-all")
+    public ResponseEntity<?> logoutAllDevices(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return ResponseEntity.status(401).body(new ErrorResponse("Authorization token is required"));
+        }
+        try {
+            userService.logoutAllDevices(authorization.substring(7));
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(401).body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/stream-token")
+    public ResponseEntity<?> streamToken(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return ResponseEntity.status(401).body(new ErrorResponse("Authorization token is required"));
+        }
+        try {
+            return ResponseEntity.ok(userService.issueStreamToken(authorization.substring(7)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(401).body(new ErrorResponse(e.getMessage()));
+        }
+    }
 }
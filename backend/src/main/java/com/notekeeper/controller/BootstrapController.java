@@ -0,0 +1,45 @@
+package com.notekeeper.controller;
+
+import com.notekeeper.dto.BootstrapResponse;
+import com.notekeeper.security.JwtUtil;
+import com.notekeeper.service.BootstrapService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/bootstrap")
+@CrossOrigin(origins = "*")
+public class BootstrapController {
+
+    @Autowired
+    private BootstrapService bootstrapService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    // Replaces the separate calls the client makes after login; sections listed in "incomplete" need their own call
+    @GetMapping
+    public ResponseEntity<BootstrapResponse> bootstrap(
+            @RequestParam(defaultValue = "10") int size,
+            HttpServletRequest request) {
+        try {
+            String token = extractToken(request);
+            Long userId = jwtUtil.extractUserId(token);
+
+            return ResponseEntity.ok(bootstrapService.bootstrap(userId, PageRequest.of(0, size)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private String extractToken(HttpServletRequest request) {
+        String bearerToken = request.getHeader("Authorization");
+        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        throw new RuntimeException("Invalid token");
+    }
+}
@@ -0,0 +1,36 @@
+package com.notekeeper.controller;
+
+import com.notekeeper.dto.ReadinessResponse;
+import com.notekeeper.resilience.DatabaseCircuitBreaker;
+import com.notekeeper.service.WarmupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/health")
+public class HealthController {
+
+    @Autowired
+    private WarmupService warmupService;
+
+    @Autowired
+    private DatabaseCircuitBreaker databaseCircuitBreaker;
+
+    @GetMapping("/live")
+    public ResponseEntity<Void> live() {
+        return ResponseEntity.ok().build();
+    }
+
+    // Load balancers should route traffic here only once this returns 200
+    @GetMapping("/ready")
+    public ResponseEntity<ReadinessResponse> ready() {
+        boolean ready = warmupService.isReady();
+        // Degraded still takes traffic: reads are answered from the snapshot and writes get a clear 503
+        String status = !ready ? "WARMING_UP" : databaseCircuitBreaker.isOpen() ? "DEGRADED" : "READY";
+        ReadinessResponse response = new ReadinessResponse(status,
+                warmupService.getRounds(), warmupService.getLastRoundMicros(), warmupService.getDurationMs());
+        return ResponseEntity.status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+}
@@ -1,18 +1,45 @@
 package com.notekeeper.controller;
 
+import com.notekeeper.dto.BulkDeleteRequest;
+import com.notekeeper.dto.BulkOperationResponse;
+import com.notekeeper.dto.DuplicateGroupResponse;
+import com.notekeeper.dto.LinkedNoteResponse;
+import com.notekeeper.dto.NoteGraphResponse;
 import com.notekeeper.dto.NoteRequest;
 import com.notekeeper.dto.NoteResponse;
+import com.notekeeper.dto.RelatedNoteResponse;
+import com.notekeeper.dto.ShareLinkResponse;
+import com.notekeeper.dto.SuggestionResponse;
+import com.notekeeper.dto.TagDeleteRequest;
+import com.notekeeper.dto.TagMergeRequest;
+import com.notekeeper.dto.TagRenameRequest;
+import com.notekeeper.dto.UserStatsResponse;
+import com.notekeeper.security.JwtAuthenticationFilter;
 import com.notekeeper.security.JwtUtil;
+import com.notekeeper.service.AsyncSearchService;
+import com.notekeeper.service.LinkService;
+import com.notekeeper.service.NoteEventService;
 import com.notekeeper.service.NoteService;
+import com.notekeeper.service.RelatedNotesService;
+import com.notekeeper.service.RenderService;
+import com.notekeeper.service.ShareService;
+import com.notekeeper.service.SuggestService;
+import com.notekeeper.service.UserStatsService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -23,23 +50,60 @@ public class NoteController {
     @Autowired
     private NoteService noteService;
 
+    @Autowired
+    private SuggestService suggestService;
+
+    @Autowired
+    private NoteEventService noteEventService;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private LinkService linkService;
+
+    @Autowired
+    private RenderService renderService;
+
+    @Autowired
+    private RelatedNotesService relatedNotesService;
+
+    @Autowired
+    private ShareService shareService;
+
+    @Autowired
+    private AsyncSearchService asyncSearchService;
+
     @Autowired
     private JwtUtil jwtUtil;
 
     @GetMapping
-    public ResponseEntity<Page<NoteResponse>> getAllNotes(
+    public DeferredResult<ResponseEntity<?>> getAllNotes(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String search,
+            @RequestParam(required = false) String tags,
+            @RequestParam(defaultValue = "false") boolean includeContent,
             HttpServletRequest request) {
         
         String token = extractToken(request);
         Long userId = jwtUtil.extractUserId(token);
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<NoteResponse> notes = noteService.searchNotes(userId, search, pageable);
-        
-        return ResponseEntity.ok(notes);
+        if (search != null && !search.trim().isEmpty()) {
+            // Substring search can be slow; it runs on the search pool with a timeout and cancellation
+            return asyncSearchService.search(userId, search, tags, pageable, includeContent);
+        }
+
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>();
+        try {
+            Page<NoteResponse> notes = noteService.searchNotes(userId, null, tags, pageable, includeContent);
+            result.setResult(ResponseEntity.ok(notes));
+        } catch (IllegalArgumentException e) {
+            // Malformed tag expression
+            result.setResult(ResponseEntity.badRequest().build());
+        }
+        return result;
     }
 
     @GetMapping("/{id}")
@@ -55,6 +119,81 @@ public class NoteController {
         }
     }
 
+    @GetMapping(value = "/{id}/html", produces = MediaType.TEXT_HTML_VALUE)
+    public ResponseEntity<String> getNoteHtml(@PathVariable Long id, HttpServletRequest request) {
+        try {
+            String token = extractToken(request);
+            Long userId = jwtUtil.extractUserId(token);
+            
+            RenderService.RenderedNote rendered = renderService.render(id, userId);
+            // The ETag lets unchanged notes come back as 304 without re-sending the HTML
+            return ResponseEntity.ok()
+                    .eTag(rendered.hash())
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .header("Content-Security-Policy", "sandbox")
+                    .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                    .body(rendered.html());
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/{id}/backlinks")
+    public ResponseEntity<List<LinkedNoteResponse>> getBacklinks(@PathVariable Long id, HttpServletRequest request) {
+        try {
+            String token = extractToken(request);
+            Long userId = jwtUtil.extractUserId(token);
+            
+            return ResponseEntity.ok(linkService.getBacklinks(userId, id));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/{id}/graph")
+    public ResponseEntity<NoteGraphResponse> getGraph(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "1") int depth,
+            HttpServletRequest request) {
+        try {
+            String token = extractToken(request);
+            Long userId = jwtUtil.extractUserId(token);
+            
+            return ResponseEntity.ok(linkService.getGraph(userId, id, depth));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<RelatedNoteResponse>> getRelated(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit,
+            HttpServletRequest request) {
+        try {
+            String token = extractToken(request);
+            Long userId = jwtUtil.extractUserId(token);
+            
+            return ResponseEntity.ok(relatedNotesService.getRelated(userId, id, limit));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/duplicates")
+    public ResponseEntity<List<DuplicateGroupResponse>> getDuplicates(
+            @RequestParam(required = false) Double threshold,
+            HttpServletRequest request) {
+        try {
+            String token = extractToken(request);
+            Long userId = jwtUtil.extractUserId(token);
+            
+            return ResponseEntity.ok(relatedNotesService.getDuplicates(userId, threshold));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PostMapping
     public ResponseEntity<NoteResponse> createNote(@Valid @RequestBody NoteRequest request, HttpServletRequest httpRequest) {
         try {
@@ -84,6 +223,31 @@ public class NoteController {
         }
     }
 
+    @PostMapping("/{id}/share")
+    public ResponseEntity<ShareLinkResponse> shareNote(@PathVariable Long id, HttpServletRequest request) {
+        try {
+            String token = extractToken(request);
+            Long userId = jwtUtil.extractUserId(token);
+            
+            return ResponseEntity.ok(shareService.share(id, userId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/{id}/share")
+    public ResponseEntity<Void> revokeShare(@PathVariable Long id, HttpServletRequest request) {
+        try {
+            String token = extractToken(request);
+            Long userId = jwtUtil.extractUserId(token);
+            
+            shareService.revoke(id, userId);
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteNote(@PathVariable Long id, HttpServletRequest request) {
         try {
@@ -97,6 +261,58 @@ public class NoteController {
         }
     }
 
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<BulkOperationResponse> deleteNotes(@Valid @RequestBody BulkDeleteRequest request, HttpServletRequest httpRequest) {
+        try {
+            String token = extractToken(httpRequest);
+            Long userId = jwtUtil.extractUserId(token);
+            
+            int affected = noteService.deleteNotes(request.getIds(), userId);
+            return ResponseEntity.ok(new BulkOperationResponse(affected));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/trash")
+    public ResponseEntity<Page<NoteResponse>> getTrash(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            HttpServletRequest request) {
+        try {
+            String token = extractToken(request);
+            Long userId = jwtUtil.extractUserId(token);
+            
+            return ResponseEntity.ok(noteService.getTrash(userId, PageRequest.of(page, size)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/{id}/restore")
+    public ResponseEntity<NoteResponse> restoreNote(@PathVariable Long id, HttpServletRequest request) {
+        try {
+            String token = extractToken(request);
+            Long userId = jwtUtil.extractUserId(token);
+            
+            return ResponseEntity.ok(noteService.restoreNote(id, userId));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<UserStatsResponse> getStats(HttpServletRequest request) {
+        try {
+            String token = extractToken(request);
+            Long userId = jwtUtil.extractUserId(token);
+            
+            return ResponseEntity.ok(userStatsService.getStats(userId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/tags")
     public ResponseEntity<List<String>> getTags(HttpServletRequest request) {
         try {
@@ -110,11 +326,84 @@ public class NoteController {
         }
     }
 
+    // Tag maintenance runs as set-based updates over the user's notes; the count is of live notes changed
+    @PostMapping("/tags/rename")
+    public ResponseEntity<BulkOperationResponse> renameTag(@Valid @RequestBody TagRenameRequest request, HttpServletRequest httpRequest) {
+        try {
+            String token = extractToken(httpRequest);
+            Long userId = jwtUtil.extractUserId(token);
+            
+            int affected = noteService.renameTag(userId, request.getFrom(), request.getTo());
+            return ResponseEntity.ok(new BulkOperationResponse(affected));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/tags/merge")
+    public ResponseEntity<BulkOperationResponse> mergeTags(@Valid @RequestBody TagMergeRequest request, HttpServletRequest httpRequest) {
+        try {
+            String token = extractToken(httpRequest);
+            Long userId = jwtUtil.extractUserId(token);
+            
+            int affected = noteService.mergeTags(userId, request.getSources(), request.getTarget());
+            return ResponseEntity.ok(new BulkOperationResponse(affected));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/tags/delete")
+    public ResponseEntity<BulkOperationResponse> deleteTag(@Valid @RequestBody TagDeleteRequest request, HttpServletRequest httpRequest) {
+        try {
+            String token = extractToken(httpRequest);
+            Long userId = jwtUtil.extractUserId(token);
+            
+            int affected = noteService.deleteTag(userId, request.getName());
+            return ResponseEntity.ok(new BulkOperationResponse(affected));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionResponse>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit,
+            HttpServletRequest request) {
+        try {
+            String token = extractToken(request);
+            Long userId = jwtUtil.extractUserId(token);
+            
+            return ResponseEntity.ok(suggestService.suggest(userId, prefix, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void stream(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Long userId;
+        try {
+            String token = extractToken(request);
+            userId = jwtUtil.extractUserId(token);
+        } catch (Exception e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        noteEventService.subscribe(userId, request, response);
+    }
+
     private String extractToken(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
             return bearerToken.substring(7);
         }
+        // EventSource cannot set headers, so the stream also accepts a short-lived stream token as a parameter
+        String streamToken = JwtAuthenticationFilter.streamToken(request);
+        if (streamToken != null) {
+            return streamToken;
+        }
         throw new RuntimeException("Invalid token");
     }
 }
@@ -0,0 +1,91 @@
+package com.notekeeper.controller;
+
+import com.notekeeper.dto.ProfileSummaryResponse;
+import com.notekeeper.security.JwtUtil;
+import com.notekeeper.service.ProfilingService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Only for accounts listed in profiling.admin-emails
+@RestController
+@RequestMapping("/admin/profiling")
+public class ProfilingController {
+
+    @Autowired
+    private ProfilingService profilingService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @GetMapping(value = "/dump", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> dump(
+            @RequestParam(defaultValue = "5") int minutes,
+            HttpServletRequest request) {
+        if (!isAdmin(request)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            Path file = profilingService.dump(minutes);
+            StreamingResponseBody body = out -> {
+                try {
+                    Files.copy(file, out);
+                } finally {
+                    Files.deleteIfExists(file);
+                }
+            };
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                    .contentLength(Files.size(file))
+                    .body(body);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<ProfileSummaryResponse> summary(
+            @RequestParam(defaultValue = "5") int minutes,
+            HttpServletRequest request) {
+        if (!isAdmin(request)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(profilingService.summary(minutes));
+    }
+
+    @GetMapping(path = "/summary/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSummaries(
+            @RequestParam(defaultValue = "1") int minutes,
+            @RequestParam(defaultValue = "5") int intervalSeconds,
+            HttpServletRequest request) {
+        if (!isAdmin(request)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            return ResponseEntity.ok(profilingService.streamSummaries(minutes, intervalSeconds));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    private boolean isAdmin(HttpServletRequest request) {
+        String bearerToken = request.getHeader("Authorization");
+        if (bearerToken == null || !bearerToken.startsWith("Bearer ")) {
+            return false;
+        }
+        try {
+            return profilingService.isAdmin(jwtUtil.extractUsername(bearerToken.substring(7)));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
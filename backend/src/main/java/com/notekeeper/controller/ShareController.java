@@ -0,0 +1,41 @@
+package com.notekeeper.controller;
+
+import com.notekeeper.service.ShareService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/share")
+@CrossOrigin(origins = "*")
+public class ShareController {
+
+    @Autowired
+    private ShareService shareService;
+
+    @Value("${share.cache.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    // Public, no authentication: anyone holding the token can read the note
+    @GetMapping("/{token}")
+    public ResponseEntity<byte[]> getSharedNote(@PathVariable String token) {
+        try {
+            ShareService.SharedNote shared = shareService.get(token);
+            // Browsers and CDNs may reuse the bytes for max-age; revoking takes at most that long to reach them.
+            // A matching If-None-Match gets a 304 without the body.
+            return ResponseEntity.ok()
+                    .eTag(shared.etag())
+                    .cacheControl(CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic())
+                    .header("X-Robots-Tag", "noindex")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(shared.body());
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.notekeeper.dto;
+
+import java.time.LocalDateTime;
+
+public class AccountResponse {
+
+    private Long id;
+    private String email;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public AccountResponse() {}
+
+    public AccountResponse(Long id, String email, LocalDateTime createdAt) {
+        this.id = id;
+        this.email = email;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "AccountResponse{" +
+                "id=" + id +
+                ", email='" + email + '\'' +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
@@ -0,0 +1,79 @@
+package com.notekeeper.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+public class BootstrapResponse {
+
+    private AccountResponse account;
+    private Page<NoteResponse> notes;
+    private List<String> tags;
+    private UserStatsResponse stats;
+    // Sections that missed the deadline or failed; the client fetches these on their own
+    private List<String> incomplete;
+
+    // Constructors
+    public BootstrapResponse() {}
+
+    public BootstrapResponse(AccountResponse account, Page<NoteResponse> notes, List<String> tags,
+                             UserStatsResponse stats, List<String> incomplete) {
+        this.account = account;
+        this.notes = notes;
+        this.tags = tags;
+        this.stats = stats;
+        this.incomplete = incomplete;
+    }
+
+    // Getters and Setters
+    public AccountResponse getAccount() {
+        return account;
+    }
+
+    public void setAccount(AccountResponse account) {
+        this.account = account;
+    }
+
+    public Page<NoteResponse> getNotes() {
+        return notes;
+    }
+
+    public void setNotes(Page<NoteResponse> notes) {
+        this.notes = notes;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    public UserStatsResponse getStats() {
+        return stats;
+    }
+
+    public void setStats(UserStatsResponse stats) {
+        this.stats = stats;
+    }
+
+    public List<String> getIncomplete() {
+        return incomplete;
+    }
+
+    public void setIncomplete(List<String> incomplete) {
+        this.incomplete = incomplete;
+    }
+
+    @Override
+    public String toString() {
+        return "BootstrapResponse{" +
+                "account=" + account +
+                ", notes=" + (notes != null ? notes.getNumberOfElements() : null) +
+                ", tags=" + (tags != null ? tags.size() : null) +
+                ", stats=" + stats +
+                ", incomplete=" + incomplete +
+                '}';
+    }
+}
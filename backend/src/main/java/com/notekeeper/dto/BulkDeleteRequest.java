@@ -0,0 +1,36 @@
+package com.notekeeper.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BulkDeleteRequest {
+
+    @NotEmpty(message = "At least one note id is required")
+    @Size(max = 1000, message = "At most 1000 notes can be deleted at once")
+    private List<Long> ids;
+
+    // Constructors
+    public BulkDeleteRequest() {}
+
+    public BulkDeleteRequest(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    // Getters and Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkDeleteRequest{" +
+                "ids=" + ids +
+                '}';
+    }
+}
@@ -0,0 +1,29 @@
+package com.notekeeper.dto;
+
+public class BulkOperationResponse {
+
+    private int affected;
+
+    // Constructors
+    public BulkOperationResponse() {}
+
+    public BulkOperationResponse(int affected) {
+        this.affected = affected;
+    }
+
+    // Getters and Setters
+    public int getAffected() {
+        return affected;
+    }
+
+    public void setAffected(int affected) {
+        this.affected = affected;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkOperationResponse{" +
+                "affected=" + affected +
+                '}';
+    }
+}
@@ -0,0 +1,33 @@
+package com.notekeeper.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DuplicateGroupResponse {
+
+    // Most recently updated first; similarity is measured against the first note
+    private List<RelatedNoteResponse> notes = new ArrayList<>();
+
+    // Constructors
+    public DuplicateGroupResponse() {}
+
+    public DuplicateGroupResponse(List<RelatedNoteResponse> notes) {
+        this.notes = notes;
+    }
+
+    // Getters and Setters
+    public List<RelatedNoteResponse> getNotes() {
+        return notes;
+    }
+
+    public void setNotes(List<RelatedNoteResponse> notes) {
+        this.notes = notes;
+    }
+
+    @Override
+    public String toString() {
+        return "DuplicateGroupResponse{" +
+                "notes=" + notes +
+                '}';
+    }
+}
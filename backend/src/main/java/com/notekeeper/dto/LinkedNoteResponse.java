@@ -0,0 +1,53 @@
+package com.notekeeper.dto;
+
+import java.time.LocalDateTime;
+
+public class LinkedNoteResponse {
+
+    private Long id;
+    private String title;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public LinkedNoteResponse() {}
+
+    public LinkedNoteResponse(Long id, String title, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "LinkedNoteResponse{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
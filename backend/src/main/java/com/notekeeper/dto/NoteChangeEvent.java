@@ -0,0 +1,53 @@
+package com.notekeeper.dto;
+
+public class NoteChangeEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED, RESTORED }
+
+    private Long id;
+    private Long version;
+    private Type type;
+
+    // Constructors
+    public NoteChangeEvent() {}
+
+    public NoteChangeEvent(Long id, Long version, Type type) {
+        this.id = id;
+        this.version = version;
+        this.type = type;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    @Override
+    public String toString() {
+        return "NoteChangeEvent{" +
+                "id=" + id +
+                ", version=" + version +
+                ", type=" + type +
+                '}';
+    }
+}
@@ -0,0 +1,76 @@
+package com.notekeeper.dto;
+
+import java.util.List;
+
+public class NoteGraphResponse {
+
+    private Long rootId;
+    private int depth;
+    private List<LinkedNoteResponse> nodes;
+    // Directed [sourceId, targetId] pairs
+    private List<long[]> edges;
+    private boolean truncated;
+
+    // Constructors
+    public NoteGraphResponse() {}
+
+    public NoteGraphResponse(Long rootId, int depth, List<LinkedNoteResponse> nodes, List<long[]> edges, boolean truncated) {
+        this.rootId = rootId;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.edges = edges;
+        this.truncated = truncated;
+    }
+
+    // Getters and Setters
+    public Long getRootId() {
+        return rootId;
+    }
+
+    public void setRootId(Long rootId) {
+        this.rootId = rootId;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public List<LinkedNoteResponse> getNodes() {
+        return nodes;
+    }
+
+    public void setNodes(List<LinkedNoteResponse> nodes) {
+        this.nodes = nodes;
+    }
+
+    public List<long[]> getEdges() {
+        return edges;
+    }
+
+    public void setEdges(List<long[]> edges) {
+        this.edges = edges;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    @Override
+    public String toString() {
+        return "NoteGraphResponse{" +
+                "rootId=" + rootId +
+                ", depth=" + depth +
+                ", nodes=" + (nodes != null ? nodes.size() : 0) +
+                ", edges=" + (edges != null ? edges.size() : 0) +
+                ", truncated=" + truncated +
+                '}';
+    }
+}
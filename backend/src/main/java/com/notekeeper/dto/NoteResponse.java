@@ -14,6 +14,9 @@ public class NoteResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private Long ownerId;
+    private Long version;
+    private LocalDateTime deletedAt;
+    private SearchSnippet snippet;
 
     // Constructors
     public NoteResponse() {}
@@ -104,6 +107,30 @@ public class NoteResponse {
         this.ownerId = ownerId;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    public SearchSnippet getSnippet() {
+        return snippet;
+    }
+
+    public void setSnippet(SearchSnippet snippet) {
+        this.snippet = snippet;
+    }
+
     @Override
     public String toString() {
         return "NoteResponse{" +
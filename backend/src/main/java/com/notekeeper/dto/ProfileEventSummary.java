@@ -0,0 +1,95 @@
+package com.notekeeper.dto;
+
+public class ProfileEventSummary {
+
+    // JFR event name, plus the method for note service calls, e.g. com.notekeeper.NoteService#createNote
+    private String event;
+    private long count;
+    private double totalMs;
+    private double avgMs;
+    // Percentiles are histogram bucket upper bounds: never below the true value, at most 12.5% above it
+    private double p50Ms;
+    private double p99Ms;
+    private double maxMs;
+
+    // Constructors
+    public ProfileEventSummary() {}
+
+    public ProfileEventSummary(String event, long count, double totalMs, double avgMs,
+                               double p50Ms, double p99Ms, double maxMs) {
+        this.event = event;
+        this.count = count;
+        this.totalMs = totalMs;
+        this.avgMs = avgMs;
+        this.p50Ms = p50Ms;
+        this.p99Ms = p99Ms;
+        this.maxMs = maxMs;
+    }
+
+    // Getters and Setters
+    public String getEvent() {
+        return event;
+    }
+
+    public void setEvent(String event) {
+        this.event = event;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public double getTotalMs() {
+        return totalMs;
+    }
+
+    public void setTotalMs(double totalMs) {
+        this.totalMs = totalMs;
+    }
+
+    public double getAvgMs() {
+        return avgMs;
+    }
+
+    public void setAvgMs(double avgMs) {
+        this.avgMs = avgMs;
+    }
+
+    public double getP50Ms() {
+        return p50Ms;
+    }
+
+    public void setP50Ms(double p50Ms) {
+        this.p50Ms = p50Ms;
+    }
+
+    public double getP99Ms() {
+        return p99Ms;
+    }
+
+    public void setP99Ms(double p99Ms) {
+        this.p99Ms = p99Ms;
+    }
+
+    public double getMaxMs() {
+        return maxMs;
+    }
+
+    public void setMaxMs(double maxMs) {
+        this.maxMs = maxMs;
+    }
+
+    @Override
+    public String toString() {
+        return "ProfileEventSummary{" +
+                "event='" + event + '\'' +
+                ", count=" + count +
+                ", avgMs=" + avgMs +
+                ", p99Ms=" + p99Ms +
+                '}';
+    }
+}
@@ -0,0 +1,56 @@
+package com.notekeeper.dto;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProfileSummaryResponse {
+
+    private Instant from;
+    private Instant to;
+    // Highest total time first
+    private List<ProfileEventSummary> events = new ArrayList<>();
+
+    // Constructors
+    public ProfileSummaryResponse() {}
+
+    public ProfileSummaryResponse(Instant from, Instant to, List<ProfileEventSummary> events) {
+        this.from = from;
+        this.to = to;
+        this.events = events;
+    }
+
+    // Getters and Setters
+    public Instant getFrom() {
+        return from;
+    }
+
+    public void setFrom(Instant from) {
+        this.from = from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public void setTo(Instant to) {
+        this.to = to;
+    }
+
+    public List<ProfileEventSummary> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<ProfileEventSummary> events) {
+        this.events = events;
+    }
+
+    @Override
+    public String toString() {
+        return "ProfileSummaryResponse{" +
+                "from=" + from +
+                ", to=" + to +
+                ", events=" + events.size() +
+                '}';
+    }
+}
@@ -0,0 +1,62 @@
+package com.notekeeper.dto;
+
+public class ReadinessResponse {
+
+    private String status;
+    private int warmupRounds;
+    private long lastRoundMicros;
+    private long warmupMs;
+
+    // Constructors
+    public ReadinessResponse() {}
+
+    public ReadinessResponse(String status, int warmupRounds, long lastRoundMicros, long warmupMs) {
+        this.status = status;
+        this.warmupRounds = warmupRounds;
+        this.lastRoundMicros = lastRoundMicros;
+        this.warmupMs = warmupMs;
+    }
+
+    // Getters and Setters
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getWarmupRounds() {
+        return warmupRounds;
+    }
+
+    public void setWarmupRounds(int warmupRounds) {
+        this.warmupRounds = warmupRounds;
+    }
+
+    public long getLastRoundMicros() {
+        return lastRoundMicros;
+    }
+
+    public void setLastRoundMicros(long lastRoundMicros) {
+        this.lastRoundMicros = lastRoundMicros;
+    }
+
+    public long getWarmupMs() {
+        return warmupMs;
+    }
+
+    public void setWarmupMs(long warmupMs) {
+        this.warmupMs = warmupMs;
+    }
+
+    @Override
+    public String toString() {
+        return "ReadinessResponse{" +
+                "status='" + status + '\'' +
+                ", warmupRounds=" + warmupRounds +
+                ", lastRoundMicros=" + lastRoundMicros +
+                ", warmupMs=" + warmupMs +
+                '}';
+    }
+}
@@ -0,0 +1,64 @@
+package com.notekeeper.dto;
+
+import java.time.LocalDateTime;
+
+public class RelatedNoteResponse {
+
+    private Long id;
+    private String title;
+    private LocalDateTime updatedAt;
+    // Estimated Jaccard similarity of the notes' word 3-grams, 0 to 1
+    private double similarity;
+
+    // Constructors
+    public RelatedNoteResponse() {}
+
+    public RelatedNoteResponse(Long id, String title, LocalDateTime updatedAt, double similarity) {
+        this.id = id;
+        this.title = title;
+        this.updatedAt = updatedAt;
+        this.similarity = similarity;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public double getSimilarity() {
+        return similarity;
+    }
+
+    public void setSimilarity(double similarity) {
+        this.similarity = similarity;
+    }
+
+    @Override
+    public String toString() {
+        return "RelatedNoteResponse{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", similarity=" + similarity +
+                '}';
+    }
+}
@@ -0,0 +1,24 @@
+package com.notekeeper.dto;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * A page of search results; {@code truncated} is set when not every archived body was checked,
+ * so notes whose match is only in archived content may be missing.
+ */
+public class SearchResultPage<T> extends PageImpl<T> {
+
+    private final boolean truncated;
+
+    public SearchResultPage(List<T> content, Pageable pageable, long total, boolean truncated) {
+        super(content, pageable, total);
+        this.truncated = truncated;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+}
@@ -0,0 +1,75 @@
+package com.notekeeper.dto;
+
+import java.util.List;
+
+public class SearchSnippet {
+
+    private String text;
+    private int offset;
+    private boolean truncatedStart;
+    private boolean truncatedEnd;
+    private List<int[]> highlights;
+    private List<int[]> titleHighlights;
+
+    // Constructors
+    public SearchSnippet() {}
+
+    // Getters and Setters
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    public boolean isTruncatedStart() {
+        return truncatedStart;
+    }
+
+    public void setTruncatedStart(boolean truncatedStart) {
+        this.truncatedStart = truncatedStart;
+    }
+
+    public boolean isTruncatedEnd() {
+        return truncatedEnd;
+    }
+
+    public void setTruncatedEnd(boolean truncatedEnd) {
+        this.truncatedEnd = truncatedEnd;
+    }
+
+    public List<int[]> getHighlights() {
+        return highlights;
+    }
+
+    public void setHighlights(List<int[]> highlights) {
+        this.highlights = highlights;
+    }
+
+    public List<int[]> getTitleHighlights() {
+        return titleHighlights;
+    }
+
+    public void setTitleHighlights(List<int[]> titleHighlights) {
+        this.titleHighlights = titleHighlights;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchSnippet{" +
+                "text='" + (text != null ? text.substring(0, Math.min(text.length(), 50)) + "..." : null) + '\'' +
+                ", offset=" + offset +
+                ", highlights=" + (highlights != null ? highlights.size() : 0) +
+                ", titleHighlights=" + (titleHighlights != null ? titleHighlights.size() : 0) +
+                '}';
+    }
+}
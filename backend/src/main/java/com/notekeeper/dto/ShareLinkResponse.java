@@ -0,0 +1,51 @@
+package com.notekeeper.dto;
+
+public class ShareLinkResponse {
+
+    private Long noteId;
+    private String token;
+    // Relative to the API base, e.g. /share/{token}
+    private String path;
+
+    // Constructors
+    public ShareLinkResponse() {}
+
+    public ShareLinkResponse(Long noteId, String token, String path) {
+        this.noteId = noteId;
+        this.token = token;
+        this.path = path;
+    }
+
+    // Getters and Setters
+    public Long getNoteId() {
+        return noteId;
+    }
+
+    public void setNoteId(Long noteId) {
+        this.noteId = noteId;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    @Override
+    public String toString() {
+        return "ShareLinkResponse{" +
+                "noteId=" + noteId +
+                ", path='" + path + '\'' +
+                '}';
+    }
+}
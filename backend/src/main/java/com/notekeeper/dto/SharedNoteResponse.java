@@ -0,0 +1,64 @@
+package com.notekeeper.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// What an anonymous reader of a share link sees; nothing about the owner or the note's settings
+public class SharedNoteResponse {
+
+    private String title;
+    private String content;
+    private List<String> tags;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public SharedNoteResponse() {}
+
+    public SharedNoteResponse(String title, String content, List<String> tags, LocalDateTime updatedAt) {
+        this.title = title;
+        this.content = content;
+        this.tags = tags;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and Setters
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "SharedNoteResponse{" +
+                "title='" + title + '\'' +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
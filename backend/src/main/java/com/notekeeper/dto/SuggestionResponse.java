@@ -0,0 +1,64 @@
+package com.notekeeper.dto;
+
+import java.time.LocalDateTime;
+
+public class SuggestionResponse {
+
+    private String type;
+    private String text;
+    private Long noteId;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public SuggestionResponse() {}
+
+    public SuggestionResponse(String type, String text, Long noteId, LocalDateTime updatedAt) {
+        this.type = type;
+        this.text = text;
+        this.noteId = noteId;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and Setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public Long getNoteId() {
+        return noteId;
+    }
+
+    public void setNoteId(Long noteId) {
+        this.noteId = noteId;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "SuggestionResponse{" +
+                "type='" + type + '\'' +
+                ", text='" + text + '\'' +
+                ", noteId=" + noteId +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
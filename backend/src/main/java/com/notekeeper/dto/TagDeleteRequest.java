@@ -0,0 +1,34 @@
+package com.notekeeper.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public class TagDeleteRequest {
+
+    @NotBlank(message = "Tag to delete is required")
+    @Size(max = 255, message = "Tags are at most 255 characters")
+    private String name;
+
+    // Constructors
+    public TagDeleteRequest() {}
+
+    public TagDeleteRequest(String name) {
+        this.name = name;
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return "TagDeleteRequest{" +
+                "name='" + name + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,51 @@
+package com.notekeeper.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class TagMergeRequest {
+
+    @NotEmpty(message = "At least one tag to merge is required")
+    @Size(max = 100, message = "At most 100 tags can be merged at once")
+    private List<@NotBlank @Size(max = 255) String> sources;
+
+    @NotBlank(message = "Target tag is required")
+    @Size(max = 255, message = "Tags are at most 255 characters")
+    private String target;
+
+    // Constructors
+    public TagMergeRequest() {}
+
+    public TagMergeRequest(List<String> sources, String target) {
+        this.sources = sources;
+        this.target = target;
+    }
+
+    // Getters and Setters
+    public List<String> getSources() {
+        return sources;
+    }
+
+    public void setSources(List<String> sources) {
+        this.sources = sources;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
+    @Override
+    public String toString() {
+        return "TagMergeRequest{" +
+                "sources=" + sources +
+                ", target='" + target + '\'' +
+                '}';
+    }
+}
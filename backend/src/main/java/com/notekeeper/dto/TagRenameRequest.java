@@ -0,0 +1,48 @@
+package com.notekeeper.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public class TagRenameRequest {
+
+    @NotBlank(message = "Tag to rename is required")
+    @Size(max = 255, message = "Tags are at most 255 characters")
+    private String from;
+
+    @NotBlank(message = "New tag name is required")
+    @Size(max = 255, message = "Tags are at most 255 characters")
+    private String to;
+
+    // Constructors
+    public TagRenameRequest() {}
+
+    public TagRenameRequest(String from, String to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    // Getters and Setters
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    @Override
+    public String toString() {
+        return "TagRenameRequest{" +
+                "from='" + from + '\'' +
+                ", to='" + to + '\'' +
+                '}';
+    }
+}
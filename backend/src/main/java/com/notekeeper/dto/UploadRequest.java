@@ -0,0 +1,68 @@
+package com.notekeeper.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+public class UploadRequest {
+
+    @NotBlank(message = "Filename is required")
+    @Size(max = 255, message = "Filename must not exceed 255 characters")
+    private String filename;
+
+    @Size(max = 255, message = "Content type must not exceed 255 characters")
+    private String contentType;
+
+    @NotNull(message = "Size is required")
+    @PositiveOrZero(message = "Size must not be negative")
+    private Long size;
+
+    private Long noteId;
+
+    // Constructors
+    public UploadRequest() {}
+
+    // Getters and Setters
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public Long getNoteId() {
+        return noteId;
+    }
+
+    public void setNoteId(Long noteId) {
+        this.noteId = noteId;
+    }
+
+    @Override
+    public String toString() {
+        return "UploadRequest{" +
+                "filename='" + filename + '\'' +
+                ", contentType='" + contentType + '\'' +
+                ", size=" + size +
+                ", noteId=" + noteId +
+                '}';
+    }
+}
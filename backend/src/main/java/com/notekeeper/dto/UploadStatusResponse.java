@@ -0,0 +1,51 @@
+package com.notekeeper.dto;
+
+public class UploadStatusResponse {
+
+    private String uploadId;
+    private Long size;
+    private Long received;
+
+    // Constructors
+    public UploadStatusResponse() {}
+
+    public UploadStatusResponse(String uploadId, Long size, Long received) {
+        this.uploadId = uploadId;
+        this.size = size;
+        this.received = received;
+    }
+
+    // Getters and Setters
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public Long getReceived() {
+        return received;
+    }
+
+    public void setReceived(Long received) {
+        this.received = received;
+    }
+
+    @Override
+    public String toString() {
+        return "UploadStatusResponse{" +
+                "uploadId='" + uploadId + '\'' +
+                ", size=" + size +
+                ", received=" + received +
+                '}';
+    }
+}
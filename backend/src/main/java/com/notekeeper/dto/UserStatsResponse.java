@@ -0,0 +1,85 @@
+package com.notekeeper.dto;
+
+import java.time.LocalDateTime;
+
+public class UserStatsResponse {
+
+    private long noteCount;
+    private long contentBytes;
+    private long tagCount;
+    private LocalDateTime lastActivityAt;
+    private long maxNotes;
+    private long maxContentBytes;
+
+    // Constructors
+    public UserStatsResponse() {}
+
+    public UserStatsResponse(long noteCount, long contentBytes, long tagCount, LocalDateTime lastActivityAt,
+                             long maxNotes, long maxContentBytes) {
+        this.noteCount = noteCount;
+        this.contentBytes = contentBytes;
+        this.tagCount = tagCount;
+        this.lastActivityAt = lastActivityAt;
+        this.maxNotes = maxNotes;
+        this.maxContentBytes = maxContentBytes;
+    }
+
+    // Getters and Setters
+    public long getNoteCount() {
+        return noteCount;
+    }
+
+    public void setNoteCount(long noteCount) {
+        this.noteCount = noteCount;
+    }
+
+    public long getContentBytes() {
+        return contentBytes;
+    }
+
+    public void setContentBytes(long contentBytes) {
+        this.contentBytes = contentBytes;
+    }
+
+    public long getTagCount() {
+        return tagCount;
+    }
+
+    public void setTagCount(long tagCount) {
+        this.tagCount = tagCount;
+    }
+
+    public LocalDateTime getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public void setLastActivityAt(LocalDateTime lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+
+    public long getMaxNotes() {
+        return maxNotes;
+    }
+
+    public void setMaxNotes(long maxNotes) {
+        this.maxNotes = maxNotes;
+    }
+
+    public long getMaxContentBytes() {
+        return maxContentBytes;
+    }
+
+    public void setMaxContentBytes(long maxContentBytes) {
+        this.maxContentBytes = maxContentBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "UserStatsResponse{" +
+                "noteCount=" + noteCount +
+                ", contentBytes=" + contentBytes +
+                ", tagCount=" + tagCount +
+                ", lastActivityAt=" + lastActivityAt +
+                '}';
+    }
+}
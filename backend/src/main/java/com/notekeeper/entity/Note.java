@@ -1,5 +1,6 @@
 package com.notekeeper.entity;
 
+import com.notekeeper.index.WikiLinks;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.data.annotation.CreatedDate;
@@ -21,9 +22,16 @@ public class Note {
     @Column(nullable = false, length = 500)
     private String title;
 
+    // WikiLinks.key(title), which [[links]] resolve against; null when too long to be a link target
+    @Column(name = "title_key", length = 255)
+    private String titleKey;
+
     @Column(columnDefinition = "TEXT")
     private String content;
 
+    @Column(name = "content_size", nullable = false, columnDefinition = "INT DEFAULT 0")
+    private int contentSize;
+
     @Column(columnDefinition = "JSON")
     private String tags;
 
@@ -45,11 +53,26 @@ public class Note {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    // Set while the content lives in note_archive; content is null then
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+    // Token of the public read-only link, null while the note is not shared
+    @Column(name = "share_token", length = 64, unique = true)
+    private String shareToken;
+
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long version;
+
     // Constructors
     public Note() {}
 
     public Note(String title, String content, User owner) {
-        this.title = title;
+        setTitle(title);
         this.content = content;
         this.owner = owner;
     }
@@ -69,6 +92,12 @@ public class Note {
 
     public void setTitle(String title) {
         this.title = title;
+        String key = WikiLinks.key(title);
+        this.titleKey = key.length() <= WikiLinks.MAX_KEY_LENGTH ? key : null;
+    }
+
+    public String getTitleKey() {
+        return titleKey;
     }
 
     public String getContent() {
@@ -79,6 +108,14 @@ public class Note {
         this.content = content;
     }
 
+    public int getContentSize() {
+        return contentSize;
+    }
+
+    public void setContentSize(int contentSize) {
+        this.contentSize = contentSize;
+    }
+
     public String getTags() {
         return tags;
     }
@@ -127,6 +164,38 @@ public class Note {
         this.updatedAt = updatedAt;
     }
 
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+
+    public String getShareToken() {
+        return shareToken;
+    }
+
+    public void setShareToken(String shareToken) {
+        this.shareToken = shareToken;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Note{" +
@@ -138,6 +207,8 @@ public class Note {
                 ", password=" + (password != null ? "[PROTECTED]" : "null") +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", deletedAt=" + deletedAt +
+                ", version=" + version +
                 '}';
     }
 }
@@ -0,0 +1,80 @@
+package com.notekeeper.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "note_archive", indexes = {
+    @Index(name = "idx_note_archive_owner_note", columnList = "owner_id, note_id")
+})
+public class NoteArchive {
+
+    @Id
+    @Column(name = "note_id")
+    private Long noteId;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    // Deflate-compressed UTF-8 note content
+    @Lob
+    @Column(nullable = false, columnDefinition = "LONGBLOB")
+    private byte[] content;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Constructors
+    public NoteArchive() {}
+
+    public NoteArchive(Long noteId, Long ownerId, byte[] content, LocalDateTime archivedAt) {
+        this.noteId = noteId;
+        this.ownerId = ownerId;
+        this.content = content;
+        this.archivedAt = archivedAt;
+    }
+
+    // Getters and Setters
+    public Long getNoteId() {
+        return noteId;
+    }
+
+    public void setNoteId(Long noteId) {
+        this.noteId = noteId;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public void setContent(byte[] content) {
+        this.content = content;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "NoteArchive{" +
+                "noteId=" + noteId +
+                ", ownerId=" + ownerId +
+                ", compressedBytes=" + (content != null ? content.length : 0) +
+                ", archivedAt=" + archivedAt +
+                '}';
+    }
+}
@@ -0,0 +1,76 @@
+package com.notekeeper.entity;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "note_links", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_note_links_source_target", columnNames = {"source_id", "target_key"})
+}, indexes = {
+    @Index(name = "idx_note_links_owner_target", columnList = "owner_id, target_key")
+})
+public class NoteLink {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "source_id", nullable = false)
+    private Long sourceId;
+
+    // Normalised title of the linked note; resolved against titles at read time so renames need no rewrite
+    @Column(name = "target_key", nullable = false, length = 255)
+    private String targetKey;
+
+    // Constructors
+    public NoteLink() {}
+
+    public NoteLink(Long ownerId, Long sourceId, String targetKey) {
+        this.ownerId = ownerId;
+        this.sourceId = sourceId;
+        this.targetKey = targetKey;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public Long getSourceId() {
+        return sourceId;
+    }
+
+    public void setSourceId(Long sourceId) {
+        this.sourceId = sourceId;
+    }
+
+    public String getTargetKey() {
+        return targetKey;
+    }
+
+    public void setTargetKey(String targetKey) {
+        this.targetKey = targetKey;
+    }
+
+    @Override
+    public String toString() {
+        return "NoteLink{" +
+                "sourceId=" + sourceId +
+                ", targetKey='" + targetKey + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,63 @@
+package com.notekeeper.entity;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "note_signatures", indexes = {
+    @Index(name = "idx_note_signatures_owner", columnList = "owner_id")
+})
+public class NoteSignature {
+
+    @Id
+    @Column(name = "note_id")
+    private Long noteId;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    // MinHash signature packed as big-endian ints
+    @Column(nullable = false, length = 256)
+    private byte[] signature;
+
+    // Constructors
+    public NoteSignature() {}
+
+    public NoteSignature(Long noteId, Long ownerId, byte[] signature) {
+        this.noteId = noteId;
+        this.ownerId = ownerId;
+        this.signature = signature;
+    }
+
+    // Getters and Setters
+    public Long getNoteId() {
+        return noteId;
+    }
+
+    public void setNoteId(Long noteId) {
+        this.noteId = noteId;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public byte[] getSignature() {
+        return signature;
+    }
+
+    public void setSignature(byte[] signature) {
+        this.signature = signature;
+    }
+
+    @Override
+    public String toString() {
+        return "NoteSignature{" +
+                "noteId=" + noteId +
+                ", ownerId=" + ownerId +
+                '}';
+    }
+}
@@ -0,0 +1,74 @@
+package com.notekeeper.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_checkpoints")
+public class OutboxCheckpoint {
+
+    @Id
+    @Column(length = 100)
+    private String subscriber;
+
+    @Column(name = "last_event_id", nullable = false)
+    private long lastEventId;
+
+    // Skipped ids still looked for, in OutboxGaps text form
+    @Column(name = "pending_gaps", columnDefinition = "TEXT")
+    private String pendingGaps;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public OutboxCheckpoint() {}
+
+    public OutboxCheckpoint(String subscriber, long lastEventId) {
+        this.subscriber = subscriber;
+        this.lastEventId = lastEventId;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getSubscriber() {
+        return subscriber;
+    }
+
+    public void setSubscriber(String subscriber) {
+        this.subscriber = subscriber;
+    }
+
+    public long getLastEventId() {
+        return lastEventId;
+    }
+
+    public void setLastEventId(long lastEventId) {
+        this.lastEventId = lastEventId;
+    }
+
+    public String getPendingGaps() {
+        return pendingGaps;
+    }
+
+    public void setPendingGaps(String pendingGaps) {
+        this.pendingGaps = pendingGaps;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxCheckpoint{" +
+                "subscriber='" + subscriber + '\'' +
+                ", lastEventId=" + lastEventId +
+                '}';
+    }
+}
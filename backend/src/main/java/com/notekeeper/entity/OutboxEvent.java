@@ -0,0 +1,102 @@
+package com.notekeeper.entity;
+
+import com.notekeeper.dto.NoteChangeEvent;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "note_outbox")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "note_id", nullable = false)
+    private Long noteId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private NoteChangeEvent.Type type;
+
+    @Column(name = "note_version")
+    private Long noteVersion;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public OutboxEvent() {}
+
+    public OutboxEvent(Long ownerId, Long noteId, NoteChangeEvent.Type type, Long noteVersion) {
+        this.ownerId = ownerId;
+        this.noteId = noteId;
+        this.type = type;
+        this.noteVersion = noteVersion;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public Long getNoteId() {
+        return noteId;
+    }
+
+    public void setNoteId(Long noteId) {
+        this.noteId = noteId;
+    }
+
+    public NoteChangeEvent.Type getType() {
+        return type;
+    }
+
+    public void setType(NoteChangeEvent.Type type) {
+        this.type = type;
+    }
+
+    public Long getNoteVersion() {
+        return noteVersion;
+    }
+
+    public void setNoteVersion(Long noteVersion) {
+        this.noteVersion = noteVersion;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+                "id=" + id +
+                ", ownerId=" + ownerId +
+                ", noteId=" + noteId +
+                ", type=" + type +
+                ", noteVersion=" + noteVersion +
+                '}';
+    }
+}
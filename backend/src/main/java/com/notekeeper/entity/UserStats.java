@@ -0,0 +1,101 @@
+package com.notekeeper.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_stats")
+public class UserStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "note_count", nullable = false)
+    private long noteCount;
+
+    @Column(name = "content_bytes", nullable = false)
+    private long contentBytes;
+
+    @Column(name = "tag_count", nullable = false)
+    private long tagCount;
+
+    @Column(name = "last_activity_at")
+    private LocalDateTime lastActivityAt;
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    // Constructors
+    public UserStats() {}
+
+    public UserStats(Long userId, long noteCount, long contentBytes, long tagCount, LocalDateTime lastActivityAt) {
+        this.userId = userId;
+        this.noteCount = noteCount;
+        this.contentBytes = contentBytes;
+        this.tagCount = tagCount;
+        this.lastActivityAt = lastActivityAt;
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public long getNoteCount() {
+        return noteCount;
+    }
+
+    public void setNoteCount(long noteCount) {
+        this.noteCount = noteCount;
+    }
+
+    public long getContentBytes() {
+        return contentBytes;
+    }
+
+    public void setContentBytes(long contentBytes) {
+        this.contentBytes = contentBytes;
+    }
+
+    public long getTagCount() {
+        return tagCount;
+    }
+
+    public void setTagCount(long tagCount) {
+        this.tagCount = tagCount;
+    }
+
+    public LocalDateTime getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public void setLastActivityAt(LocalDateTime lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
+    @Override
+    public String toString() {
+        return "UserStats{" +
+                "userId=" + userId +
+                ", noteCount=" + noteCount +
+                ", contentBytes=" + contentBytes +
+                ", tagCount=" + tagCount +
+                ", lastActivityAt=" + lastActivityAt +
+                ", changeSeq=" + changeSeq +
+                '}';
+    }
+}
@@ -0,0 +1,74 @@
+package com.notekeeper.entity;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "user_tags", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_user_tags_user_name", columnNames = {"user_id", "name"})
+})
+public class UserTag {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 255)
+    private String name;
+
+    @Column(name = "note_count", nullable = false)
+    private long noteCount;
+
+    // Constructors
+    public UserTag() {}
+
+    public UserTag(Long userId, String name, long noteCount) {
+        this.userId = userId;
+        this.name = name;
+        this.noteCount = noteCount;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getNoteCount() {
+        return noteCount;
+    }
+
+    public void setNoteCount(long noteCount) {
+        this.noteCount = noteCount;
+    }
+
+    @Override
+    public String toString() {
+        return "UserTag{" +
+                "userId=" + userId +
+                ", name='" + name + '\'' +
+                ", noteCount=" + noteCount +
+                '}';
+    }
+}
@@ -0,0 +1,61 @@
+package com.notekeeper.index;
+
+import java.text.Normalizer;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Java-side stand-in for the {@code utf8mb4_0900_ai_ci} collation of the text columns, for keys
+ * and matches worked out in the JVM that must agree with unique keys and LIKE in the database.
+ *
+ * {@link #fold(String)} drops case and accents, decomposes compatibility characters (full-width
+ * letters, ligatures) and expands the few letters the collation treats as two ({@code ß},
+ * {@code æ}, {@code œ}), so two strings the database considers equal fold to the same string.
+ * It is a primary-strength approximation for Latin, Greek and Cyrillic text, not a full UCA
+ * implementation. Spaces are kept, as in the NO PAD 0900 collations.
+ */
+public final class Collation {
+
+    /** Orders strings by their folded form; maps and sets built on it merge collation-equal keys. */
+    public static final Comparator<String> ORDER = Comparator.comparing(Collation::fold);
+
+    private Collation() {
+    }
+
+    public static String fold(String s) {
+        if (s == null) {
+            return "";
+        }
+        if (isAscii(s)) {
+            return s.toLowerCase(Locale.ROOT);
+        }
+        String decomposed = Normalizer.normalize(s, Normalizer.Form.NFKD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            char lower = Character.toLowerCase(c);
+            if (lower == 'ß') {
+                folded.append("ss");
+            } else if (lower == 'æ') {
+                folded.append("ae");
+            } else if (lower == 'œ') {
+                folded.append("oe");
+            } else {
+                folded.append(lower);
+            }
+        }
+        return folded.toString();
+    }
+
+    public static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,113 @@
+package com.notekeeper.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-user locality-sensitive hash index over MinHash signatures. Each note sits in one bucket per
+ * band, so the candidates for a note are the other members of its {@link MinHash#BANDS} buckets and
+ * nothing is compared pairwise. Instances are guarded by their own monitor.
+ */
+public class LshIndex {
+
+    private final Map<Long, int[]> signatures = new HashMap<>();
+    private final List<Map<Long, long[]>> buckets = new ArrayList<>(MinHash.BANDS);
+
+    public LshIndex() {
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    /** Indexes or re-indexes a note; an empty signature (no words) just removes it. */
+    public synchronized void put(long noteId, int[] signature) {
+        remove(noteId);
+        if (signature.length != MinHash.SIZE) {
+            return;
+        }
+        signatures.put(noteId, signature);
+        long[] keys = MinHash.bandKeys(signature);
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            buckets.get(band).merge(keys[band], new long[] {noteId}, LshIndex::append);
+        }
+    }
+
+    public synchronized void remove(long noteId) {
+        int[] signature = signatures.remove(noteId);
+        if (signature == null) {
+            return;
+        }
+        long[] keys = MinHash.bandKeys(signature);
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            buckets.get(band).computeIfPresent(keys[band], (key, members) -> without(members, noteId));
+        }
+    }
+
+    public synchronized int[] signature(long noteId) {
+        return signatures.get(noteId);
+    }
+
+    /** Notes sharing at least one bucket with the given note, excluding itself. */
+    public synchronized Set<Long> candidates(long noteId) {
+        int[] signature = signatures.get(noteId);
+        Set<Long> candidates = new LinkedHashSet<>();
+        if (signature == null) {
+            return candidates;
+        }
+        long[] keys = MinHash.bandKeys(signature);
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            long[] members = buckets.get(band).get(keys[band]);
+            if (members != null) {
+                for (long member : members) {
+                    if (member != noteId) {
+                        candidates.add(member);
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /** Every bucket holding more than one note, i.e. every group of candidate duplicates. */
+    public synchronized List<long[]> sharedBuckets() {
+        List<long[]> shared = new ArrayList<>();
+        for (Map<Long, long[]> band : buckets) {
+            for (long[] members : band.values()) {
+                if (members.length > 1) {
+                    shared.add(members);
+                }
+            }
+        }
+        return shared;
+    }
+
+    public synchronized int size() {
+        return signatures.size();
+    }
+
+    private static long[] append(long[] members, long[] added) {
+        long[] result = Arrays.copyOf(members, members.length + added.length);
+        System.arraycopy(added, 0, result, members.length, added.length);
+        return result;
+    }
+
+    private static long[] without(long[] members, long noteId) {
+        for (int i = 0; i < members.length; i++) {
+            if (members[i] == noteId) {
+                if (members.length == 1) {
+                    return null;
+                }
+                long[] result = new long[members.length - 1];
+                System.arraycopy(members, 0, result, 0, i);
+                System.arraycopy(members, i + 1, result, i, members.length - i - 1);
+                return result;
+            }
+        }
+        return members;
+    }
+}
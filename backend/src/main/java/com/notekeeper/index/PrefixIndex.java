@@ -0,0 +1,267 @@
+package com.notekeeper.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Per-user prefix index over note titles and tag names.
+ *
+ * Titles are indexed at every word start without copying substrings: each entry is a
+ * (noteId, offset) pair kept in parallel primitive arrays sorted by the title suffix that
+ * begins at that offset. Tags are few per user, so they live in a plain sorted array.
+ * Instances are guarded by their own monitor.
+ */
+public class PrefixIndex {
+
+    private static final int MAX_KEYS_PER_TITLE = 32;
+
+    private final Map<Long, NoteEntry> notes = new HashMap<>();
+    private final Map<String, TagEntry> tags = new HashMap<>();
+
+    private long[] entryNoteIds = new long[16];
+    private short[] entryOffsets = new short[16];
+    private int entryCount;
+
+    private String[] tagKeys = new String[0];
+
+    public synchronized void put(long noteId, String title, Collection<String> noteTags, long updatedAt) {
+        remove(noteId);
+
+        String key = title != null ? title.toLowerCase(Locale.ROOT) : "";
+        Set<String> tagSet = new LinkedHashSet<>();
+        if (noteTags != null) {
+            for (String tag : noteTags) {
+                if (tag != null && !tag.isBlank()) {
+                    tagSet.add(tag.trim());
+                }
+            }
+        }
+
+        NoteEntry entry = new NoteEntry(title, key, tagSet.toArray(new String[0]), updatedAt);
+        notes.put(noteId, entry);
+
+        int keys = 0;
+        for (int i = 0; i < key.length() && keys < MAX_KEYS_PER_TITLE; i++) {
+            if (isWordStart(key, i)) {
+                insertEntry(noteId, i);
+                keys++;
+            }
+        }
+
+        for (String tag : entry.tags) {
+            String tagKey = tag.toLowerCase(Locale.ROOT);
+            TagEntry tagEntry = tags.get(tagKey);
+            if (tagEntry == null) {
+                tagEntry = new TagEntry(tag);
+                tags.put(tagKey, tagEntry);
+                insertTagKey(tagKey);
+            }
+            tagEntry.count++;
+            tagEntry.lastUsed = Math.max(tagEntry.lastUsed, updatedAt);
+        }
+    }
+
+    public synchronized void remove(long noteId) {
+        NoteEntry entry = notes.get(noteId);
+        if (entry == null) {
+            return;
+        }
+
+        int keys = 0;
+        for (int i = 0; i < entry.key.length() && keys < MAX_KEYS_PER_TITLE; i++) {
+            if (isWordStart(entry.key, i)) {
+                removeEntry(noteId, entry.key, i);
+                keys++;
+            }
+        }
+        notes.remove(noteId);
+
+        for (String tag : entry.tags) {
+            String tagKey = tag.toLowerCase(Locale.ROOT);
+            TagEntry tagEntry = tags.get(tagKey);
+            if (tagEntry != null && --tagEntry.count == 0) {
+                tags.remove(tagKey);
+                removeTagKey(tagKey);
+            }
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} titles and tags starting with {@code prefix}, most recently
+     * updated first.
+     */
+    public synchronized List<Match> suggest(String prefix, int limit) {
+        String p = prefix.toLowerCase(Locale.ROOT);
+        PriorityQueue<Match> top = new PriorityQueue<>(limit + 1,
+                (a, b) -> Long.compare(a.updatedAt(), b.updatedAt()));
+
+        Set<Long> seen = new HashSet<>();
+        for (int i = lowerBound(p); i < entryCount; i++) {
+            long noteId = entryNoteIds[i];
+            NoteEntry entry = notes.get(noteId);
+            if (!entry.key.startsWith(p, entryOffsets[i])) {
+                break;
+            }
+            if (seen.add(noteId)) {
+                offer(top, new Match(Match.Kind.NOTE, entry.title, noteId, entry.updatedAt), limit);
+            }
+        }
+
+        int from = Arrays.binarySearch(tagKeys, p);
+        for (int i = from >= 0 ? from : -from - 1; i < tagKeys.length && tagKeys[i].startsWith(p); i++) {
+            TagEntry tagEntry = tags.get(tagKeys[i]);
+            offer(top, new Match(Match.Kind.TAG, tagEntry.display, null, tagEntry.lastUsed), limit);
+        }
+
+        List<Match> result = new ArrayList<>(top);
+        result.sort((a, b) -> Long.compare(b.updatedAt(), a.updatedAt()));
+        return result;
+    }
+
+    public synchronized int size() {
+        return notes.size();
+    }
+
+    private static void offer(PriorityQueue<Match> top, Match match, int limit) {
+        if (top.size() < limit) {
+            top.add(match);
+        } else if (top.peek().updatedAt() < match.updatedAt()) {
+            top.poll();
+            top.add(match);
+        }
+    }
+
+    private static boolean isWordStart(String key, int i) {
+        return Character.isLetterOrDigit(key.charAt(i)) && (i == 0 || !Character.isLetterOrDigit(key.charAt(i - 1)));
+    }
+
+    private int lowerBound(String prefix) {
+        int lo = 0;
+        int hi = entryCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            NoteEntry entry = notes.get(entryNoteIds[mid]);
+            if (compareSuffix(entry.key, entryOffsets[mid], prefix, 0) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int compareEntry(int index, long noteId, String key, int offset) {
+        long otherId = entryNoteIds[index];
+        NoteEntry other = notes.get(otherId);
+        int cmp = compareSuffix(other.key, entryOffsets[index], key, offset);
+        return cmp != 0 ? cmp : Long.compare(otherId, noteId);
+    }
+
+    private static int compareSuffix(String a, int aOffset, String b, int bOffset) {
+        int aLen = a.length() - aOffset;
+        int bLen = b.length() - bOffset;
+        int n = Math.min(aLen, bLen);
+        for (int i = 0; i < n; i++) {
+            char ca = a.charAt(aOffset + i);
+            char cb = b.charAt(bOffset + i);
+            if (ca != cb) {
+                return ca - cb;
+            }
+        }
+        return aLen - bLen;
+    }
+
+    private int findEntry(long noteId, String key, int offset) {
+        int lo = 0;
+        int hi = entryCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareEntry(mid, noteId, key, offset) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void insertEntry(long noteId, int offset) {
+        int at = findEntry(noteId, notes.get(noteId).key, offset);
+        if (entryCount == entryNoteIds.length) {
+            entryNoteIds = Arrays.copyOf(entryNoteIds, entryCount * 2);
+            entryOffsets = Arrays.copyOf(entryOffsets, entryCount * 2);
+        }
+        System.arraycopy(entryNoteIds, at, entryNoteIds, at + 1, entryCount - at);
+        System.arraycopy(entryOffsets, at, entryOffsets, at + 1, entryCount - at);
+        entryNoteIds[at] = noteId;
+        entryOffsets[at] = (short) offset;
+        entryCount++;
+    }
+
+    private void removeEntry(long noteId, String key, int offset) {
+        int at = findEntry(noteId, key, offset);
+        if (at < entryCount && entryNoteIds[at] == noteId && entryOffsets[at] == offset) {
+            System.arraycopy(entryNoteIds, at + 1, entryNoteIds, at, entryCount - at - 1);
+            System.arraycopy(entryOffsets, at + 1, entryOffsets, at, entryCount - at - 1);
+            entryCount--;
+        }
+    }
+
+    private void insertTagKey(String tagKey) {
+        int at = -Arrays.binarySearch(tagKeys, tagKey) - 1;
+        String[] next = new String[tagKeys.length + 1];
+        System.arraycopy(tagKeys, 0, next, 0, at);
+        next[at] = tagKey;
+        System.arraycopy(tagKeys, at, next, at + 1, tagKeys.length - at);
+        tagKeys = next;
+    }
+
+    private void removeTagKey(String tagKey) {
+        int at = Arrays.binarySearch(tagKeys, tagKey);
+        if (at < 0) {
+            return;
+        }
+        String[] next = new String[tagKeys.length - 1];
+        System.arraycopy(tagKeys, 0, next, 0, at);
+        System.arraycopy(tagKeys, at + 1, next, at, tagKeys.length - at - 1);
+        tagKeys = next;
+    }
+
+    public record Match(Kind kind, String text, Long noteId, long updatedAt) {
+
+        public enum Kind { NOTE, TAG }
+    }
+
+    private static final class NoteEntry {
+        final String title;
+        final String key;
+        final String[] tags;
+        final long updatedAt;
+
+        NoteEntry(String title, String key, String[] tags, long updatedAt) {
+            this.title = title;
+            this.key = key;
+            this.tags = tags;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    private static final class TagEntry {
+        final String display;
+        int count;
+        long lastUsed;
+
+        TagEntry(String display) {
+            this.display = display;
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package com.notekeeper.index;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of non-negative ints in the style of Roaring bitmaps.
+ *
+ * Values are split on their high 16 bits into chunks; each chunk is stored either as a sorted
+ * array of low bits (up to 4096 values, 8KB at most) or as a fixed 65536-bit bitmap once it gets
+ * denser than that. Set operations work chunk by chunk and never materialise the full value range.
+ * Not thread-safe; the owning index synchronises access.
+ */
+public final class RoaringBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+
+    private char[] keys = new char[0];
+    private Container[] containers = new Container[0];
+    private int chunks;
+
+    public void add(int value) {
+        char key = highBits(value);
+        int at = findChunk(key);
+        if (at >= 0) {
+            containers[at] = containers[at].add(lowBits(value));
+            return;
+        }
+        at = -at - 1;
+        if (chunks == keys.length) {
+            int capacity = Math.max(4, chunks * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+        System.arraycopy(keys, at, keys, at + 1, chunks - at);
+        System.arraycopy(containers, at, containers, at + 1, chunks - at);
+        keys[at] = key;
+        containers[at] = new ArrayContainer().add(lowBits(value));
+        chunks++;
+    }
+
+    public void remove(int value) {
+        int at = findChunk(highBits(value));
+        if (at < 0) {
+            return;
+        }
+        Container container = containers[at].remove(lowBits(value));
+        if (container.cardinality() == 0) {
+            System.arraycopy(keys, at + 1, keys, at, chunks - at - 1);
+            System.arraycopy(containers, at + 1, containers, at, chunks - at - 1);
+            containers[--chunks] = null;
+        } else {
+            containers[at] = container;
+        }
+    }
+
+    public boolean contains(int value) {
+        int at = findChunk(highBits(value));
+        return at >= 0 && containers[at].contains(lowBits(value));
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < chunks; i++) {
+            total += containers[i].cardinality();
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return chunks == 0;
+    }
+
+    public RoaringBitmap and(RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < chunks && j < other.chunks) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.append(keys[i], containers[i].and(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public RoaringBitmap or(RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < chunks || j < other.chunks) {
+            if (j == other.chunks || (i < chunks && keys[i] < other.keys[j])) {
+                result.append(keys[i], containers[i].copy());
+                i++;
+            } else if (i == chunks || keys[i] > other.keys[j]) {
+                result.append(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.append(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public RoaringBitmap andNot(RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap();
+        int j = 0;
+        for (int i = 0; i < chunks; i++) {
+            while (j < other.chunks && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.chunks && other.keys[j] == keys[i]) {
+                result.append(keys[i], containers[i].andNot(other.containers[j]));
+            } else {
+                result.append(keys[i], containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns up to {@code limit} values in descending order, skipping the first {@code offset}.
+     * Whole chunks are skipped by cardinality, so deep pages do not walk every value.
+     */
+    public int[] descending(int offset, int limit) {
+        int[] out = new int[limit];
+        int count = 0;
+        int skip = offset;
+        for (int i = chunks - 1; i >= 0 && count < limit; i--) {
+            Container container = containers[i];
+            int cardinality = container.cardinality();
+            if (skip >= cardinality) {
+                skip -= cardinality;
+                continue;
+            }
+            int high = keys[i] << 16;
+            for (int low = container.last(); low >= 0 && count < limit; low = container.previous(low - 1)) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    out[count++] = high | low;
+                }
+            }
+        }
+        return count == limit ? out : Arrays.copyOf(out, count);
+    }
+
+    private void append(char key, Container container) {
+        if (container.cardinality() == 0) {
+            return;
+        }
+        if (chunks == keys.length) {
+            int capacity = Math.max(4, chunks * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+        keys[chunks] = key;
+        containers[chunks] = container;
+        chunks++;
+    }
+
+    private int findChunk(char key) {
+        return Arrays.binarySearch(keys, 0, chunks, key);
+    }
+
+    private static char highBits(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+        return (char) (value >>> 16);
+    }
+
+    private static char lowBits(int value) {
+        return (char) value;
+    }
+
+    private abstract static class Container {
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        /** Largest value, or -1 when empty. */
+        abstract int last();
+
+        /** Largest value not above {@code from}, or -1 if there is none. */
+        abstract int previous(int from);
+
+        abstract Container copy();
+
+        Container and(Container other) {
+            Container small = cardinality() <= other.cardinality() ? this : other;
+            Container large = small == this ? other : this;
+            char[] buffer = new char[small.cardinality()];
+            int from = buffer.length;
+            for (int v = small.last(); v >= 0; v = small.previous(v - 1)) {
+                if (large.contains((char) v)) {
+                    buffer[--from] = (char) v;
+                }
+            }
+            ArrayContainer result = new ArrayContainer();
+            result.values = Arrays.copyOfRange(buffer, from, Math.max(from + 4, buffer.length));
+            result.size = buffer.length - from;
+            return result;
+        }
+
+        Container or(Container other) {
+            Container result = cardinality() >= other.cardinality() ? copy() : other.copy();
+            Container rest = cardinality() >= other.cardinality() ? other : this;
+            for (int v = rest.last(); v >= 0; v = rest.previous(v - 1)) {
+                result = result.add((char) v);
+            }
+            return result;
+        }
+
+        Container andNot(Container other) {
+            Container result = copy();
+            if (other.cardinality() < cardinality()) {
+                for (int v = other.last(); v >= 0; v = other.previous(v - 1)) {
+                    result = result.remove((char) v);
+                }
+                return result;
+            }
+            for (int v = last(); v >= 0; v = previous(v - 1)) {
+                if (other.contains((char) v)) {
+                    result = result.remove((char) v);
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values = new char[4];
+        private int size;
+
+        @Override
+        Container add(char value) {
+            int at = Arrays.binarySearch(values, 0, size, value);
+            if (at >= 0) {
+                return this;
+            }
+            if (size == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            at = -at - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, size * 2));
+            }
+            System.arraycopy(values, at, values, at + 1, size - at);
+            values[at] = value;
+            size++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int at = Arrays.binarySearch(values, 0, size, value);
+            if (at >= 0) {
+                System.arraycopy(values, at + 1, values, at, size - at - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        int last() {
+            return size > 0 ? values[size - 1] : -1;
+        }
+
+        @Override
+        int previous(int from) {
+            if (from < 0) {
+                return -1;
+            }
+            int at = Arrays.binarySearch(values, 0, size, (char) Math.min(from, Character.MAX_VALUE));
+            at = at >= 0 ? at : -at - 2;
+            return at >= 0 ? values[at] : -1;
+        }
+
+        @Override
+        Container copy() {
+            ArrayContainer copy = new ArrayContainer();
+            copy.values = Arrays.copyOf(values, Math.max(4, size));
+            copy.size = size;
+            return copy;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (!(other instanceof ArrayContainer that)) {
+                return super.and(other);
+            }
+            ArrayContainer result = new ArrayContainer();
+            result.values = new char[Math.max(4, Math.min(size, that.size))];
+            int i = 0;
+            int j = 0;
+            while (i < size && j < that.size) {
+                if (values[i] < that.values[j]) {
+                    i++;
+                } else if (values[i] > that.values[j]) {
+                    j++;
+                } else {
+                    result.values[result.size++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            return result;
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < size; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words = new long[1024];
+        private int cardinality;
+
+        @Override
+        Container add(char value) {
+            long bit = 1L << value;
+            int word = value >>> 6;
+            if ((words[word] & bit) == 0) {
+                words[word] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long bit = 1L << value;
+            int word = value >>> 6;
+            if ((words[word] & bit) != 0) {
+                words[word] &= ~bit;
+                cardinality--;
+            }
+            return cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        int last() {
+            return previous(Character.MAX_VALUE);
+        }
+
+        @Override
+        int previous(int from) {
+            if (from < 0) {
+                return -1;
+            }
+            int word = from >>> 6;
+            long bits = words[word] & (-1L >>> (63 - (from & 63)));
+            while (true) {
+                if (bits != 0) {
+                    return word * 64 + 63 - Long.numberOfLeadingZeros(bits);
+                }
+                if (--word < 0) {
+                    return -1;
+                }
+                bits = words[word];
+            }
+        }
+
+        @Override
+        Container copy() {
+            BitmapContainer copy = new BitmapContainer();
+            System.arraycopy(words, 0, copy.words, 0, words.length);
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (!(other instanceof BitmapContainer that)) {
+                return super.and(other);
+            }
+            BitmapContainer result = new BitmapContainer();
+            for (int i = 0; i < words.length; i++) {
+                result.words[i] = words[i] & that.words[i];
+                result.cardinality += Long.bitCount(result.words[i]);
+            }
+            return result.cardinality <= ARRAY_MAX ? result.toArray() : result;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (!(other instanceof BitmapContainer that)) {
+                return super.or(other);
+            }
+            BitmapContainer result = new BitmapContainer();
+            for (int i = 0; i < words.length; i++) {
+                result.words[i] = words[i] | that.words[i];
+                result.cardinality += Long.bitCount(result.words[i]);
+            }
+            return result;
+        }
+
+        @Override
+        Container andNot(Container other) {
+            if (!(other instanceof BitmapContainer that)) {
+                return super.andNot(other);
+            }
+            BitmapContainer result = new BitmapContainer();
+            for (int i = 0; i < words.length; i++) {
+                result.words[i] = words[i] & ~that.words[i];
+                result.cardinality += Long.bitCount(result.words[i]);
+            }
+            return result.cardinality <= ARRAY_MAX ? result.toArray() : result;
+        }
+
+        private ArrayContainer toArray() {
+            ArrayContainer array = new ArrayContainer();
+            array.values = new char[Math.max(4, cardinality)];
+            for (int i = 0; i < words.length; i++) {
+                long bits = words[i];
+                while (bits != 0) {
+                    array.values[array.size++] = (char) (i * 64 + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+            return array;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.notekeeper.index;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-user tag index mapping each tag to a compressed bitmap of note ordinals.
+ *
+ * Every write gives the note a fresh ordinal, so ordinals increase with recency and a filter
+ * result read in descending order is already sorted newest first; a page is just an offset into
+ * the result bitmap. Ordinals are renumbered once stale ones outnumber live notes. Tags are keyed
+ * by {@link Collation#fold}, the identity user_tags gives them.
+ * Instances are guarded by their own monitor.
+ */
+public class TagBitmapIndex {
+
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Map<Long, String[]> noteTags = new HashMap<>();
+    private final Map<String, RoaringBitmap> tags = new HashMap<>();
+    private RoaringBitmap live = new RoaringBitmap();
+    private long[] noteIds = new long[16];
+    private int nextOrdinal;
+
+    /**
+     * Indexes a note as the most recently written one. Callers loading existing notes must
+     * insert them oldest first.
+     */
+    public synchronized void put(long noteId, Collection<String> names) {
+        remove(noteId);
+        if (nextOrdinal == Integer.MAX_VALUE || nextOrdinal > 2 * ordinals.size() + 65536) {
+            compact();
+        }
+
+        Set<String> keys = new LinkedHashSet<>();
+        if (names != null) {
+            for (String name : names) {
+                if (name != null && !name.isBlank()) {
+                    keys.add(Collation.fold(name.trim()));
+                }
+            }
+        }
+        assign(noteId, keys.toArray(new String[0]));
+    }
+
+    public synchronized void remove(long noteId) {
+        Integer ordinal = ordinals.remove(noteId);
+        if (ordinal == null) {
+            return;
+        }
+        live.remove(ordinal);
+        for (String key : noteTags.remove(noteId)) {
+            RoaringBitmap bitmap = tags.get(key);
+            bitmap.remove(ordinal);
+            if (bitmap.isEmpty()) {
+                tags.remove(key);
+            }
+        }
+    }
+
+    /** Returns one page of matching note ids, most recently written first, with the total match count. */
+    public synchronized Result query(TagExpression expression, int offset, int limit) {
+        RoaringBitmap matches = expression.evaluate(tags::get, live);
+        int[] page = matches.descending(offset, limit);
+        long[] ids = new long[page.length];
+        for (int i = 0; i < page.length; i++) {
+            ids[i] = noteIds[page[i]];
+        }
+        return new Result(ids, matches.cardinality());
+    }
+
+    /** Returns every matching note id, most recently written first. */
+    public synchronized long[] matchAll(TagExpression expression) {
+        RoaringBitmap matches = expression.evaluate(tags::get, live);
+        int[] all = matches.descending(0, matches.cardinality());
+        long[] ids = new long[all.length];
+        for (int i = 0; i < all.length; i++) {
+            ids[i] = noteIds[all[i]];
+        }
+        return ids;
+    }
+
+    public synchronized int size() {
+        return ordinals.size();
+    }
+
+    private void assign(long noteId, String[] keys) {
+        int ordinal = nextOrdinal++;
+        if (ordinal == noteIds.length) {
+            noteIds = Arrays.copyOf(noteIds, (int) Math.min(Integer.MAX_VALUE - 8, noteIds.length * 2L));
+        }
+        noteIds[ordinal] = noteId;
+        ordinals.put(noteId, ordinal);
+        noteTags.put(noteId, keys);
+        live.add(ordinal);
+        for (String key : keys) {
+            tags.computeIfAbsent(key, k -> new RoaringBitmap()).add(ordinal);
+        }
+    }
+
+    private void compact() {
+        int[] order = live.descending(0, live.cardinality());
+        long[] oldIds = noteIds;
+        Map<Long, String[]> oldTags = new HashMap<>(noteTags);
+
+        ordinals.clear();
+        noteTags.clear();
+        tags.clear();
+        live = new RoaringBitmap();
+        noteIds = new long[Math.max(16, order.length * 2)];
+        nextOrdinal = 0;
+
+        for (int i = order.length - 1; i >= 0; i--) {
+            long noteId = oldIds[order[i]];
+            assign(noteId, oldTags.get(noteId));
+        }
+    }
+
+    public record Result(long[] noteIds, int total) {
+    }
+}
@@ -0,0 +1,197 @@
+package com.notekeeper.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Boolean filter over tag names, e.g. {@code work AND (urgent OR today) NOT archived}.
+ *
+ * Operators are {@code AND}/{@code &}, {@code OR}/{@code |} and {@code NOT}/{@code !}/{@code -}
+ * with the usual precedence; adjacent terms are implicitly ANDed. Keywords must be upper case so
+ * lower-case tags named "and", "or" or "not" still work, and tags containing spaces or operator
+ * characters can be double-quoted. Tag matching ignores case and accents, as user_tags does.
+ */
+public final class TagExpression {
+
+    private static final int MAX_TERMS = 32;
+
+    private final Node root;
+
+    private TagExpression(Node root) {
+        this.root = root;
+    }
+
+    public static TagExpression parse(String expression) {
+        Parser parser = new Parser(tokenize(expression));
+        Node root = parser.parseOr();
+        if (parser.pos != parser.tokens.size()) {
+            throw new IllegalArgumentException("Unexpected '" + parser.tokens.get(parser.pos).text + "' in tag expression");
+        }
+        return new TagExpression(root);
+    }
+
+    /**
+     * Evaluates the expression with {@code tagBitmap} resolving a tag name folded by
+     * {@link Collation#fold} to its bitmap (or null) and {@code all} being the universe that NOT
+     * is taken against.
+     */
+    public RoaringBitmap evaluate(Function<String, RoaringBitmap> tagBitmap, RoaringBitmap all) {
+        return root.evaluate(tagBitmap, all);
+    }
+
+    private static List<Token> tokenize(String expression) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        int terms = 0;
+        while (i < expression.length()) {
+            char c = expression.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')' || c == '&' || c == '|' || c == '!' || c == '-') {
+                tokens.add(new Token(String.valueOf(c), false));
+                i++;
+            } else if (c == '"') {
+                int end = expression.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated quote in tag expression");
+                }
+                tokens.add(new Token(expression.substring(i + 1, end), true));
+                terms++;
+                i = end + 1;
+            } else {
+                int start = i;
+                while (i < expression.length() && !Character.isWhitespace(expression.charAt(i))
+                        && "()&|!\"".indexOf(expression.charAt(i)) < 0) {
+                    i++;
+                }
+                tokens.add(new Token(expression.substring(start, i), false));
+                terms++;
+            }
+            if (terms > MAX_TERMS) {
+                throw new IllegalArgumentException("Tag expression has more than " + MAX_TERMS + " terms");
+            }
+        }
+        return tokens;
+    }
+
+    private record Token(String text, boolean quoted) {
+
+        boolean is(String keyword, String symbol) {
+            return !quoted && (text.equals(keyword) || text.equals(symbol));
+        }
+    }
+
+    private static final class Parser {
+        final List<Token> tokens;
+        int pos;
+
+        Parser(List<Token> tokens) {
+            this.tokens = tokens;
+        }
+
+        Node parseOr() {
+            List<Node> children = new ArrayList<>();
+            children.add(parseAnd());
+            while (peekIs("OR", "|")) {
+                pos++;
+                children.add(parseAnd());
+            }
+            return children.size() == 1 ? children.get(0) : new Or(children);
+        }
+
+        Node parseAnd() {
+            List<Node> children = new ArrayList<>();
+            children.add(parseUnary());
+            while (pos < tokens.size() && !peekIs("OR", "|") && !peekIs(")", ")")) {
+                if (peekIs("AND", "&")) {
+                    pos++;
+                }
+                children.add(parseUnary());
+            }
+            return children.size() == 1 ? children.get(0) : new And(children);
+        }
+
+        Node parseUnary() {
+            if (peekIs("NOT", "!") || peekIs("NOT", "-")) {
+                pos++;
+                return new Not(parseUnary());
+            }
+            if (peekIs("(", "(")) {
+                pos++;
+                Node inner = parseOr();
+                if (!peekIs(")", ")")) {
+                    throw new IllegalArgumentException("Missing ')' in tag expression");
+                }
+                pos++;
+                return inner;
+            }
+            if (pos == tokens.size()) {
+                throw new IllegalArgumentException("Tag expression ends unexpectedly");
+            }
+            Token token = tokens.get(pos++);
+            if (!token.quoted && (token.text.length() == 1 && "()&|".contains(token.text)
+                    || token.text.equals("AND") || token.text.equals("OR"))) {
+                throw new IllegalArgumentException("Unexpected '" + token.text + "' in tag expression");
+            }
+            return new Tag(Collation.fold(token.text.trim()));
+        }
+
+        boolean peekIs(String keyword, String symbol) {
+            return pos < tokens.size() && tokens.get(pos).is(keyword, symbol);
+        }
+    }
+
+    private interface Node {
+        RoaringBitmap evaluate(Function<String, RoaringBitmap> tagBitmap, RoaringBitmap all);
+    }
+
+    private record Tag(String name) implements Node {
+        @Override
+        public RoaringBitmap evaluate(Function<String, RoaringBitmap> tagBitmap, RoaringBitmap all) {
+            RoaringBitmap bitmap = tagBitmap.apply(name);
+            return bitmap != null ? bitmap : new RoaringBitmap();
+        }
+    }
+
+    private record Not(Node child) implements Node {
+        @Override
+        public RoaringBitmap evaluate(Function<String, RoaringBitmap> tagBitmap, RoaringBitmap all) {
+            return all.andNot(child.evaluate(tagBitmap, all));
+        }
+    }
+
+    private record And(List<Node> children) implements Node {
+        @Override
+        public RoaringBitmap evaluate(Function<String, RoaringBitmap> tagBitmap, RoaringBitmap all) {
+            // Negated terms become ANDNOTs against the running result instead of complements of the universe
+            RoaringBitmap result = null;
+            for (Node child : children) {
+                if (!(child instanceof Not)) {
+                    RoaringBitmap bitmap = child.evaluate(tagBitmap, all);
+                    result = result == null ? bitmap : result.and(bitmap);
+                }
+            }
+            if (result == null) {
+                result = all;
+            }
+            for (Node child : children) {
+                if (child instanceof Not not) {
+                    result = result.andNot(not.child().evaluate(tagBitmap, all));
+                }
+            }
+            return result;
+        }
+    }
+
+    private record Or(List<Node> children) implements Node {
+        @Override
+        public RoaringBitmap evaluate(Function<String, RoaringBitmap> tagBitmap, RoaringBitmap all) {
+            RoaringBitmap result = new RoaringBitmap();
+            for (Node child : children) {
+                result = result.or(child.evaluate(tagBitmap, all));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.notekeeper.index;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-user trigram index for substring search. Every run of three characters in a note's title or
+ * content, folded with {@link Collation#fold}, maps to a compressed bitmap of note ordinals; a
+ * term's candidates are the intersection of the bitmaps for its own trigrams, smallest first.
+ *
+ * Any note containing the term contains all of its trigrams, so the candidates are a superset of
+ * the matches and the caller still verifies them. Trigrams are hashed to ints, and a collision can
+ * only add candidates, never lose one. Terms shorter than three characters have no trigrams and
+ * cannot be answered here. Instances are guarded by their own monitor.
+ */
+public class TrigramIndex {
+
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Map<Long, int[]> noteTrigrams = new HashMap<>();
+    private final Map<Integer, RoaringBitmap> postings = new HashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private long[] noteIds = new long[16];
+    private int nextOrdinal;
+
+    public synchronized void put(long noteId, String title, String content) {
+        remove(noteId);
+        int[] trigrams = trigrams(title, content);
+
+        Integer reused = freeOrdinals.poll();
+        int ordinal = reused != null ? reused : nextOrdinal++;
+        if (ordinal >= noteIds.length) {
+            noteIds = Arrays.copyOf(noteIds, noteIds.length * 2);
+        }
+        noteIds[ordinal] = noteId;
+        ordinals.put(noteId, ordinal);
+        noteTrigrams.put(noteId, trigrams);
+        for (int trigram : trigrams) {
+            postings.computeIfAbsent(trigram, key -> new RoaringBitmap()).add(ordinal);
+        }
+    }
+
+    public synchronized void remove(long noteId) {
+        Integer ordinal = ordinals.remove(noteId);
+        if (ordinal == null) {
+            return;
+        }
+        for (int trigram : noteTrigrams.remove(noteId)) {
+            RoaringBitmap bitmap = postings.get(trigram);
+            bitmap.remove(ordinal);
+            if (bitmap.isEmpty()) {
+                postings.remove(trigram);
+            }
+        }
+        freeOrdinals.push(ordinal);
+    }
+
+    /**
+     * Ids of notes that may contain {@code term}, or {@code null} if the term is too short to
+     * narrow anything down.
+     */
+    public synchronized long[] candidates(String term) {
+        int[] wanted = trigrams(term, null);
+        if (wanted.length == 0) {
+            return null;
+        }
+
+        RoaringBitmap[] lists = new RoaringBitmap[wanted.length];
+        for (int i = 0; i < wanted.length; i++) {
+            lists[i] = postings.get(wanted[i]);
+            if (lists[i] == null) {
+                return new long[0];
+            }
+        }
+        // Rarest trigram first keeps every intermediate result as small as it can be
+        Arrays.sort(lists, Comparator.comparingInt(RoaringBitmap::cardinality));
+        RoaringBitmap result = lists[0];
+        for (int i = 1; i < lists.length && !result.isEmpty(); i++) {
+            result = result.and(lists[i]);
+        }
+
+        int[] matched = result.descending(0, result.cardinality());
+        long[] ids = new long[matched.length];
+        for (int i = 0; i < matched.length; i++) {
+            ids[i] = noteIds[matched[i]];
+        }
+        return ids;
+    }
+
+    public synchronized int size() {
+        return ordinals.size();
+    }
+
+    private static int[] trigrams(String title, String content) {
+        // Folded the way the column collation compares, so a term LIKE matches has its trigrams here
+        String foldedTitle = title != null ? Collation.fold(title) : null;
+        String foldedContent = content != null ? Collation.fold(content) : null;
+        int[] out = new int[Math.max(0, length(foldedTitle) - 2) + Math.max(0, length(foldedContent) - 2)];
+        int count = collect(foldedTitle, out, 0);
+        count = collect(foldedContent, out, count);
+        // Distinct keys, so each note appears once per posting list
+        Arrays.sort(out, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || out[distinct - 1] != out[i]) {
+                out[distinct++] = out[i];
+            }
+        }
+        return Arrays.copyOf(out, distinct);
+    }
+
+    private static int collect(String text, int[] out, int count) {
+        if (text == null || text.length() < 3) {
+            return count;
+        }
+        char a = text.charAt(0);
+        char b = text.charAt(1);
+        for (int i = 2; i < text.length(); i++) {
+            char c = text.charAt(i);
+            out[count++] = hash(a, b, c);
+            a = b;
+            b = c;
+        }
+        return count;
+    }
+
+    private static int length(String text) {
+        return text != null ? text.length() : 0;
+    }
+
+    private static int hash(char a, char b, char c) {
+        long h = ((long) a << 32) | ((long) b << 16) | c;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
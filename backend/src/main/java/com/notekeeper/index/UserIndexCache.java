@@ -0,0 +1,123 @@
+package com.notekeeper.index;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of per-user in-memory indexes, evicting the least recently used user first.
+ *
+ * {@link #getOrLoad} builds a missing index outside the cache's lock, one load per user at a time:
+ * requests for the same user wait for it, requests for other users and change notifications do
+ * not. A change reported while a load is running may or may not be in the rows it read, so that
+ * load is handed to its caller but not kept, and the next request loads again.
+ * Cached values must guard their own state; changes are applied outside the cache's lock.
+ */
+public final class UserIndexCache<T> {
+
+    private final int maxUsers;
+
+    // Access-ordered, so the eldest entry is the least recently used user; guards loads too
+    private final LinkedHashMap<Long, T> indexes = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, T> eldest) {
+            return size() > maxUsers;
+        }
+    };
+
+    // Loads in progress, flagged when a change arrives during them
+    private final Map<Long, Load> loads = new HashMap<>();
+    private final ConcurrentMap<Long, Object> loadLocks = new ConcurrentHashMap<>();
+
+    public UserIndexCache(int maxUsers) {
+        this.maxUsers = maxUsers;
+    }
+
+    /** The user's index if it is cached, or {@code null}. */
+    public T get(Long userId) {
+        synchronized (indexes) {
+            return indexes.get(userId);
+        }
+    }
+
+    /** The user's index, loaded with {@code loader} if it is not cached. */
+    public T getOrLoad(Long userId, Function<Long, T> loader) {
+        T index = get(userId);
+        if (index != null) {
+            return index;
+        }
+        Object lock = loadLocks.computeIfAbsent(userId, key -> new Object());
+        try {
+            synchronized (lock) {
+                Load load;
+                synchronized (indexes) {
+                    index = indexes.get(userId);
+                    if (index != null) {
+                        return index;
+                    }
+                    load = new Load();
+                    loads.put(userId, load);
+                }
+                try {
+                    index = loader.apply(userId);
+                } finally {
+                    synchronized (indexes) {
+                        loads.remove(userId, load);
+                        if (index != null && !load.changed) {
+                            indexes.put(userId, index);
+                        }
+                    }
+                }
+                return index;
+            }
+        } finally {
+            loadLocks.remove(userId, lock);
+        }
+    }
+
+    public void put(Long userId, T index) {
+        synchronized (indexes) {
+            indexes.put(userId, index);
+        }
+    }
+
+    /** Applies a change to the user's index if it is cached; a load in progress is not kept. */
+    public void update(Long userId, Consumer<T> change) {
+        T index;
+        synchronized (indexes) {
+            index = indexes.get(userId);
+            Load load = loads.get(userId);
+            if (load != null) {
+                load.changed = true;
+            }
+        }
+        if (index != null) {
+            change.accept(index);
+        }
+    }
+
+    /** Drops the user's index after a change too broad to apply note by note; it is rebuilt on next use. */
+    public void invalidate(Long userId) {
+        synchronized (indexes) {
+            indexes.remove(userId);
+            Load load = loads.get(userId);
+            if (load != null) {
+                load.changed = true;
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (indexes) {
+            return indexes.size();
+        }
+    }
+
+    private static final class Load {
+        boolean changed;
+    }
+}
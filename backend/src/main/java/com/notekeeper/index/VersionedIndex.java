@@ -0,0 +1,44 @@
+package com.notekeeper.index;
+
+import java.util.function.Consumer;
+
+/**
+ * A per-user index together with the user's change sequence ({@code user_stats.change_seq}) it
+ * reflects, so an instance can tell whether writes made elsewhere have passed its copy by.
+ *
+ * Every write to a user's live notes bumps the sequence in its transaction, and the writing
+ * instance applies the change to its copy after commit. A copy is built from a sequence read
+ * before its rows, so changes numbered at or below its version are already in it; the next
+ * number is applied, and a gap means a change was made on another instance and never arrived.
+ */
+public final class VersionedIndex<T> {
+
+    private final T index;
+    private long version;
+
+    public VersionedIndex(T index, long version) {
+        this.index = index;
+        this.version = version;
+    }
+
+    public T index() {
+        return index;
+    }
+
+    public synchronized long version() {
+        return version;
+    }
+
+    /** Applies the change numbered {@code seq}; returns false when earlier changes are missing. */
+    public synchronized boolean apply(long seq, Consumer<T> change) {
+        if (seq <= version) {
+            return true;
+        }
+        if (seq > version + 1) {
+            return false;
+        }
+        change.accept(index);
+        version = seq;
+        return true;
+    }
+}
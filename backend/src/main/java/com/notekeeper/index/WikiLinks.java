@@ -0,0 +1,89 @@
+package com.notekeeper.index;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Extracts {@code [[Title]]} references from Markdown.
+ *
+ * {@code [[Title|label]]} and {@code [[Title#Heading]]} link to {@code Title}. Links inside fenced
+ * code blocks are ignored. Targets are returned as keys normalised by {@link #key(String)}, and
+ * targets that differ only in case or accents are one target, as they are to the
+ * {@code note_links} unique key.
+ */
+public final class WikiLinks {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private WikiLinks() {
+    }
+
+    public static Set<String> parse(String markdown, int maxLinks) {
+        Set<String> keys = new TreeSet<>(Collation.ORDER);
+        if (markdown == null || markdown.indexOf("[[") < 0) {
+            return keys;
+        }
+
+        boolean inFence = false;
+        int lineStart = 0;
+        while (lineStart < markdown.length() && keys.size() < maxLinks) {
+            int lineEnd = markdown.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = markdown.length();
+            }
+            if (markdown.startsWith("```", firstNonBlank(markdown, lineStart, lineEnd))) {
+                inFence = !inFence;
+            } else if (!inFence) {
+                parseLine(markdown, lineStart, lineEnd, keys, maxLinks);
+            }
+            lineStart = lineEnd + 1;
+        }
+        return keys;
+    }
+
+    /** Normalised form used to match a link against note titles: trimmed and lower-cased. */
+    public static String key(String title) {
+        return title == null ? "" : title.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void parseLine(String text, int from, int to, Set<String> keys, int maxLinks) {
+        int open = text.indexOf("[[", from);
+        while (open >= 0 && open < to && keys.size() < maxLinks) {
+            int close = text.indexOf("]]", open + 2);
+            if (close < 0 || close > to) {
+                return;
+            }
+            int end = close;
+            for (int i = open + 2; i < close; i++) {
+                char c = text.charAt(i);
+                if (c == '[') {
+                    // Nested opener: restart from the innermost one
+                    end = -1;
+                    open = i - 1;
+                    break;
+                }
+                if ((c == '|' || c == '#') && end == close) {
+                    end = i;
+                }
+            }
+            if (end >= 0) {
+                String target = key(text.substring(open + 2, end));
+                if (!target.isEmpty() && target.length() <= MAX_KEY_LENGTH) {
+                    keys.add(target);
+                }
+                open = text.indexOf("[[", close + 2);
+            } else if (!text.startsWith("[[", open)) {
+                open = text.indexOf("[[", open + 1);
+            }
+        }
+    }
+
+    private static int firstNonBlank(String text, int from, int to) {
+        int i = from;
+        while (i < to && (text.charAt(i) == ' ' || text.charAt(i) == '\t')) {
+            i++;
+        }
+        return i;
+    }
+}
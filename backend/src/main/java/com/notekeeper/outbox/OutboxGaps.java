@@ -0,0 +1,125 @@
+package com.notekeeper.outbox;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Outbox ids a subscriber has read past without seeing, kept as ranges with the time each was
+ * first skipped.
+ *
+ * Auto-increment ids are allocated at insert but become visible at commit, so an id below the
+ * checkpoint can still commit later, and a multi-row INSERT ... SELECT may reserve ids it never
+ * uses. The dispatcher does not wait at a gap; it records it here, looks for the missing ids on
+ * every cycle, and drops a range once it has been open longer than the gap timeout. The ranges are
+ * stored with the checkpoint as text ({@code from-to@millis;...}) so another instance taking over
+ * the subscriber keeps looking for the same ids. Not thread-safe.
+ */
+public final class OutboxGaps {
+
+    private final TreeMap<Long, Range> ranges = new TreeMap<>();
+
+    public static OutboxGaps parse(String text) {
+        OutboxGaps gaps = new OutboxGaps();
+        if (text == null || text.isEmpty()) {
+            return gaps;
+        }
+        for (String part : text.split(";")) {
+            int dash = part.indexOf('-');
+            int at = part.indexOf('@');
+            if (dash <= 0 || at <= dash) {
+                continue;
+            }
+            try {
+                long from = Long.parseLong(part.substring(0, dash));
+                long to = Long.parseLong(part.substring(dash + 1, at));
+                long seenAt = Long.parseLong(part.substring(at + 1));
+                if (from <= to) {
+                    gaps.ranges.put(from, new Range(to, seenAt));
+                }
+            } catch (NumberFormatException e) {
+                // A damaged entry only means those ids are no longer looked for
+            }
+        }
+        return gaps;
+    }
+
+    /** Records ids {@code from..to} as skipped at {@code now}. */
+    public void add(long from, long to, long now) {
+        if (from <= to) {
+            ranges.put(from, new Range(to, now));
+        }
+    }
+
+    public boolean contains(long id) {
+        Map.Entry<Long, Range> entry = ranges.floorEntry(id);
+        return entry != null && id <= entry.getValue().to();
+    }
+
+    /** Marks {@code id} as seen, splitting its range. */
+    public void remove(long id) {
+        Map.Entry<Long, Range> entry = ranges.floorEntry(id);
+        if (entry == null || id > entry.getValue().to()) {
+            return;
+        }
+        long from = entry.getKey();
+        Range range = entry.getValue();
+        ranges.remove(from);
+        if (from < id) {
+            ranges.put(from, new Range(id - 1, range.seenAt()));
+        }
+        if (id < range.to()) {
+            ranges.put(id + 1, new Range(range.to(), range.seenAt()));
+        }
+    }
+
+    /** Drops ranges first skipped before {@code cutoff}; returns how many ids were given up on. */
+    public long expire(long cutoff) {
+        long dropped = 0;
+        for (Iterator<Map.Entry<Long, Range>> it = ranges.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, Range> entry = it.next();
+            if (entry.getValue().seenAt() < cutoff) {
+                dropped += entry.getValue().to() - entry.getKey() + 1;
+                it.remove();
+            }
+        }
+        return dropped;
+    }
+
+    /** Keeps at most {@code maxRanges} ranges, dropping the oldest ids first. */
+    public void limit(int maxRanges) {
+        while (ranges.size() > maxRanges) {
+            ranges.pollFirstEntry();
+        }
+    }
+
+    public boolean isEmpty() {
+        return ranges.isEmpty();
+    }
+
+    /** Lowest id still looked for; only meaningful when not empty. */
+    public long first() {
+        return ranges.firstKey();
+    }
+
+    /** Highest id still looked for; only meaningful when not empty. */
+    public long last() {
+        return ranges.lastEntry().getValue().to();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<Long, Range> entry : ranges.entrySet()) {
+            if (text.length() > 0) {
+                text.append(';');
+            }
+            text.append(entry.getKey()).append('-').append(entry.getValue().to())
+                    .append('@').append(entry.getValue().seenAt());
+        }
+        return text.toString();
+    }
+
+    private record Range(long to, long seenAt) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.notekeeper.outbox;
+
+import com.notekeeper.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * In-process consumer of note change events from the transactional outbox.
+ *
+ * Any Spring bean implementing this is picked up by the dispatcher. Delivery is at least once:
+ * a batch runs inside the transaction that advances the subscriber's checkpoint, and throwing
+ * rolls both back so the same batch is offered again after a backoff. Handlers must therefore
+ * be idempotent, e.g. by keying work on event id or note version. Batches are in id order except
+ * for events whose transaction committed after later ids were delivered, which arrive late.
+ */
+public interface OutboxSubscriber {
+
+    /** Stable identifier; the checkpoint is stored under it, so renaming restarts delivery. */
+    String name();
+
+    void handle(List<OutboxEvent> events);
+}
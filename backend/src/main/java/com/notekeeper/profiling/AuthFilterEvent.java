@@ -0,0 +1,22 @@
+package com.notekeeper.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.notekeeper.AuthFilter")
+@Label("JWT Authentication")
+@Description("Token parsing, revocation check and user lookup in JwtAuthenticationFilter, excluding the rest of the chain")
+@Category({"NoteKeeper", "Security"})
+@StackTrace(false)
+public class AuthFilterEvent extends Event {
+
+    @Label("Path")
+    public String path;
+
+    @Label("Authenticated")
+    public boolean authenticated;
+}
@@ -0,0 +1,25 @@
+package com.notekeeper.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.notekeeper.NoteConversion")
+@Label("Note To Response")
+@Category({"NoteKeeper", "Service"})
+@StackTrace(false)
+public class NoteConversionEvent extends Event {
+
+    @Label("Note Id")
+    public long noteId;
+
+    @Label("Content Length")
+    @DataAmount(DataAmount.BYTES)
+    public long contentLength;
+
+    @Label("Archived")
+    public boolean archived;
+}
@@ -0,0 +1,34 @@
+package com.notekeeper.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call to a public {@code NoteService} method, recorded by {@link NoteServiceProfiler}. For
+ * transactional methods the commit is included.
+ */
+@Name("com.notekeeper.NoteService")
+@Label("Note Service Call")
+@Category({"NoteKeeper", "Service"})
+@StackTrace(false)
+public class NoteServiceEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("User Id")
+    public long userId;
+
+    public static NoteServiceEvent start(String method, Long userId) {
+        NoteServiceEvent event = new NoteServiceEvent();
+        if (event.isEnabled()) {
+            event.method = method;
+            event.userId = userId != null ? userId : 0;
+            event.begin();
+        }
+        return event;
+    }
+}
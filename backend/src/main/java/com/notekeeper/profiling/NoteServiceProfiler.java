@@ -0,0 +1,47 @@
+package com.notekeeper.profiling;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records a {@link NoteServiceEvent} around every public {@code NoteService} call made through the
+ * Spring proxy. Ordered outermost, so a transactional method's event includes its commit; calls
+ * the service makes to itself are not proxied and stay part of the outer event.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class NoteServiceProfiler {
+
+    // Position of each method's userId parameter, or -1; looked up once per method
+    private final Map<Method, Integer> userIdPositions = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.notekeeper.service.NoteService.*(..))")
+    public Object record(ProceedingJoinPoint call) throws Throwable {
+        NoteServiceEvent event = NoteServiceEvent.start(call.getSignature().getName(), userId(call));
+        try {
+            return call.proceed();
+        } finally {
+            event.commit();
+        }
+    }
+
+    private Long userId(ProceedingJoinPoint call) {
+        MethodSignature signature = (MethodSignature) call.getSignature();
+        int position = userIdPositions.computeIfAbsent(signature.getMethod(), method -> {
+            String[] names = signature.getParameterNames();
+            return names != null ? Arrays.asList(names).indexOf("userId") : -1;
+        });
+        return position >= 0 && call.getArgs()[position] instanceof Long userId ? userId : null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.notekeeper.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.notekeeper.TagDecode")
+@Label("Tag JSON Decode")
+@Category({"NoteKeeper", "Service"})
+@StackTrace(false)
+public class TagDecodeEvent extends Event {
+
+    @Label("JSON Length")
+    @DataAmount(DataAmount.BYTES)
+    public long jsonLength;
+}
@@ -0,0 +1,18 @@
+package com.notekeeper.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Deliberately carries no email: recordings leave the process
+@Name("com.notekeeper.UserLookup")
+@Label("User Lookup")
+@Category({"NoteKeeper", "Security"})
+@StackTrace(false)
+public class UserLookupEvent extends Event {
+
+    @Label("Found")
+    public boolean found;
+}
@@ -0,0 +1,43 @@
+package com.notekeeper.render;
+
+import org.commonmark.node.Image;
+import org.commonmark.node.Link;
+import org.commonmark.node.Node;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * CommonMark to HTML, matching what the frontend's react-markdown shows.
+ *
+ * Output is safe to embed: raw HTML in the source is escaped rather than passed through,
+ * link and image URLs with unsafe schemes (javascript:, vbscript:, ...) are dropped, and
+ * links are marked nofollow/noopener. Parser and renderer are immutable and shared.
+ */
+@Component
+public class MarkdownRenderer {
+
+    /** Bump when output changes so cached renders from older versions are not reused. */
+    public static final String VERSION = "1";
+
+    private final Parser parser = Parser.builder().build();
+
+    private final HtmlRenderer renderer = HtmlRenderer.builder()
+            .escapeHtml(true)
+            .sanitizeUrls(true)
+            .softbreak("\n")
+            .attributeProviderFactory(context -> (Node node, String tagName, Map<String, String> attributes) -> {
+                if (node instanceof Link) {
+                    attributes.put("rel", "nofollow noopener noreferrer");
+                } else if (node instanceof Image) {
+                    attributes.put("loading", "lazy");
+                }
+            })
+            .build();
+
+    public String render(String markdown) {
+        return renderer.render(parser.parse(markdown != null ? markdown : ""));
+    }
+}
@@ -0,0 +1,21 @@
+package com.notekeeper.repository;
+
+import com.notekeeper.entity.Attachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
+    
+    Optional<Attachment> findByIdAndOwnerId(Long id, Long ownerId);
+    
+    List<Attachment> findByOwnerIdAndNoteIdOrderByCreatedAtAsc(Long ownerId, Long noteId);
+    
+    List<Attachment> findByNoteIdIn(Collection<Long> noteIds);
+    
+    boolean existsBySha256(String sha256);
+}
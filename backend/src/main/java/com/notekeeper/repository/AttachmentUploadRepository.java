@@ -0,0 +1,17 @@
+package com.notekeeper.repository;
+
+import com.notekeeper.entity.AttachmentUpload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AttachmentUploadRepository extends JpaRepository<AttachmentUpload, String> {
+    
+    Optional<AttachmentUpload> findByIdAndOwnerId(String id, Long ownerId);
+    
+    List<AttachmentUpload> findByUpdatedAtBefore(LocalDateTime cutoff);
+}
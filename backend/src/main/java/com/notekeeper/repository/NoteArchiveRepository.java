@@ -0,0 +1,21 @@
+package com.notekeeper.repository;
+
+import com.notekeeper.entity.NoteArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NoteArchiveRepository extends JpaRepository<NoteArchive, Long> {
+    
+    List<NoteArchive> findByNoteIdIn(Collection<Long> noteIds);
+    
+    // Keyset page over one user's archive, so a search fallback never holds every body at once
+    @Query("SELECT a FROM NoteArchive a WHERE a.ownerId = :ownerId AND a.noteId > :afterId ORDER BY a.noteId")
+    List<NoteArchive> findPageByOwnerId(@Param("ownerId") Long ownerId, @Param("afterId") long afterId, Pageable pageable);
+}
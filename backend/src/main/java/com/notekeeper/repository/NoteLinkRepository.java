@@ -0,0 +1,34 @@
+package com.notekeeper.repository;
+
+import com.notekeeper.entity.NoteLink;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NoteLinkRepository extends JpaRepository<NoteLink, Long> {
+    
+    @Query("SELECT l.targetKey FROM NoteLink l WHERE l.sourceId = :sourceId")
+    List<String> findTargetKeysBySourceId(@Param("sourceId") Long sourceId);
+    
+    @Query("SELECT l.sourceId, l.targetKey FROM NoteLink l WHERE l.sourceId IN :sourceIds")
+    List<Object[]> findBySourceIds(@Param("sourceIds") Collection<Long> sourceIds);
+    
+    @Query("SELECT l.sourceId, l.targetKey FROM NoteLink l WHERE l.ownerId = :ownerId AND l.targetKey IN :targetKeys")
+    List<Object[]> findByOwnerIdAndTargetKeys(@Param("ownerId") Long ownerId,
+                                              @Param("targetKeys") Collection<String> targetKeys);
+    
+    @Modifying
+    @Query("DELETE FROM NoteLink l WHERE l.sourceId = :sourceId AND l.targetKey IN :targetKeys")
+    int deleteBySourceIdAndTargetKeys(@Param("sourceId") Long sourceId,
+                                      @Param("targetKeys") Collection<String> targetKeys);
+    
+    @Modifying
+    @Query("DELETE FROM NoteLink l WHERE l.sourceId IN :sourceIds")
+    int deleteBySourceIds(@Param("sourceIds") Collection<Long> sourceIds);
+}
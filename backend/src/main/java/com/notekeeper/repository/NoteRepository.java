@@ -3,28 +3,142 @@ package com.notekeeper.repository;
 import com.notekeeper.entity.Note;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NoteRepository extends JpaRepository<Note, Long> {
     
-    Page<Note> findByOwnerIdOrderByUpdatedAtDesc(Long ownerId, Pageable pageable);
+    List<Note> findByOwnerIdAndDeletedAtIsNullOrderByUpdatedAtDesc(Long ownerId, Pageable pageable);
     
-    @Query("SELECT n FROM Note n WHERE n.owner.id = :ownerId AND " +
-           "(LOWER(n.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(n.content) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
-           "ORDER BY n.updatedAt DESC")
-    Page<Note> findByOwnerIdAndSearchTerm(@Param("ownerId") Long ownerId, 
-                                         @Param("searchTerm") String searchTerm,
-                                         Pageable pageable);
+    // A range on deleted_at rather than IS NOT NULL, so the page is read in
+    // idx_notes_owner_deleted_updated order instead of sorted
+    Page<Note> findByOwnerIdAndDeletedAtAfterOrderByDeletedAtDesc(Long ownerId, LocalDateTime after, Pageable pageable);
     
-    @Query("SELECT DISTINCT JSON_UNQUOTE(JSON_EXTRACT(n.tags, '$[*]')) FROM Note n WHERE n.owner.id = :ownerId")
+    List<Note> findByIdInAndOwnerIdAndDeletedAtIsNull(Collection<Long> ids, Long ownerId);
+    
+    @Query("SELECT DISTINCT JSON_UNQUOTE(JSON_EXTRACT(n.tags, '$[*]')) FROM Note n WHERE n.owner.id = :ownerId AND n.deletedAt IS NULL")
     List<String> findDistinctTagsByOwnerId(@Param("ownerId") Long ownerId);
     
-    boolean existsByIdAndOwnerId(Long id, Long ownerId);
+    boolean existsByIdAndOwnerIdAndDeletedAtIsNull(Long id, Long ownerId);
+    
+    @Query("SELECT n.version FROM Note n WHERE n.id = :id AND n.owner.id = :ownerId AND n.deletedAt IS NULL")
+    Optional<Long> findLiveVersion(@Param("id") Long id, @Param("ownerId") Long ownerId);
+    
+    @Query("SELECT n.id, n.title, n.tags, n.updatedAt FROM Note n WHERE n.owner.id = :ownerId AND n.deletedAt IS NULL")
+    List<Object[]> findSuggestSourcesByOwnerId(@Param("ownerId") Long ownerId);
+    
+    // Keyset pages of a user's live notes, bodies included, for building in-memory text indexes
+    @Query("SELECT n FROM Note n WHERE n.owner.id = :ownerId AND n.deletedAt IS NULL AND n.id > :afterId ORDER BY n.id")
+    List<Note> findLivePageByOwnerId(@Param("ownerId") Long ownerId, @Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT n.id, n.title, n.updatedAt FROM Note n WHERE n.owner.id = :ownerId AND n.deletedAt IS NULL " +
+           "AND n.titleKey IN :titleKeys")
+    List<Object[]> findLinkNodesByOwnerIdAndTitleKeys(@Param("ownerId") Long ownerId,
+                                                      @Param("titleKeys") Collection<String> titleKeys);
+    
+    @Query("SELECT n.id, n.title, n.updatedAt FROM Note n WHERE n.id IN :ids AND n.owner.id = :ownerId AND n.deletedAt IS NULL")
+    List<Object[]> findLinkNodesByIdsAndOwnerId(@Param("ids") Collection<Long> ids, @Param("ownerId") Long ownerId);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n.id, n.contentSize, n.tags FROM Note n " +
+           "WHERE n.id IN :ids AND n.owner.id = :ownerId AND n.deletedAt IS NULL")
+    List<Object[]> lockLiveByIdsAndOwnerId(@Param("ids") Collection<Long> ids, @Param("ownerId") Long ownerId);
+    
+    @Query("SELECT COUNT(n), COALESCE(SUM(n.contentSize), 0) FROM Note n WHERE n.owner.id = :ownerId AND n.deletedAt IS NULL")
+    List<Object[]> sumLiveContentByOwnerId(@Param("ownerId") Long ownerId);
+    
+    @Query("SELECT n.tags FROM Note n WHERE n.owner.id = :ownerId AND n.deletedAt IS NULL AND n.tags IS NOT NULL")
+    List<String> findLiveTagsByOwnerId(@Param("ownerId") Long ownerId);
+    
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE notes SET content_size = COALESCE(OCTET_LENGTH(content), 0) " +
+                   "WHERE owner_id = :ownerId AND archived_at IS NULL",
+           nativeQuery = true)
+    int backfillContentSize(@Param("ownerId") Long ownerId);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Note n SET n.deletedAt = :now, n.version = n.version + 1 " +
+           "WHERE n.id IN :ids AND n.owner.id = :ownerId AND n.deletedAt IS NULL")
+    int softDeleteByIdsAndOwnerId(@Param("ids") Collection<Long> ids,
+                                  @Param("ownerId") Long ownerId,
+                                  @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Note n SET n.deletedAt = NULL, n.updatedAt = :now, n.version = n.version + 1 " +
+           "WHERE n.id = :id AND n.owner.id = :ownerId AND n.deletedAt IS NOT NULL")
+    int restoreByIdAndOwnerId(@Param("id") Long id, @Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+    
+    @Query("SELECT n.id FROM Note n WHERE n.deletedAt < :cutoff ORDER BY n.deletedAt")
+    List<Long> findPurgeableIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    // Re-checks the candidates under lock so a note restored since it was picked is kept
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n.id FROM Note n WHERE n.id IN :ids AND n.deletedAt < :cutoff")
+    List<Long> lockPurgeable(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDateTime cutoff);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Note n WHERE n.id IN :ids AND n.deletedAt < :cutoff")
+    int purgeByIds(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDateTime cutoff);
+    
+    @Query("SELECT n.id FROM Note n WHERE n.archivedAt IS NULL AND n.deletedAt IS NULL AND n.updatedAt < :cutoff " +
+           "AND n.content IS NOT NULL ORDER BY n.updatedAt")
+    List<Long> findArchiveCandidateIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    // Re-checks the candidates under lock so a note edited since it was picked stays hot
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n.id, n.owner.id, n.content FROM Note n WHERE n.id IN :ids " +
+           "AND n.archivedAt IS NULL AND n.deletedAt IS NULL AND n.updatedAt < :cutoff AND n.content IS NOT NULL")
+    List<Object[]> lockArchiveCandidates(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDateTime cutoff);
+    
+    // Bulk update that leaves version alone and assigns updatedAt to itself so ON UPDATE CURRENT_TIMESTAMP
+    // does not fire; archiving is invisible to clients
+    @Modifying
+    @Transactional
+    @Query("UPDATE Note n SET n.content = NULL, n.archivedAt = :now, n.updatedAt = n.updatedAt WHERE n.id IN :ids")
+    int markArchived(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    @Query("SELECT n.id, n.version FROM Note n WHERE n.shareToken = :token AND n.deletedAt IS NULL")
+    List<Object[]> findSharedVersion(@Param("token") String token);
+    
+    @Query("SELECT n.shareToken, n.password FROM Note n WHERE n.id = :id AND n.owner.id = :ownerId AND n.deletedAt IS NULL")
+    List<Object[]> findShareState(@Param("id") Long id, @Param("ownerId") Long ownerId);
+    
+    // Sharing is not an edit: version and updatedAt stay as they are
+    @Modifying
+    @Transactional
+    @Query("UPDATE Note n SET n.shareToken = :token, n.updatedAt = n.updatedAt " +
+           "WHERE n.id = :id AND n.owner.id = :ownerId AND n.deletedAt IS NULL")
+    int updateShareToken(@Param("id") Long id, @Param("ownerId") Long ownerId, @Param("token") String token);
+    
+    @Query("SELECT n.id FROM Note n WHERE n.owner.id = :ownerId AND n.shareToken IS NOT NULL")
+    List<Long> findSharedIdsByOwnerId(@Param("ownerId") Long ownerId);
+    
+    // Every tagged note of the user, trash included, locked so a tag rename, merge or delete sees and
+    // changes exactly these rows; only the columns the rewrite needs are read
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n.id, n.tags, n.deletedAt, n.version FROM Note n WHERE n.owner.id = :ownerId AND n.tags IS NOT NULL")
+    List<Object[]> lockTaggedByOwnerId(@Param("ownerId") Long ownerId);
+    
+    // Version is bumped so stale copies held by clients fail their next save, but updatedAt assigns itself
+    // (editing tags is not editing the note); content is never read or written
+    @Modifying
+    @Transactional
+    @Query("UPDATE Note n SET n.tags = :tags, n.version = n.version + 1, n.updatedAt = n.updatedAt WHERE n.id IN :ids")
+    int setTags(@Param("ids") Collection<Long> ids, @Param("tags") String tagsJson);
 }
@@ -0,0 +1,165 @@
+package com.notekeeper.repository;
+
+import com.notekeeper.search.SearchCancellation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Substring search over a user's live notes in plain JDBC, so the running statement can be
+ * cancelled and carries a driver-enforced query timeout. Only ids come back; the caller loads
+ * the page's rows by primary key. Matching is the same case-insensitive LIKE the JPA query used;
+ * {@code archivedMatches} are notes whose archived content the caller already matched.
+ *
+ * Id lists are never bound whole: the scope and the archived matches are split into chunks of at
+ * most {@code search.id-chunk-size}, each chunk runs as its own query over a disjoint set of rows,
+ * and the ordered results are merged here. Counts of disjoint segments simply add up.
+ */
+@Repository
+public class NoteSearchRepository {
+
+    private static final String MATCHES = "LOWER(title) LIKE ? OR LOWER(content) LIKE ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${search.id-chunk-size:500}")
+    private int idChunkSize;
+
+    public List<Long> findIds(Long ownerId, String term, Collection<Long> restrictToIds, Collection<Long> archivedMatches,
+                              long offset, int limit, int timeoutSeconds, SearchCancellation cancellation) {
+        List<Segment> segments = segments(term, restrictToIds, archivedMatches);
+        if (segments.size() == 1) {
+            String sql = "SELECT id FROM notes" + segments.get(0).where() + " ORDER BY updated_at DESC LIMIT ? OFFSET ?";
+            return run(sql, ownerId, segments.get(0), new Object[] {limit, offset}, timeoutSeconds, cancellation, rs -> {
+                List<Long> ids = new ArrayList<>();
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+                return ids;
+            });
+        }
+
+        // The merged page lies within the first offset + limit rows of every segment
+        List<Hit> hits = new ArrayList<>();
+        for (Segment segment : segments) {
+            String sql = "SELECT id, updated_at FROM notes" + segment.where() + " ORDER BY updated_at DESC LIMIT ?";
+            run(sql, ownerId, segment, new Object[] {offset + limit}, timeoutSeconds, cancellation, rs -> {
+                while (rs.next()) {
+                    hits.add(new Hit(rs.getLong(1), rs.getTimestamp(2)));
+                }
+                return null;
+            });
+        }
+        hits.sort(Comparator.comparing(Hit::updatedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        return hits.stream().skip(offset).limit(limit).map(Hit::id).toList();
+    }
+
+    public long count(Long ownerId, String term, Collection<Long> restrictToIds, Collection<Long> archivedMatches,
+                      int timeoutSeconds, SearchCancellation cancellation) {
+        long total = 0;
+        for (Segment segment : segments(term, restrictToIds, archivedMatches)) {
+            total += run("SELECT COUNT(*) FROM notes" + segment.where(), ownerId, segment, new Object[0], timeoutSeconds,
+                    cancellation, rs -> rs.next() ? rs.getLong(1) : 0L);
+        }
+        return total;
+    }
+
+    private List<Segment> segments(String term, Collection<Long> restrictToIds, Collection<Long> archivedMatches) {
+        String pattern = "%" + term.toLowerCase(Locale.ROOT) + "%";
+        List<Segment> segments = new ArrayList<>();
+        if (restrictToIds == null) {
+            segments.add(new Segment("(" + MATCHES + ")", List.of(pattern, pattern)));
+            // Archived matches the LIKE cannot see, excluding any it already found
+            for (List<Long> chunk : chunks(archivedMatches)) {
+                List<Object> params = new ArrayList<>(chunk);
+                params.add(pattern);
+                params.add(pattern);
+                segments.add(new Segment("id IN (" + placeholders(chunk.size()) + ")" +
+                        " AND NOT (LOWER(COALESCE(title, '')) LIKE ? OR LOWER(COALESCE(content, '')) LIKE ?)", params));
+            }
+            return segments;
+        }
+
+        for (List<Long> chunk : chunks(restrictToIds)) {
+            List<Long> archived = chunk.stream().filter(archivedMatches::contains).toList();
+            List<Object> params = new ArrayList<>(chunk);
+            params.add(pattern);
+            params.add(pattern);
+            params.addAll(archived);
+            String condition = "id IN (" + placeholders(chunk.size()) + ") AND (" + MATCHES +
+                    (archived.isEmpty() ? "" : " OR id IN (" + placeholders(archived.size()) + ")") + ")";
+            segments.add(new Segment(condition, params));
+        }
+        return segments;
+    }
+
+    private List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += idChunkSize) {
+            chunks.add(all.subList(from, Math.min(all.size(), from + idChunkSize)));
+        }
+        return chunks;
+    }
+
+    private static String placeholders(int count) {
+        return "?" + ",?".repeat(count - 1);
+    }
+
+    private <T> T run(String sql, Long ownerId, Segment segment, Object[] tail, int timeoutSeconds,
+                      SearchCancellation cancellation, ResultSetExtractor<T> extractor) {
+        cancellation.throwIfCancelled();
+        PreparedStatementCreator creator = connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setQueryTimeout(timeoutSeconds);
+            int index = 1;
+            statement.setLong(index++, ownerId);
+            for (Object value : segment.params()) {
+                statement.setObject(index++, value);
+            }
+            for (Object value : tail) {
+                statement.setObject(index++, value);
+            }
+            return statement;
+        };
+
+        try {
+            return jdbcTemplate.execute(creator, statement -> {
+                cancellation.register(statement);
+                try {
+                    return extractor.extractData(statement.executeQuery());
+                } finally {
+                    cancellation.unregister(statement);
+                }
+            });
+        } catch (DataAccessException e) {
+            if (cancellation.isCancelled()) {
+                throw new SearchCancellation.SearchCancelledException();
+            }
+            throw e;
+        }
+    }
+
+    // One disjoint slice of the search: its condition and the values it binds after owner_id
+    private record Segment(String condition, List<Object> params) {
+        String where() {
+            return " WHERE owner_id = ? AND deleted_at IS NULL AND " + condition;
+        }
+    }
+
+    private record Hit(long id, Timestamp updatedAt) {
+    }
+}
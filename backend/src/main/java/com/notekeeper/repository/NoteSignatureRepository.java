@@ -0,0 +1,31 @@
+package com.notekeeper.repository;
+
+import com.notekeeper.entity.Note;
+import com.notekeeper.entity.NoteSignature;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface NoteSignatureRepository extends JpaRepository<NoteSignature, Long> {
+    
+    @Query("SELECT s.noteId, s.signature FROM NoteSignature s, Note n " +
+           "WHERE n.id = s.noteId AND s.ownerId = :ownerId AND n.deletedAt IS NULL")
+    List<Object[]> findLiveByOwnerId(@Param("ownerId") Long ownerId);
+    
+    // Live notes written before signatures existed; their signatures are backfilled after first use
+    @Query("SELECT n FROM Note n WHERE n.owner.id = :ownerId AND n.deletedAt IS NULL " +
+           "AND NOT EXISTS (SELECT s.noteId FROM NoteSignature s WHERE s.noteId = n.id)")
+    List<Note> findLiveWithoutSignature(@Param("ownerId") Long ownerId, Pageable pageable);
+    
+    /** Stores a backfilled signature unless a write has stored a newer one meanwhile; returns 1 if stored. */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO note_signatures (note_id, owner_id, signature) VALUES (:noteId, :ownerId, :signature)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("noteId") Long noteId, @Param("ownerId") Long ownerId, @Param("signature") byte[] signature);
+}
@@ -0,0 +1,25 @@
+package com.notekeeper.repository;
+
+import com.notekeeper.entity.OutboxCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxCheckpointRepository extends JpaRepository<OutboxCheckpoint, String> {
+    
+    // Row lock makes one instance the consumer for a subscriber while it delivers a batch
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM OutboxCheckpoint c WHERE c.subscriber = :subscriber")
+    Optional<OutboxCheckpoint> findForUpdate(@Param("subscriber") String subscriber);
+    
+    @Query("SELECT c FROM OutboxCheckpoint c WHERE c.subscriber IN :subscribers")
+    List<OutboxCheckpoint> findBySubscribers(@Param("subscribers") Collection<String> subscribers);
+}
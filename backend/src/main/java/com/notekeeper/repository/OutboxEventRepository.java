@@ -0,0 +1,46 @@
+package com.notekeeper.repository;
+
+import com.notekeeper.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id > :afterId ORDER BY e.id ASC")
+    List<OutboxEvent> findAfter(@Param("afterId") long afterId, Pageable pageable);
+    
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.id BETWEEN :fromId AND :toId")
+    List<Long> findIdsBetween(@Param("fromId") long fromId, @Param("toId") long toId);
+    
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id IN :ids ORDER BY e.id ASC")
+    List<OutboxEvent> findByIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OutboxEvent e")
+    long findMaxId();
+    
+    @Query("SELECT COALESCE(MIN(e.id), 0) FROM OutboxEvent e")
+    long findMinId();
+    
+    // One statement for a whole bulk operation instead of an insert per note
+    @Modifying
+    @Query(value = "INSERT INTO note_outbox (owner_id, note_id, type, note_version, created_at) " +
+                   "SELECT owner_id, id, :type, version, :now FROM notes WHERE id IN :noteIds AND owner_id = :ownerId",
+           nativeQuery = true)
+    int insertForNotes(@Param("noteIds") Collection<Long> noteIds, @Param("ownerId") Long ownerId,
+                       @Param("type") String type, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent e WHERE e.id <= :maxId")
+    int deleteUpTo(@Param("maxId") long maxId);
+}
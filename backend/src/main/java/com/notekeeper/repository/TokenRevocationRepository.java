@@ -0,0 +1,29 @@
+package com.notekeeper.repository;
+
+import com.notekeeper.entity.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+    
+    boolean existsByJti(String jti);
+    
+    @Query("SELECT MAX(r.notBefore) FROM TokenRevocation r WHERE r.userId = :userId AND r.notBefore IS NOT NULL")
+    LocalDateTime findLatestNotBefore(@Param("userId") Long userId);
+    
+    @Query("SELECT r.jti, r.userId FROM TokenRevocation r WHERE r.expiresAt > :now")
+    List<Object[]> findActiveKeys(@Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TokenRevocation r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
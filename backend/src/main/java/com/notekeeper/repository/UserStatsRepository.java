@@ -0,0 +1,55 @@
+package com.notekeeper.repository;
+
+import com.notekeeper.entity.UserStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+    
+    /**
+     * Applies a delta, bumps the change sequence and enforces quotas in the same statement;
+     * returns 0 when a growing counter would pass its limit.
+     */
+    @Modifying
+    @Query("UPDATE UserStats s SET s.noteCount = s.noteCount + :notes, " +
+           "s.contentBytes = s.contentBytes + :bytes, " +
+           "s.tagCount = s.tagCount + :tags, " +
+           "s.lastActivityAt = :now, " +
+           "s.changeSeq = s.changeSeq + 1 " +
+           "WHERE s.userId = :userId " +
+           "AND (:notes <= 0 OR s.noteCount + :notes <= :maxNotes) " +
+           "AND (:bytes <= 0 OR s.contentBytes + :bytes <= :maxBytes)")
+    int applyDelta(@Param("userId") Long userId,
+                   @Param("notes") long notes,
+                   @Param("bytes") long bytes,
+                   @Param("tags") long tags,
+                   @Param("now") LocalDateTime now,
+                   @Param("maxNotes") long maxNotes,
+                   @Param("maxBytes") long maxBytes);
+
+    /**
+     * Creates the user's zeroed counters row unless it exists; returns 1 only to the caller that
+     * created it. A concurrent caller blocks on the primary key until the creator commits.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO user_stats (user_id, note_count, content_bytes, tag_count, last_activity_at, change_seq) " +
+                   "VALUES (:userId, 0, 0, 0, :now, 0)", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+    
+    @Query("SELECT s.changeSeq FROM UserStats s WHERE s.userId = :userId")
+    Optional<Long> findChangeSeq(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE UserStats s SET s.noteCount = :notes, s.contentBytes = :bytes, s.tagCount = :tags WHERE s.userId = :userId")
+    int setTotals(@Param("userId") Long userId,
+                  @Param("notes") long notes,
+                  @Param("bytes") long bytes,
+                  @Param("tags") long tags);
+}
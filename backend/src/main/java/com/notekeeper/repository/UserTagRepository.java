@@ -0,0 +1,38 @@
+package com.notekeeper.repository;
+
+import com.notekeeper.entity.UserTag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserTagRepository extends JpaRepository<UserTag, Long> {
+    
+    @Query("SELECT t.name FROM UserTag t WHERE t.userId = :userId ORDER BY t.name")
+    List<String> findNamesByUserId(@Param("userId") Long userId);
+    
+    boolean existsByUserIdAndName(Long userId, String name);
+    
+    @Modifying
+    @Query("UPDATE UserTag t SET t.noteCount = t.noteCount + :delta WHERE t.userId = :userId AND t.name = :name")
+    int adjustCount(@Param("userId") Long userId, @Param("name") String name, @Param("delta") long delta);
+    
+    /** Returns 0 when the tag already exists, or a concurrent transaction has just created it. */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO user_tags (user_id, name, note_count) VALUES (:userId, :name, :count)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("name") String name, @Param("count") long count);
+    
+    // Matches the row under the column collation, so it takes the given spelling of the same tag
+    @Modifying
+    @Query("UPDATE UserTag t SET t.name = :name WHERE t.userId = :userId AND t.name = :name")
+    int respell(@Param("userId") Long userId, @Param("name") String name);
+    
+    @Modifying
+    @Query("DELETE FROM UserTag t WHERE t.userId = :userId AND t.name = :name AND t.noteCount <= 0")
+    int deleteIfUnused(@Param("userId") Long userId, @Param("name") String name);
+}
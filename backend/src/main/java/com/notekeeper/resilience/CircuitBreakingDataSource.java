@@ -0,0 +1,80 @@
+package com.notekeeper.resilience;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Routes every connection request through the {@link DatabaseCircuitBreaker}: refused at once
+ * while the circuit is open, and counted as a success or failure otherwise.
+ */
+public class CircuitBreakingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final DatabaseCircuitBreaker breaker;
+
+    public CircuitBreakingDataSource(DataSource target, DatabaseCircuitBreaker breaker) {
+        super(target);
+        this.breaker = breaker;
+        breaker.setProbe(this::probe);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        checkClosed();
+        try {
+            Connection connection = super.getConnection();
+            breaker.recordSuccess();
+            return connection;
+        } catch (SQLException e) {
+            record(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        checkClosed();
+        try {
+            Connection connection = super.getConnection(username, password);
+            breaker.recordSuccess();
+            return connection;
+        } catch (SQLException e) {
+            record(e);
+            throw e;
+        }
+    }
+
+    // The container closes the bean it holds, which is this wrapper rather than the pool
+    @Override
+    public void close() {
+        if (obtainTargetDataSource() instanceof HikariDataSource pool) {
+            pool.close();
+        }
+    }
+
+    private void checkClosed() throws SQLException {
+        if (breaker.isOpen()) {
+            throw new SQLTransientConnectionException("Database unavailable (circuit open)", "08000");
+        }
+    }
+
+    private void record(SQLException e) {
+        // A pool timeout with no cause only means every connection was busy; the database itself is fine
+        if (e instanceof SQLTransientConnectionException && e.getCause() == null) {
+            return;
+        }
+        if (DatabaseCircuitBreaker.isConnectionFailure(e)) {
+            breaker.recordFailure(e);
+        }
+    }
+
+    private boolean probe() throws SQLException {
+        try (Connection connection = obtainTargetDataSource().getConnection()) {
+            return connection.isValid(2);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.notekeeper.resilience;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker in front of the database.
+ *
+ * {@link CircuitBreakingDataSource} reports every connection attempt. After
+ * {@code resilience.breaker.failure-threshold} consecutive failures the circuit opens: connection
+ * requests fail at once instead of each waiting out the pool timeout, reads fall back to the local
+ * snapshot and writes are refused. While open, real requests never reach the database; a single
+ * background probe checks it instead, at an interval that backs off with jitter, and closes the
+ * circuit once the database answers. Instances recovering together therefore do not all hit it at
+ * the same moment. The probe runs on its own thread, so a slow connection attempt neither waits
+ * behind nor holds up the application's other scheduled jobs.
+ */
+@Component
+public class DatabaseCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseCircuitBreaker.class);
+
+    @Value("${resilience.breaker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${resilience.breaker.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${resilience.breaker.open-ms:2000}")
+    private long openMs;
+
+    @Value("${resilience.breaker.max-open-ms:30000}")
+    private long maxOpenMs;
+
+    @Value("${resilience.breaker.probe-check-ms:500}")
+    private long probeCheckMs;
+
+    private final ScheduledExecutorService prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "database-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean open;
+    private volatile long nextProbeAt;
+    private volatile Callable<Boolean> probe;
+
+    // Guarded by this
+    private int consecutiveFailures;
+    private long currentOpenMs;
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    /** Seconds until the next probe, as a hint for clients told to retry. */
+    public long retryAfterSeconds() {
+        return Math.max(1, (nextProbeAt - System.currentTimeMillis() + 999) / 1000);
+    }
+
+    void setProbe(Callable<Boolean> probe) {
+        this.probe = probe;
+    }
+
+    synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+    }
+
+    synchronized void recordFailure(Throwable cause) {
+        if (!enabled || open) {
+            return;
+        }
+        if (++consecutiveFailures >= failureThreshold) {
+            currentOpenMs = openMs;
+            nextProbeAt = System.currentTimeMillis() + jittered(currentOpenMs);
+            open = true;
+            logger.error("Database circuit opened after {} consecutive failures; serving read-only from the snapshot: {}",
+                    consecutiveFailures, cause.getMessage());
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        prober.scheduleWithFixedDelay(this::probeIfDue, probeCheckMs, probeCheckMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prober.shutdownNow();
+    }
+
+    void probeIfDue() {
+        Callable<Boolean> check = probe;
+        if (!open || check == null || System.currentTimeMillis() < nextProbeAt) {
+            return;
+        }
+        boolean healthy;
+        try {
+            healthy = Boolean.TRUE.equals(check.call());
+        } catch (Exception e) {
+            healthy = false;
+        }
+        synchronized (this) {
+            if (healthy) {
+                consecutiveFailures = 0;
+                open = false;
+                logger.info("Database reachable again; circuit closed");
+            } else {
+                currentOpenMs = Math.min(maxOpenMs, currentOpenMs * 2);
+                nextProbeAt = System.currentTimeMillis() + jittered(currentOpenMs);
+            }
+        }
+    }
+
+    /**
+     * Whether {@code error} means the database could not be reached at all, as opposed to a
+     * failing statement. Spring and Hibernate wrap the driver's exception, so the causes are
+     * walked; connection errors carry SQL state class 08.
+     */
+    public static boolean isConnectionFailure(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof SQLTransientConnectionException
+                    || current instanceof SQLNonTransientConnectionException
+                    || current instanceof SQLRecoverableException) {
+                return true;
+            }
+            if (current instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long jittered(long ms) {
+        // Between half and the full interval
+        return ms / 2 + ThreadLocalRandom.current().nextLong(ms / 2 + 1);
+    }
+}
@@ -0,0 +1,282 @@
+package com.notekeeper.resilience;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Fixed-size ring log of note records in a memory-mapped file, indexed in memory by note id.
+ *
+ * Writes append at the head and overwrite the oldest records once the file is full, so the
+ * file always holds the most recently written notes. Each record carries a sequence number and a
+ * CRC; on open the file is scanned, damaged or half-overwritten records are skipped, and the
+ * survivors are replayed in sequence order, so the snapshot outlives a restart. Deletions are
+ * written as tombstones. When the head wraps, the unused tail is cleared so that every intact
+ * record is newer than every overwritten one, and a tombstone can never be lost while the record
+ * it hides survives. Instances are guarded by their own monitor.
+ */
+public class SnapshotLog implements Closeable {
+
+    // magic, sequence, note id, owner id, version, payload length (-1 for a tombstone), crc
+    private static final int HEADER = 4 + 8 + 8 + 8 + 8 + 4 + 4;
+    private static final int MAGIC = 0x4E4B534C;
+    private static final int ALIGNMENT = 8;
+
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int maxPayload;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TreeMap<Integer, Entry> byOffset = new TreeMap<>();
+    private final Map<Long, Set<Long>> notesByOwner = new HashMap<>();
+    private int position;
+    private long nextSequence = 1;
+
+    private SnapshotLog(FileChannel channel, FileLock lock, MappedByteBuffer buffer, int capacity) {
+        this.channel = channel;
+        this.lock = lock;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.maxPayload = capacity / 8 - HEADER;
+    }
+
+    /**
+     * Opens or creates the file; fails if another process holds it. The file holds other users'
+     * notes, so where the file system has POSIX permissions it and any directories created for it
+     * are readable by the owner only, and an existing file is narrowed to that.
+     */
+    public static SnapshotLog open(Path file, int capacity) throws IOException {
+        boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+        if (file.getParent() != null) {
+            if (posix) {
+                Files.createDirectories(file.getParent(), PosixFilePermissions.asFileAttribute(
+                        PosixFilePermissions.fromString("rwx------")));
+            } else {
+                Files.createDirectories(file.getParent());
+            }
+        }
+        int size = capacity / ALIGNMENT * ALIGNMENT;
+        Set<OpenOption> options = Set.of(StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Set<PosixFilePermission> ownerOnly = EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE);
+        FileChannel channel = posix
+                ? FileChannel.open(file, options, PosixFilePermissions.asFileAttribute(ownerOnly))
+                : FileChannel.open(file, options);
+        try {
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                throw new IOException("Snapshot file " + file + " is in use by another process");
+            }
+            if (posix) {
+                // The attribute only applies to a file created here
+                Files.setPosixFilePermissions(file, ownerOnly);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            SnapshotLog log = new SnapshotLog(channel, lock, buffer, size);
+            log.recover();
+            return log;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public synchronized void put(long noteId, long ownerId, long version, byte[] payload) {
+        if (payload.length > maxPayload) {
+            // Too large to keep without pushing out many others; an older copy must not be served either
+            remove(noteId);
+            return;
+        }
+        int offset = append(noteId, ownerId, version, payload);
+        index(new Entry(noteId, ownerId, version, offset, payload.length));
+    }
+
+    public synchronized void remove(long noteId) {
+        if (forget(noteId)) {
+            append(noteId, 0, 0, null);
+        }
+    }
+
+    /** The stored version of the note, or -1 if it is not in the snapshot. */
+    public synchronized long version(long noteId) {
+        Entry entry = entries.get(noteId);
+        return entry != null ? entry.version() : -1;
+    }
+
+    /** The note's payload if it is in the snapshot and belongs to {@code ownerId}. */
+    public synchronized byte[] get(long ownerId, long noteId) {
+        Entry entry = entries.get(noteId);
+        if (entry == null || entry.ownerId() != ownerId) {
+            return null;
+        }
+        byte[] payload = new byte[entry.length()];
+        buffer.get(entry.offset() + HEADER, payload);
+        return payload;
+    }
+
+    public synchronized List<byte[]> getAll(long ownerId) {
+        Set<Long> noteIds = notesByOwner.getOrDefault(ownerId, Set.of());
+        List<byte[]> payloads = new ArrayList<>(noteIds.size());
+        for (Long noteId : noteIds) {
+            payloads.add(get(ownerId, noteId));
+        }
+        return payloads;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        lock.release();
+        channel.close();
+    }
+
+    private int append(long noteId, long ownerId, long version, byte[] payload) {
+        int length = payload != null ? payload.length : -1;
+        int size = align(HEADER + Math.max(0, length));
+        if (position + size > capacity) {
+            // Clear the tail so no record from the lap before last survives the one being overwritten
+            evict(position, capacity);
+            for (int i = position; i < capacity; i += ALIGNMENT) {
+                buffer.putLong(i, 0);
+            }
+            position = 0;
+        }
+        evict(position, position + size);
+
+        int offset = position;
+        buffer.putInt(offset, MAGIC);
+        buffer.putLong(offset + 4, nextSequence++);
+        buffer.putLong(offset + 12, noteId);
+        buffer.putLong(offset + 20, ownerId);
+        buffer.putLong(offset + 28, version);
+        buffer.putInt(offset + 36, length);
+        if (payload != null) {
+            buffer.put(offset + HEADER, payload);
+        }
+        buffer.putInt(offset + 40, crc(offset, length));
+        position += size;
+        return offset;
+    }
+
+    // Drops every indexed record overlapping [from, to), which is about to be overwritten
+    private void evict(int from, int to) {
+        Map.Entry<Integer, Entry> before = byOffset.lowerEntry(from);
+        if (before != null && before.getKey() + align(HEADER + before.getValue().length()) > from) {
+            forget(before.getValue().noteId());
+        }
+        for (Entry entry : new ArrayList<>(byOffset.subMap(from, true, to, false).values())) {
+            forget(entry.noteId());
+        }
+    }
+
+    private void index(Entry entry) {
+        forget(entry.noteId());
+        entries.put(entry.noteId(), entry);
+        byOffset.put(entry.offset(), entry);
+        notesByOwner.computeIfAbsent(entry.ownerId(), owner -> new HashSet<>()).add(entry.noteId());
+    }
+
+    private boolean forget(long noteId) {
+        Entry entry = entries.remove(noteId);
+        if (entry == null) {
+            return false;
+        }
+        byOffset.remove(entry.offset());
+        Set<Long> owned = notesByOwner.get(entry.ownerId());
+        if (owned != null) {
+            owned.remove(noteId);
+            if (owned.isEmpty()) {
+                notesByOwner.remove(entry.ownerId());
+            }
+        }
+        return true;
+    }
+
+    private void recover() {
+        // Records are aligned, so after a damaged spot the scan resynchronises on the next aligned slot
+        List<Record> found = new ArrayList<>();
+        int offset = 0;
+        while (offset + HEADER <= capacity) {
+            Record record = readRecord(offset);
+            if (record == null) {
+                offset += ALIGNMENT;
+                continue;
+            }
+            found.add(record);
+            offset += align(HEADER + Math.max(0, record.length()));
+        }
+
+        found.sort(Comparator.comparingLong(Record::sequence));
+        for (Record record : found) {
+            if (record.length() < 0) {
+                forget(record.noteId());
+            } else {
+                index(new Entry(record.noteId(), record.ownerId(), record.version(), record.offset(), record.length()));
+            }
+        }
+        if (!found.isEmpty()) {
+            Record newest = found.get(found.size() - 1);
+            nextSequence = newest.sequence() + 1;
+            position = newest.offset() + align(HEADER + Math.max(0, newest.length()));
+        }
+    }
+
+    private Record readRecord(int offset) {
+        if (buffer.getInt(offset) != MAGIC) {
+            return null;
+        }
+        int length = buffer.getInt(offset + 36);
+        if (length < -1 || length > capacity - offset - HEADER) {
+            return null;
+        }
+        if (buffer.getInt(offset + 40) != crc(offset, length)) {
+            return null;
+        }
+        return new Record(buffer.getLong(offset + 4), buffer.getLong(offset + 12), buffer.getLong(offset + 20),
+                buffer.getLong(offset + 28), offset, length);
+    }
+
+    // Covers the header after the magic and before the crc, then the payload
+    private int crc(int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset + 4, 36));
+        if (length > 0) {
+            crc.update(buffer.slice(offset + HEADER, length));
+        }
+        return (int) crc.getValue();
+    }
+
+    private static int align(int size) {
+        return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    private record Entry(long noteId, long ownerId, long version, int offset, int length) {
+    }
+
+    private record Record(long sequence, long noteId, long ownerId, long version, int offset, int length) {
+    }
+}
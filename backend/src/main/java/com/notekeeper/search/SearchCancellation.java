@@ -0,0 +1,66 @@
+package com.notekeeper.search;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Cancellation handle shared between a running search and whoever may abandon it (a timeout,
+ * or a client disconnect when the container reports one). The search registers each JDBC statement while it executes, so
+ * {@link #cancel()} can call {@link Statement#cancel()} and free the database immediately
+ * instead of letting the query run to completion for nobody.
+ */
+public class SearchCancellation {
+
+    private Statement current;
+    private boolean cancelled;
+
+    public synchronized void register(Statement statement) {
+        if (cancelled) {
+            throw new SearchCancelledException();
+        }
+        current = statement;
+    }
+
+    public synchronized void unregister(Statement statement) {
+        if (current == statement) {
+            current = null;
+        }
+    }
+
+    public void cancel() {
+        Statement statement;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            statement = current;
+        }
+        if (statement != null) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                // The statement may have finished or been closed in the meantime
+            }
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void throwIfCancelled() {
+        if (isCancelled()) {
+            throw new SearchCancelledException();
+        }
+    }
+
+    public static class SearchCancelledException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public SearchCancelledException() {
+            super("Search cancelled");
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.notekeeper.search;
+
+import com.notekeeper.dto.SearchSnippet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds bounded, highlighted snippets for a search term.
+ *
+ * Matching is a case-insensitive Knuth-Morris-Pratt scan, so the content is read once, left to
+ * right, and never re-examined regardless of how the term and text overlap. The first hit places
+ * the window and the same scan collects the highlights inside it, stopping at the window's end.
+ */
+public class SnippetExtractor {
+
+    private final char[] pattern;
+    private final int[] failure;
+    private final int window;
+    private final int maxHighlights;
+
+    public SnippetExtractor(String term, int window, int maxHighlights) {
+        this.pattern = lower(term.trim());
+        this.failure = buildFailure(pattern);
+        this.window = window;
+        this.maxHighlights = maxHighlights;
+    }
+
+    public SearchSnippet extract(String title, String content) {
+        SearchSnippet snippet = new SearchSnippet();
+        snippet.setTitleHighlights(title != null ? findAll(title, 0, title.length(), maxHighlights) : List.of());
+
+        if (content == null || content.isEmpty()) {
+            snippet.setText("");
+            snippet.setHighlights(List.of());
+            return snippet;
+        }
+
+        // One scan: the first hit fixes the window, later hits up to its end become highlights
+        List<int[]> highlights = new ArrayList<>();
+        int start = 0;
+        int end = -1;
+        int matched = 0;
+        for (int i = 0; pattern.length > 0 && i < content.length() && (end < 0 || i < end); i++) {
+            char c = Character.toLowerCase(content.charAt(i));
+            while (matched > 0 && c != pattern[matched]) {
+                matched = failure[matched - 1];
+            }
+            if (c == pattern[matched]) {
+                matched++;
+            }
+            if (matched < pattern.length) {
+                continue;
+            }
+            matched = 0;
+            int hit = i - pattern.length + 1;
+            if (end < 0) {
+                start = windowStart(content, hit);
+                end = windowEnd(content, start, i + 1);
+            }
+            highlights.add(new int[] { hit - start, i + 1 - start });
+            if (highlights.size() >= maxHighlights) {
+                break;
+            }
+        }
+        if (end < 0) {
+            end = alignEnd(content, Math.min(content.length(), window), 0);
+        }
+
+        snippet.setText(content.substring(start, end));
+        snippet.setOffset(start);
+        snippet.setTruncatedStart(start > 0);
+        snippet.setTruncatedEnd(end < content.length());
+        snippet.setHighlights(highlights);
+        return snippet;
+    }
+
+    // Centres the window on the hit, then pulls back to a word boundary; never past the hit itself,
+    // which a term longer than the window would otherwise cause
+    private int windowStart(String content, int hit) {
+        int start = Math.max(0, hit - Math.max(0, window - pattern.length) / 2);
+        return alignStart(content, start, hit);
+    }
+
+    // A term longer than the window still gets its whole match into the snippet
+    private int windowEnd(String content, int start, int hitEnd) {
+        int end = Math.min(content.length(), Math.max(start + window, hitEnd));
+        return alignEnd(content, end, hitEnd);
+    }
+
+    private List<int[]> findAll(String text, int from, int to, int limit) {
+        List<int[]> ranges = new ArrayList<>();
+        if (pattern.length == 0) {
+            return ranges;
+        }
+        int matched = 0;
+        for (int i = from; i < to && ranges.size() < limit; i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            while (matched > 0 && c != pattern[matched]) {
+                matched = failure[matched - 1];
+            }
+            if (c == pattern[matched]) {
+                matched++;
+            }
+            if (matched == pattern.length) {
+                ranges.add(new int[] { i - pattern.length + 1, i + 1 });
+                matched = 0;
+            }
+        }
+        return ranges;
+    }
+
+    private static int alignStart(String content, int start, int limit) {
+        if (start == 0) {
+            return 0;
+        }
+        for (int i = start; i < limit; i++) {
+            if (Character.isWhitespace(content.charAt(i - 1))) {
+                return i;
+            }
+        }
+        return start;
+    }
+
+    private static int alignEnd(String content, int end, int floor) {
+        if (end == content.length()) {
+            return end;
+        }
+        for (int i = end; i > floor; i--) {
+            if (Character.isWhitespace(content.charAt(i))) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static char[] lower(String s) {
+        char[] chars = new char[s.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(s.charAt(i));
+        }
+        return chars;
+    }
+
+    private static int[] buildFailure(char[] p) {
+        int[] f = new int[p.length];
+        int k = 0;
+        for (int i = 1; i < p.length; i++) {
+            while (k > 0 && p[i] != p[k]) {
+                k = f[k - 1];
+            }
+            if (p[i] == p[k]) {
+                k++;
+            }
+            f[i] = k;
+        }
+        return f;
+    }
+}
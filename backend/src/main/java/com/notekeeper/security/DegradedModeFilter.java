@@ -0,0 +1,76 @@
+package com.notekeeper.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notekeeper.dto.ErrorResponse;
+import com.notekeeper.resilience.DatabaseCircuitBreaker;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Read-only mode while the database circuit is open. Reads the snapshot can answer go through,
+ * marked with {@code X-Degraded}; writes and every other read get an immediate 503 with a
+ * Retry-After hint instead of an error from deep inside a controller.
+ */
+@Component
+public class DegradedModeFilter extends OncePerRequestFilter {
+
+    private static final Pattern SINGLE_NOTE = Pattern.compile("/notes/\\d+");
+
+    @Autowired
+    private DatabaseCircuitBreaker databaseCircuitBreaker;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+        if (!databaseCircuitBreaker.isOpen() || "OPTIONS".equals(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        response.setHeader("X-Degraded", "read-only");
+        boolean read = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        if (read && servedWithoutDatabase(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        reject(response, read
+                ? "This view is unavailable while the database is unreachable"
+                : "Notes are read-only while the database is unreachable; try again shortly");
+    }
+
+    private boolean servedWithoutDatabase(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/health/") || path.startsWith("/share/") || path.equals("/notes/stream")
+                || path.equals("/notes/tags") || path.equals("/bootstrap")
+                || SINGLE_NOTE.matcher(path).matches()) {
+            return true;
+        }
+        // The plain listing only; search and tag filters need the database
+        return path.equals("/notes") && isBlank(request.getParameter("search")) && isBlank(request.getParameter("tags"));
+    }
+
+    private void reject(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", String.valueOf(databaseCircuitBreaker.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(message));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -1,6 +1,10 @@
 package com.notekeeper.security;
 
+import com.notekeeper.profiling.AuthFilterEvent;
+import com.notekeeper.resilience.DatabaseCircuitBreaker;
 import com.notekeeper.service.CustomUserDetailsService;
+import com.notekeeper.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,51 +12,122 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String STREAM_PATH = "/notes/stream";
+
+    private static final String SHARE_PATH_PREFIX = "/share/";
+
+    public static final Pattern COLLAB_PATH = Pattern.compile("/notes/(\\d+)/collab");
+
     @Autowired
     private JwtUtil jwtUtil;
 
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private DatabaseCircuitBreaker databaseCircuitBreaker;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Share links are public and must not cost a token parse or a user lookup
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith(SHARE_PATH_PREFIX);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
                                   HttpServletResponse response, 
                                   FilterChain filterChain) throws ServletException, IOException {
         
+        AuthFilterEvent event = new AuthFilterEvent();
+        event.begin();
+
         final String authorizationHeader = request.getHeader("Authorization");
 
         String username = null;
         String jwt = null;
+        Claims claims = null;
 
+        boolean fromParameter = false;
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
+        } else {
+            jwt = streamToken(request);
+            fromParameter = jwt != null;
+        }
+
+        if (jwt != null) {
             try {
-                username = jwtUtil.extractUsername(jwt);
+                claims = jwtUtil.extractClaim(jwt, Function.identity());
+                // Session tokens never travel in URLs, and stream tokens open nothing but the streams
+                boolean streamToken = JwtUtil.isStreamToken(claims);
+                if (streamToken ? isStreamPath(request) : !fromParameter) {
+                    username = claims.getSubject();
+                }
             } catch (Exception e) {
                 logger.error("Error extracting username from JWT", e);
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && !tokenRevocationService.isRevoked(claims.getId(), claims.get("userId", Long.class), claims.getIssuedAt())) {
+            UserDetails userDetails = loadUser(username);
 
             if (jwtUtil.validateToken(jwt, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                     userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+                event.authenticated = true;
             }
         }
+        if (event.shouldCommit()) {
+            event.path = request.getRequestURI();
+            event.commit();
+        }
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails loadUser(String username) {
+        // With the database down the signed token is trusted on its own instead of failing the user lookup
+        if (databaseCircuitBreaker.isOpen()) {
+            return new User(username, "", new ArrayList<>());
+        }
+        try {
+            return this.userDetailsService.loadUserByUsername(username);
+        } catch (RuntimeException e) {
+            if (DatabaseCircuitBreaker.isConnectionFailure(e)) {
+                return new User(username, "", new ArrayList<>());
+            }
+            throw e;
+        }
+    }
+
+    public static String streamToken(HttpServletRequest request) {
+        // EventSource and WebSocket clients cannot send headers; only their endpoints take ?token=,
+        // and only a stream token from POST /auth/stream-token is accepted there
+        return isStreamPath(request) ? request.getParameter("token") : null;
+    }
+
+    private static boolean isStreamPath(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return STREAM_PATH.equals(path) || COLLAB_PATH.matcher(path).matches();
+    }
 }
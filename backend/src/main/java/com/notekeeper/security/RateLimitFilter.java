@@ -0,0 +1,153 @@
+package com.notekeeper.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notekeeper.dto.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    enum EndpointClass { AUTH, READ, WRITE }
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.max-buckets:100000}")
+    private int maxBuckets;
+
+    @Value("${rate-limit.auth.capacity:10}")
+    private long authCapacity;
+
+    @Value("${rate-limit.auth.per-minute:20}")
+    private long authPerMinute;
+
+    @Value("${rate-limit.read.capacity:120}")
+    private long readCapacity;
+
+    @Value("${rate-limit.read.per-minute:600}")
+    private long readPerMinute;
+
+    @Value("${rate-limit.write.capacity:60}")
+    private long writeCapacity;
+
+    @Value("${rate-limit.write.per-minute:300}")
+    private long writePerMinute;
+
+    private final long epoch = System.currentTimeMillis();
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+        // Health probes come from the load balancer and must never be throttled
+        if (!enabled || "OPTIONS".equals(request.getMethod())
+                || request.getRequestURI().startsWith(request.getContextPath() + "/health/")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        EndpointClass endpointClass = classify(request);
+        String key = endpointClass.name() + ':' + clientKey(request, endpointClass);
+        long now = System.currentTimeMillis();
+
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> newBucket(endpointClass, now));
+            if (buckets.size() > maxBuckets) {
+                sweep(now);
+            }
+        }
+
+        long waitMs = bucket.tryAcquire(now);
+        if (waitMs > 0) {
+            reject(response, waitMs);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private EndpointClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/auth/")) {
+            return EndpointClass.AUTH;
+        }
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod())
+                ? EndpointClass.READ
+                : EndpointClass.WRITE;
+    }
+
+    private String clientKey(HttpServletRequest request, EndpointClass endpointClass) {
+        String header = request.getHeader("Authorization");
+        if (endpointClass != EndpointClass.AUTH && header != null && header.startsWith("Bearer ")) {
+            try {
+                Long userId = jwtUtil.extractUserId(header.substring(7));
+                if (userId != null) {
+                    return "u" + userId;
+                }
+            } catch (Exception e) {
+                // Invalid tokens are throttled by address like any anonymous caller
+            }
+        }
+        // With server.forward-headers-strategy=native this is the client behind the load balancer,
+        // not the balancer itself, so anonymous callers do not share one bucket
+        return "ip" + request.getRemoteAddr();
+    }
+
+    private TokenBucket newBucket(EndpointClass endpointClass, long now) {
+        switch (endpointClass) {
+            case AUTH:
+                return new TokenBucket(authCapacity, authPerMinute, epoch, now);
+            case READ:
+                return new TokenBucket(readCapacity, readPerMinute, epoch, now);
+            default:
+                return new TokenBucket(writeCapacity, writePerMinute, epoch, now);
+        }
+    }
+
+    private void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.values().removeIf(bucket -> bucket.isIdle(now));
+            // Still over budget means every bucket is active; shed arbitrary ones rather than grow
+            Iterator<TokenBucket> it = buckets.values().iterator();
+            while (buckets.size() > maxBuckets && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitMs) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(Math.max(1, (waitMs + 999) / 1000)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse("Too many requests"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.notekeeper.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket whose whole state lives in one {@link AtomicLong}: the high 40 bits hold the
+ * last refill time (milliseconds since {@code epoch}), the low 24 bits the token count in
+ * thousandths. Acquisition is a CAS loop, so contended buckets never block.
+ */
+class TokenBucket {
+
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long SCALE = 1000;
+
+    static final long MAX_CAPACITY = TOKEN_MASK / SCALE;
+
+    private final AtomicLong state;
+    private final long epoch;
+    private final long capacity;
+    private final double refillPerMs;
+
+    TokenBucket(long capacity, long perMinute, long epoch, long now) {
+        this.capacity = Math.min(capacity, MAX_CAPACITY) * SCALE;
+        this.refillPerMs = perMinute * SCALE / 60_000d;
+        this.epoch = epoch;
+        this.state = new AtomicLong(pack(now - epoch, this.capacity));
+    }
+
+    /**
+     * Takes one token, returning 0 on success or the number of milliseconds until one is
+     * available.
+     */
+    long tryAcquire(long now) {
+        long elapsedBase = now - epoch;
+        while (true) {
+            long current = state.get();
+            long tokens = available(current, elapsedBase);
+            if (tokens < SCALE) {
+                return (long) Math.ceil((SCALE - tokens) / refillPerMs);
+            }
+            if (state.compareAndSet(current, pack(elapsedBase, tokens - SCALE))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * A bucket that has refilled completely carries no state worth keeping.
+     */
+    boolean isIdle(long now) {
+        return available(state.get(), now - epoch) >= capacity;
+    }
+
+    private long available(long packed, long elapsedBase) {
+        long last = packed >>> TOKEN_BITS;
+        long tokens = packed & TOKEN_MASK;
+        long elapsed = Math.max(0, elapsedBase - last);
+        return Math.min(capacity, tokens + (long) (elapsed * refillPerMs));
+    }
+
+    private static long pack(long time, long tokens) {
+        return (time << TOKEN_BITS) | tokens;
+    }
+}
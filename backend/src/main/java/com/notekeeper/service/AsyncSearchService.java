@@ -0,0 +1,112 @@
+package com.notekeeper.service;
+
+import com.notekeeper.dto.ErrorResponse;
+import com.notekeeper.search.SearchCancellation;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs searches off the servlet thread on a bounded pool.
+ *
+ * The request thread returns as soon as the search is queued. When the request ends without a
+ * result, through {@code search.timeout-ms} or an async error, the search is cancelled: a queued
+ * task never starts and a running one has its JDBC statement cancelled, so abandoned searches stop
+ * holding a pool thread and a database connection. A full queue is answered with 503 straight
+ * away rather than piling up work nobody will wait for.
+ *
+ * A client that disconnects is not detected: Tomcat does not watch an idle async connection, and
+ * a search request has no body to read, so a read listener completes at once. Such a search runs
+ * until it finishes or times out; the timeout is what bounds abandoned work.
+ */
+@Service
+public class AsyncSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncSearchService.class);
+
+    @Autowired
+    private NoteService noteService;
+
+    @Value("${search.timeout-ms:3000}")
+    private long timeoutMs;
+
+    private final ThreadPoolExecutor executor;
+
+    public AsyncSearchService(@Value("${search.executor.threads:8}") int threads,
+                              @Value("${search.executor.queue-capacity:64}") int queueCapacity) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "note-search");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public DeferredResult<ResponseEntity<?>> search(Long userId, String searchTerm, String tagExpression,
+                                                    Pageable pageable, boolean includeContent) {
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>(timeoutMs);
+        SearchCancellation cancellation = new SearchCancellation();
+        AtomicReference<Future<?>> task = new AtomicReference<>();
+
+        result.onTimeout(() -> result.setResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorResponse("Search timed out"))));
+        Runnable cancel = () -> {
+            cancellation.cancel();
+            Future<?> future = task.get();
+            if (future != null) {
+                future.cancel(false);
+            }
+        };
+        result.onError(error -> cancel.run());
+        // Runs after timeouts, errors and normal completion alike; cancelling a finished search is a no-op
+        result.onCompletion(cancel);
+
+        try {
+            task.set(executor.submit(() -> {
+                try {
+                    result.setResult(ResponseEntity.ok(noteService.searchNotes(
+                            userId, searchTerm, tagExpression, pageable, includeContent, cancellation)));
+                } catch (SearchCancellation.SearchCancelledException e) {
+                    logger.debug("Search for user {} cancelled", userId);
+                } catch (IllegalArgumentException e) {
+                    // Malformed tag expression
+                    result.setResult(ResponseEntity.badRequest().build());
+                } catch (RuntimeException e) {
+                    if (!cancellation.isCancelled()) {
+                        logger.warn("Search for user {} failed: {}", userId, e.getMessage());
+                        result.setResult(ResponseEntity.internalServerError().build());
+                    }
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            result.setResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "1")
+                    .body(new ErrorResponse("Search is busy, try again shortly")));
+        }
+        return result;
+    }
+
+    public int activeSearches() {
+        return executor.getActiveCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,303 @@
+package com.notekeeper.service;
+
+import com.notekeeper.dto.AttachmentResponse;
+import com.notekeeper.dto.UploadRequest;
+import com.notekeeper.dto.UploadStatusResponse;
+import com.notekeeper.entity.Attachment;
+import com.notekeeper.entity.AttachmentUpload;
+import com.notekeeper.entity.User;
+import com.notekeeper.repository.AttachmentRepository;
+import com.notekeeper.repository.AttachmentUploadRepository;
+import com.notekeeper.repository.NoteRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores note attachments on the local filesystem.
+ *
+ * Uploads are resumable: a client starts an upload, appends chunks at the offset the server
+ * reports, and completes it. Chunks are streamed from the request straight into a part file
+ * through a {@link FileChannel}. On completion the file is hashed and moved into a
+ * content-addressed blob store, so identical files are kept once.
+ */
+@Service
+public class AttachmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentService.class);
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    @Autowired
+    private AttachmentUploadRepository uploadRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Value("${attachments.storage-dir:./data/attachments}")
+    private String storageDir;
+
+    @Value("${attachments.max-size:104857600}")
+    private long maxSize;
+
+    @Value("${attachments.upload-expiry-hours:24}")
+    private long uploadExpiryHours;
+
+    private Path uploadsDir;
+    private Path blobsDir;
+
+    private final Set<String> activeUploads = ConcurrentHashMap.newKeySet();
+
+    // Serialises blob creation against blob removal so dedup never points at a deleted file
+    private final Object blobLock = new Object();
+
+    @PostConstruct
+    public void init() throws IOException {
+        uploadsDir = Files.createDirectories(Paths.get(storageDir, "uploads"));
+        blobsDir = Files.createDirectories(Paths.get(storageDir, "blobs"));
+    }
+
+    public UploadStatusResponse startUpload(UploadRequest request, Long userId) {
+        if (request.getSize() > maxSize) {
+            throw new RuntimeException("Attachment exceeds the maximum size of " + maxSize + " bytes");
+        }
+        if (request.getNoteId() != null && !noteRepository.existsByIdAndOwnerIdAndDeletedAtIsNull(request.getNoteId(), userId)) {
+            throw new RuntimeException("Note not found or access denied");
+        }
+        User user = userService.findById(userId);
+
+        AttachmentUpload upload = new AttachmentUpload();
+        upload.setId(UUID.randomUUID().toString());
+        upload.setOwner(user);
+        upload.setNoteId(request.getNoteId());
+        upload.setFilename(request.getFilename());
+        upload.setContentType(request.getContentType());
+        upload.setSize(request.getSize());
+
+        try {
+            Files.createFile(partPath(upload.getId()));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start upload", e);
+        }
+        return toStatus(uploadRepository.save(upload));
+    }
+
+    public UploadStatusResponse getUploadStatus(String uploadId, Long userId) {
+        return toStatus(findUpload(uploadId, userId));
+    }
+
+    public UploadStatusResponse appendChunk(String uploadId, long offset, InputStream body, Long userId) {
+        AttachmentUpload upload = findUpload(uploadId, userId);
+        if (!activeUploads.add(uploadId)) {
+            throw new RuntimeException("Upload is already receiving data");
+        }
+        try {
+            if (offset != upload.getReceived()) {
+                throw new RuntimeException("Chunk offset " + offset + " does not match received size " + upload.getReceived());
+            }
+
+            long size = upload.getSize();
+            long received;
+            IOException failure = null;
+            try (FileChannel channel = FileChannel.open(partPath(uploadId), StandardOpenOption.WRITE)) {
+                // Anything past the acknowledged offset is a remnant of an interrupted chunk
+                channel.truncate(offset);
+                try (ReadableByteChannel source = Channels.newChannel(body)) {
+                    long position = offset;
+                    while (position < size) {
+                        long transferred = channel.transferFrom(source, position, size - position);
+                        if (transferred <= 0) {
+                            break;
+                        }
+                        position += transferred;
+                    }
+                    if (position == size && source.read(ByteBuffer.allocate(1)) > 0) {
+                        channel.truncate(offset);
+                        throw new RuntimeException("Chunk exceeds the declared upload size");
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                }
+                received = Math.min(channel.size(), size);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to write upload chunk", e);
+            }
+
+            // Keep whatever arrived so the client can resume from there
+            upload.setReceived(received);
+            uploadRepository.save(upload);
+            if (failure != null) {
+                throw new RuntimeException("Upload interrupted at byte " + received, failure);
+            }
+            return toStatus(upload);
+        } finally {
+            activeUploads.remove(uploadId);
+        }
+    }
+
+    public AttachmentResponse completeUpload(String uploadId, Long userId) {
+        AttachmentUpload upload = findUpload(uploadId, userId);
+        if (!upload.getReceived().equals(upload.getSize())) {
+            throw new RuntimeException("Upload incomplete: received " + upload.getReceived() + " of " + upload.getSize() + " bytes");
+        }
+        if (!activeUploads.add(uploadId)) {
+            throw new RuntimeException("Upload is already receiving data");
+        }
+        try {
+            Path part = partPath(uploadId);
+            String sha256 = hash(part);
+
+            Attachment attachment = new Attachment();
+            attachment.setOwner(upload.getOwner());
+            attachment.setNoteId(upload.getNoteId());
+            attachment.setFilename(upload.getFilename());
+            attachment.setContentType(upload.getContentType());
+            attachment.setSize(upload.getSize());
+            attachment.setSha256(sha256);
+
+            synchronized (blobLock) {
+                Path blob = blobPath(sha256);
+                if (Files.exists(blob)) {
+                    Files.delete(part);
+                } else {
+                    Files.createDirectories(blob.getParent());
+                    Files.move(part, blob, StandardCopyOption.ATOMIC_MOVE);
+                }
+                attachment = attachmentRepository.save(attachment);
+            }
+            uploadRepository.delete(upload);
+            return convertToResponse(attachment);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store attachment", e);
+        } finally {
+            activeUploads.remove(uploadId);
+        }
+    }
+
+    public Attachment getAttachment(Long attachmentId, Long userId) {
+        return attachmentRepository.findByIdAndOwnerId(attachmentId, userId)
+                .orElseThrow(() -> new RuntimeException("Attachment not found"));
+    }
+
+    public List<AttachmentResponse> getAttachmentsForNote(Long noteId, Long userId) {
+        return attachmentRepository.findByOwnerIdAndNoteIdOrderByCreatedAtAsc(userId, noteId).stream()
+                .map(this::convertToResponse)
+                .toList();
+    }
+
+    public void deleteAttachment(Long attachmentId, Long userId) {
+        removeAttachment(getAttachment(attachmentId, userId));
+    }
+
+    public void deleteAttachmentsForNotes(Collection<Long> noteIds) {
+        for (Attachment attachment : attachmentRepository.findByNoteIdIn(noteIds)) {
+            removeAttachment(attachment);
+        }
+    }
+
+    private void removeAttachment(Attachment attachment) {
+        synchronized (blobLock) {
+            attachmentRepository.delete(attachment);
+            if (!attachmentRepository.existsBySha256(attachment.getSha256())) {
+                try {
+                    Files.deleteIfExists(blobPath(attachment.getSha256()));
+                } catch (IOException e) {
+                    logger.warn("Failed to remove attachment blob {}: {}", attachment.getSha256(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    public Path blobPath(String sha256) {
+        return blobsDir.resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    @Scheduled(fixedDelayString = "${attachments.upload-cleanup-ms:3600000}")
+    public void purgeExpiredUploads() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(uploadExpiryHours);
+        for (AttachmentUpload upload : uploadRepository.findByUpdatedAtBefore(cutoff)) {
+            if (activeUploads.contains(upload.getId())) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(partPath(upload.getId()));
+                uploadRepository.delete(upload);
+            } catch (IOException e) {
+                logger.warn("Failed to remove expired upload {}: {}", upload.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private AttachmentUpload findUpload(String uploadId, Long userId) {
+        return uploadRepository.findByIdAndOwnerId(uploadId, userId)
+                .orElseThrow(() -> new RuntimeException("Upload not found"));
+    }
+
+    private Path partPath(String uploadId) {
+        // Upload ids are server-generated UUIDs; re-parse to keep path traversal out
+        return uploadsDir.resolve(UUID.fromString(uploadId) + ".part");
+    }
+
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private UploadStatusResponse toStatus(AttachmentUpload upload) {
+        return new UploadStatusResponse(upload.getId(), upload.getSize(), upload.getReceived());
+    }
+
+    private AttachmentResponse convertToResponse(Attachment attachment) {
+        return new AttachmentResponse(
+            attachment.getId(),
+            attachment.getNoteId(),
+            attachment.getFilename(),
+            attachment.getContentType(),
+            attachment.getSize(),
+            attachment.getSha256(),
+            attachment.getCreatedAt()
+        );
+    }
+}
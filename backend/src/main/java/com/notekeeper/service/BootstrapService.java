@@ -0,0 +1,132 @@
+package com.notekeeper.service;
+
+import com.notekeeper.dto.AccountResponse;
+import com.notekeeper.dto.BootstrapResponse;
+import com.notekeeper.dto.NoteResponse;
+import com.notekeeper.dto.UserStatsResponse;
+import com.notekeeper.entity.User;
+import com.notekeeper.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Everything the client needs for its first screen in one call: the account, the first page of
+ * notes, the tag list and the usage counters.
+ *
+ * The token is parsed and the user resolved once by the caller. The usage counters are read first
+ * on the request thread, since the first read for an account may backfill them and the note list
+ * and tag sections both depend on them. The other sections are independent reads and run in
+ * parallel on a bounded pool, so the response takes about as long as the slowest of them rather
+ * than their sum. All sections share one deadline. A section that misses it, fails, or finds the
+ * pool full is left out and named in {@code incomplete}, and the client falls back to the regular
+ * endpoint for it instead of the whole screen waiting.
+ */
+@Service
+public class BootstrapService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BootstrapService.class);
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${bootstrap.timeout-ms:2000}")
+    private long timeoutMs;
+
+    private final ThreadPoolExecutor executor;
+
+    public BootstrapService(@Value("${bootstrap.executor.threads:16}") int threads,
+                            @Value("${bootstrap.executor.queue-capacity:256}") int queueCapacity) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "bootstrap");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public BootstrapResponse bootstrap(Long userId, Pageable pageable) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        List<String> incomplete = new ArrayList<>();
+
+        // Initializes the counters once here instead of letting the parallel sections race to do it
+        UserStatsResponse stats = null;
+        try {
+            stats = userStatsService.getStats(userId);
+        } catch (RuntimeException e) {
+            logger.warn("Bootstrap section stats for user {} failed: {}", userId, e.getMessage());
+            incomplete.add("stats");
+        }
+
+        Future<AccountResponse> account = submit(() -> {
+            User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
+            return new AccountResponse(user.getId(), user.getEmail(), user.getCreatedAt());
+        });
+        Future<Page<NoteResponse>> notes = submit(() -> noteService.getAllNotesByUser(userId, pageable));
+        Future<List<String>> tags = submit(() -> noteService.getTagsByUserId(userId));
+
+        return new BootstrapResponse(
+                await("account", account, deadline, userId, incomplete),
+                await("notes", notes, deadline, userId, incomplete),
+                await("tags", tags, deadline, userId, incomplete),
+                stats,
+                incomplete);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> Future<T> submit(Callable<T> section) {
+        try {
+            return executor.submit(section);
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    private <T> T await(String name, Future<T> future, long deadline, Long userId, List<String> incomplete) {
+        if (future == null) {
+            incomplete.add(name);
+            return null;
+        }
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Not interrupted: a running section finishes on its own rather than abandoning a JDBC call midway
+            future.cancel(false);
+            logger.debug("Bootstrap section {} for user {} missed the deadline", name, userId);
+        } catch (ExecutionException e) {
+            logger.warn("Bootstrap section {} for user {} failed: {}", name, userId, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+        }
+        incomplete.add(name);
+        return null;
+    }
+}
@@ -0,0 +1,319 @@
+package com.notekeeper.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notekeeper.collab.CollabDocument;
+import com.notekeeper.collab.TextOperation;
+import com.notekeeper.dto.NoteResponse;
+import com.notekeeper.entity.Note;
+import com.notekeeper.repository.NoteRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Server side of collaborative editing: one authoritative document per open note.
+ *
+ * Clients send ot.js-style operations tagged with the revision they were made against. The
+ * server rebases each onto the current revision, applies it, acks the sender and broadcasts
+ * it to the other sessions, all under the document lock so every client sees the same order.
+ * Snapshots are written through {@link NoteService} on a timer and when the last session
+ * leaves, so an actively edited note costs one row update per interval instead of one full
+ * PUT per keystroke burst. Edits made outside the session (a REST update) win: the document
+ * is reloaded and clients are told to reset.
+ *
+ * Wire messages, all JSON objects with a {@code type}:
+ * client {@code op {rev, ops}}; server {@code init {rev, content}}, {@code ack {rev}},
+ * {@code op {rev, ops}}, {@code reset {rev, content}}, {@code error {message}}.
+ */
+@Service
+public class CollabService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CollabService.class);
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private NoteArchiveService noteArchiveService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${collab.history-size:1000}")
+    private int historySize;
+
+    @Value("${collab.max-document-chars:1048576}")
+    private int maxDocumentChars;
+
+    @Value("${collab.send-time-limit-ms:5000}")
+    private int sendTimeLimitMs;
+
+    @Value("${collab.send-buffer-bytes:1048576}")
+    private int sendBufferBytes;
+
+    private final ConcurrentMap<Long, CollabDocument> documents = new ConcurrentHashMap<>();
+
+    public void join(Long noteId, Long userId, WebSocketSession session) {
+        WebSocketSession decorated = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMs, sendBufferBytes);
+        while (true) {
+            // open checks ownership itself, so a denied join never leaves a document behind
+            CollabDocument document = documents.computeIfAbsent(noteId, id -> open(id, userId));
+            if (!document.ownerId.equals(userId)) {
+                throw new RuntimeException("Access denied");
+            }
+            synchronized (document) {
+                if (document.closed) {
+                    // Lost a race with the last session leaving; open a fresh copy
+                    continue;
+                }
+                document.sessions.put(session.getId(), decorated);
+                send(decorated, message("init", document.revision, "content", document.content));
+                return;
+            }
+        }
+    }
+
+    public void receive(Long noteId, WebSocketSession session, String payload) {
+        CollabDocument document = documents.get(noteId);
+        if (document == null) {
+            return;
+        }
+
+        int clientRevision;
+        TextOperation operation;
+        try {
+            JsonNode json = objectMapper.readTree(payload);
+            if (!"op".equals(json.path("type").asText())) {
+                throw new IllegalArgumentException("Unknown message type");
+            }
+            clientRevision = json.path("rev").asInt(-1);
+            operation = TextOperation.fromJson(objectMapper.convertValue(json.path("ops"), List.class));
+        } catch (IOException | IllegalArgumentException e) {
+            sendTo(document, session, message("error", null, "message", "Malformed operation"));
+            return;
+        }
+
+        synchronized (document) {
+            WebSocketSession sender = document.sessions.get(session.getId());
+            if (sender == null) {
+                return;
+            }
+            if (!document.canTransformFrom(clientRevision)) {
+                // Too far behind (or ahead) to rebase; the client starts over from the current text
+                send(sender, message("reset", document.revision, "content", document.content));
+                return;
+            }
+
+            String content;
+            try {
+                operation = document.rebase(operation, clientRevision);
+                content = operation.apply(document.content);
+            } catch (IllegalArgumentException e) {
+                send(sender, message("reset", document.revision, "content", document.content));
+                return;
+            }
+            if (content.length() > maxDocumentChars) {
+                send(sender, message("error", null, "message", "Document too large"));
+                send(sender, message("reset", document.revision, "content", document.content));
+                return;
+            }
+
+            document.content = content;
+            document.record(operation, historySize);
+            document.dirty = true;
+
+            send(sender, message("ack", document.revision, null, null));
+            String broadcast = message("op", document.revision, "ops", operation.toJson());
+            for (WebSocketSession other : document.sessions.values()) {
+                if (other != sender) {
+                    send(other, broadcast);
+                }
+            }
+        }
+    }
+
+    public void leave(Long noteId, WebSocketSession session) {
+        CollabDocument document = documents.get(noteId);
+        if (document == null) {
+            return;
+        }
+        boolean last;
+        synchronized (document) {
+            document.sessions.remove(session.getId());
+            last = document.sessions.isEmpty();
+        }
+        if (last) {
+            flush(document);
+            synchronized (document) {
+                if (document.sessions.isEmpty() && !document.closed) {
+                    document.closed = true;
+                    documents.remove(noteId, document);
+                }
+            }
+        }
+    }
+
+    /**
+     * Follows a version bump that left the content alone, such as a tag rewrite, so an open
+     * document keeps its unflushed edits instead of being reset by the next flush.
+     */
+    public void onVersionBumped(Long noteId, long fromVersion, long toVersion) {
+        CollabDocument document = documents.get(noteId);
+        if (document == null) {
+            return;
+        }
+        synchronized (document) {
+            if (document.noteVersion == fromVersion) {
+                document.noteVersion = toVersion;
+            }
+        }
+    }
+
+    public int openDocuments() {
+        return documents.size();
+    }
+
+    @Scheduled(fixedDelayString = "${collab.persist-interval-ms:2000}")
+    public void persistSnapshots() {
+        for (CollabDocument document : documents.values()) {
+            flush(document);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        persistSnapshots();
+    }
+
+    private CollabDocument open(Long noteId, Long userId) {
+        Note note = noteRepository.findById(noteId)
+                .filter(found -> found.getDeletedAt() == null)
+                .orElseThrow(() -> new RuntimeException("Note not found"));
+        if (!note.getOwner().getId().equals(userId)) {
+            throw new RuntimeException("Access denied");
+        }
+        return new CollabDocument(noteId, note.getOwner().getId(), noteArchiveService.contentOf(note), note.getVersion());
+    }
+
+    private void flush(CollabDocument document) {
+        synchronized (document.flushLock) {
+            String content;
+            int revision;
+            long expectedVersion;
+            synchronized (document) {
+                content = document.content;
+                revision = document.revision;
+                expectedVersion = document.noteVersion;
+                if (!document.dirty) {
+                    content = null;
+                }
+            }
+
+            if (content == null) {
+                // Nothing to write; just notice edits made outside the session
+                Optional<Long> version = noteRepository.findLiveVersion(document.noteId, document.ownerId);
+                if (version.isEmpty() || version.get() != expectedVersion) {
+                    reload(document);
+                }
+                return;
+            }
+
+            try {
+                NoteResponse saved = noteService.saveContent(document.noteId, document.ownerId, content, expectedVersion);
+                synchronized (document) {
+                    document.noteVersion = saved.getVersion();
+                    if (document.revision == revision) {
+                        document.dirty = false;
+                    }
+                }
+            } catch (RuntimeException e) {
+                logger.info("Collaborative snapshot of note {} rejected: {}", document.noteId, e.getMessage());
+                reload(document);
+            }
+        }
+    }
+
+    private void reload(CollabDocument document) {
+        Note note = noteRepository.findById(document.noteId)
+                .filter(found -> found.getDeletedAt() == null)
+                .orElse(null);
+        List<WebSocketSession> toClose = new ArrayList<>();
+        synchronized (document) {
+            if (note == null) {
+                document.closed = true;
+                documents.remove(document.noteId, document);
+                toClose.addAll(document.sessions.values());
+                document.sessions.clear();
+            } else {
+                document.reset(noteArchiveService.contentOf(note), note.getVersion());
+                String reset = message("reset", document.revision, "content", document.content);
+                for (WebSocketSession session : document.sessions.values()) {
+                    send(session, reset);
+                }
+            }
+        }
+        for (WebSocketSession session : toClose) {
+            try {
+                session.close(CloseStatus.GOING_AWAY.withReason("Note deleted"));
+            } catch (IOException e) {
+                logger.debug("Error closing collaboration session", e);
+            }
+        }
+    }
+
+    private void sendTo(CollabDocument document, WebSocketSession session, String message) {
+        WebSocketSession decorated;
+        synchronized (document) {
+            decorated = document.sessions.get(session.getId());
+        }
+        if (decorated != null) {
+            send(decorated, message);
+        }
+    }
+
+    private void send(WebSocketSession session, String message) {
+        try {
+            session.sendMessage(new TextMessage(message));
+        } catch (IOException | RuntimeException e) {
+            // Slow or broken peers are dropped by the decorator; the close callback cleans up
+            logger.debug("Failed to send collaboration message: {}", e.getMessage());
+        }
+    }
+
+    private String message(String type, Integer revision, String field, Object value) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("type", type);
+        if (revision != null) {
+            body.put("rev", revision);
+        }
+        if (field != null) {
+            body.put(field, value);
+        }
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.notekeeper.service;
 
 import com.notekeeper.entity.User;
+import com.notekeeper.profiling.UserLookupEvent;
 import com.notekeeper.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,8 +19,16 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        UserLookupEvent event = new UserLookupEvent();
+        event.begin();
+        User user;
+        try {
+            user = userRepository.findByEmail(email)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+            event.found = true;
+        } finally {
+            event.commit();
+        }
 
         return new org.springframework.security.core.userdetails.User(
                 user.getEmail(),
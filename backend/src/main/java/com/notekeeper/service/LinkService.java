@@ -0,0 +1,226 @@
+package com.notekeeper.service;
+
+import com.notekeeper.dto.LinkedNoteResponse;
+import com.notekeeper.dto.NoteGraphResponse;
+import com.notekeeper.entity.NoteLink;
+import com.notekeeper.index.Collation;
+import com.notekeeper.index.WikiLinks;
+import com.notekeeper.repository.NoteLinkRepository;
+import com.notekeeper.repository.NoteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Forward-link table and backlink lookups for {@code [[Title]]} references.
+ *
+ * Links are stored by the normalised target title and resolved against live note titles when
+ * read, so renaming or deleting a target needs no rewrite of the notes pointing at it. Nothing
+ * here reads note bodies except the write path that parses the note being saved.
+ */
+@Service
+public class LinkService {
+
+    @Autowired
+    private NoteLinkRepository noteLinkRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Value("${links.max-per-note:256}")
+    private int maxLinksPerNote;
+
+    @Value("${links.graph.max-depth:3}")
+    private int maxGraphDepth;
+
+    @Value("${links.graph.max-nodes:200}")
+    private int maxGraphNodes;
+
+    @Transactional
+    public void updateLinks(Long userId, Long noteId, String content) {
+        // Diff against the stored targets so an edit that keeps its links touches no rows
+        Set<String> wanted = WikiLinks.parse(content, maxLinksPerNote);
+        List<String> existing = noteLinkRepository.findTargetKeysBySourceId(noteId);
+
+        List<String> removed = new ArrayList<>();
+        for (String key : existing) {
+            if (!wanted.remove(key)) {
+                removed.add(key);
+            }
+        }
+        if (!removed.isEmpty()) {
+            noteLinkRepository.deleteBySourceIdAndTargetKeys(noteId, removed);
+        }
+        if (!wanted.isEmpty()) {
+            List<NoteLink> added = new ArrayList<>(wanted.size());
+            for (String key : wanted) {
+                added.add(new NoteLink(userId, noteId, key));
+            }
+            noteLinkRepository.saveAll(added);
+        }
+    }
+
+    @Transactional
+    public void removeLinks(Collection<Long> noteIds) {
+        if (!noteIds.isEmpty()) {
+            noteLinkRepository.deleteBySourceIds(noteIds);
+        }
+    }
+
+    public List<LinkedNoteResponse> getBacklinks(Long userId, Long noteId) {
+        Object[] target = findNode(userId, noteId);
+
+        Set<Long> sourceIds = new HashSet<>();
+        for (Object[] row : noteLinkRepository.findByOwnerIdAndTargetKeys(userId, List.of(WikiLinks.key((String) target[1])))) {
+            sourceIds.add((Long) row[0]);
+        }
+        sourceIds.remove(noteId);
+        if (sourceIds.isEmpty()) {
+            return List.of();
+        }
+
+        return noteRepository.findLinkNodesByIdsAndOwnerId(sourceIds, userId).stream()
+                .map(LinkService::toResponse)
+                .sorted(Comparator.comparing(LinkedNoteResponse::getUpdatedAt,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .toList();
+    }
+
+    /**
+     * Breadth-first walk over links in both directions from {@code noteId}, at most
+     * {@code depth} hops out. Each level costs four indexed queries regardless of its width.
+     */
+    public NoteGraphResponse getGraph(Long userId, Long noteId, int depth) {
+        int hops = Math.max(1, Math.min(depth, maxGraphDepth));
+        Map<Long, Object[]> nodes = new LinkedHashMap<>();
+        Set<Edge> edges = new LinkedHashSet<>();
+        Object[] root = findNode(userId, noteId);
+        nodes.put(noteId, root);
+
+        List<Object[]> frontier = List.<Object[]>of(root);
+        boolean truncated = false;
+        for (int level = 0; level < hops && !frontier.isEmpty() && !truncated; level++) {
+            List<Object[]> next = new ArrayList<>();
+
+            // Outgoing: links stored for the frontier, resolved to live notes by title
+            // Keys match under the columns' collation, so "cafe" finds a note titled "Café"
+            Map<String, List<Long>> sourcesByKey = new TreeMap<>(Collation.ORDER);
+            for (Object[] row : noteLinkRepository.findBySourceIds(ids(frontier))) {
+                sourcesByKey.computeIfAbsent((String) row[1], k -> new ArrayList<>()).add((Long) row[0]);
+            }
+            if (!sourcesByKey.isEmpty()) {
+                for (Object[] targetNode : noteRepository.findLinkNodesByOwnerIdAndTitleKeys(userId, sourcesByKey.keySet())) {
+                    List<Long> sources = sourcesByKey.get(WikiLinks.key((String) targetNode[1]));
+                    if (sources == null) {
+                        continue;
+                    }
+                    if (!visit(nodes, targetNode, next)) {
+                        truncated = true;
+                        continue;
+                    }
+                    for (Long source : sources) {
+                        addEdge(edges, source, (Long) targetNode[0]);
+                    }
+                }
+            }
+
+            // Incoming: links from any note whose target key is a frontier title
+            Map<String, List<Long>> targetsByKey = new TreeMap<>(Collation.ORDER);
+            for (Object[] node : frontier) {
+                targetsByKey.computeIfAbsent(WikiLinks.key((String) node[1]), k -> new ArrayList<>()).add((Long) node[0]);
+            }
+            Map<Long, List<String>> keysBySource = new HashMap<>();
+            for (Object[] row : noteLinkRepository.findByOwnerIdAndTargetKeys(userId, targetsByKey.keySet())) {
+                keysBySource.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((String) row[1]);
+            }
+            Set<Long> unknown = new HashSet<>(keysBySource.keySet());
+            unknown.removeAll(nodes.keySet());
+            Map<Long, Object[]> sources = new HashMap<>();
+            if (!unknown.isEmpty()) {
+                for (Object[] sourceNode : noteRepository.findLinkNodesByIdsAndOwnerId(unknown, userId)) {
+                    sources.put((Long) sourceNode[0], sourceNode);
+                }
+            }
+            for (Map.Entry<Long, List<String>> entry : keysBySource.entrySet()) {
+                Long sourceId = entry.getKey();
+                if (!nodes.containsKey(sourceId)) {
+                    Object[] sourceNode = sources.get(sourceId);
+                    if (sourceNode == null) {
+                        continue;
+                    }
+                    if (!visit(nodes, sourceNode, next)) {
+                        truncated = true;
+                        continue;
+                    }
+                }
+                for (String key : entry.getValue()) {
+                    for (Long targetId : targetsByKey.get(key)) {
+                        addEdge(edges, sourceId, targetId);
+                    }
+                }
+            }
+
+            frontier = next;
+        }
+
+        List<LinkedNoteResponse> nodeList = nodes.values().stream().map(LinkService::toResponse).toList();
+        List<long[]> edgeList = edges.stream().map(edge -> new long[] {edge.from(), edge.to()}).toList();
+        return new NoteGraphResponse(noteId, hops, nodeList, edgeList, truncated);
+    }
+
+    private Object[] findNode(Long userId, Long noteId) {
+        List<Object[]> rows = noteRepository.findLinkNodesByIdsAndOwnerId(List.of(noteId), userId);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Note not found");
+        }
+        return rows.get(0);
+    }
+
+    private boolean visit(Map<Long, Object[]> nodes, Object[] node, List<Object[]> next) {
+        Long id = (Long) node[0];
+        if (nodes.containsKey(id)) {
+            return true;
+        }
+        if (nodes.size() >= maxGraphNodes) {
+            return false;
+        }
+        nodes.put(id, node);
+        next.add(node);
+        return true;
+    }
+
+    private static void addEdge(Set<Edge> edges, Long from, Long to) {
+        if (!from.equals(to)) {
+            edges.add(new Edge(from, to));
+        }
+    }
+
+    private static List<Long> ids(List<Object[]> nodes) {
+        List<Long> ids = new ArrayList<>(nodes.size());
+        for (Object[] node : nodes) {
+            ids.add((Long) node[0]);
+        }
+        return ids;
+    }
+
+    private static LinkedNoteResponse toResponse(Object[] node) {
+        return new LinkedNoteResponse((Long) node[0], (String) node[1], (LocalDateTime) node[2]);
+    }
+
+    private record Edge(long from, long to) {
+    }
+}
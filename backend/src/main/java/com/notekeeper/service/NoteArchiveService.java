@@ -0,0 +1,256 @@
+package com.notekeeper.service;
+
+import com.notekeeper.entity.Note;
+import com.notekeeper.entity.NoteArchive;
+import com.notekeeper.index.Collation;
+import com.notekeeper.repository.NoteArchiveRepository;
+import com.notekeeper.repository.NoteRepository;
+import com.notekeeper.search.SearchCancellation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Cold tier for note bodies. Notes not updated for {@code notes.archive.after-days} have their
+ * content deflated into {@code note_archive} and nulled in {@code notes}, which keeps the hot
+ * table and its buffer pool pages small; the row itself stays so titles, tags, links and counters
+ * are unaffected. Reads resolve archived content here, and editing a note promotes it back.
+ *
+ * Archiving is a bulk update that leaves version and updatedAt alone, and like the purge it runs
+ * in short batches keyed by primary key.
+ */
+@Service
+public class NoteArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NoteArchiveService.class);
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteArchiveRepository noteArchiveRepository;
+
+    @Value("${notes.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notes.archive.after-days:365}")
+    private int afterDays;
+
+    @Value("${notes.archive.batch-size:200}")
+    private int batchSize;
+
+    @Value("${notes.archive.max-batches:50}")
+    private int maxBatches;
+
+    @Value("${notes.archive.pause-ms:100}")
+    private long pauseMs;
+
+    @Value("${notes.archive.search-page-size:200}")
+    private int searchPageSize;
+
+    @Value("${notes.archive.search-max-bodies:2000}")
+    private int searchMaxBodies;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public NoteArchiveService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${notes.archive.interval-ms:3600000}", initialDelayString = "${notes.archive.initial-delay-ms:300000}")
+    public void archiveStaleNotes() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        int archived = 0;
+
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Long> ids = noteRepository.findArchiveCandidateIds(cutoff, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(ids, cutoff));
+            archived += moved != null ? moved : 0;
+
+            if (ids.size() < batchSize) {
+                break;
+            }
+            try {
+                Thread.sleep(pauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (archived > 0) {
+            logger.info("Archived {} notes not updated since {}", archived, cutoff);
+        }
+    }
+
+    /** Returns the note's content, from the archive if it has been moved there. */
+    public String contentOf(Note note) {
+        if (note.getArchivedAt() == null) {
+            return note.getContent();
+        }
+        return noteArchiveRepository.findById(note.getId())
+                .map(archive -> decompress(archive.getContent()))
+                .orElse(note.getContent());
+    }
+
+    /** Archived content of the given notes, keyed by note id; notes that are not archived are absent. */
+    public Map<Long, String> contentsOf(Collection<Note> notes) {
+        List<Long> archivedIds = new ArrayList<>();
+        for (Note note : notes) {
+            if (note.getArchivedAt() != null) {
+                archivedIds.add(note.getId());
+            }
+        }
+        Map<Long, String> contents = new HashMap<>();
+        if (!archivedIds.isEmpty()) {
+            for (NoteArchive archive : noteArchiveRepository.findByNoteIdIn(archivedIds)) {
+                contents.put(archive.getNoteId(), decompress(archive.getContent()));
+            }
+        }
+        return contents;
+    }
+
+    /**
+     * Moves an archived note back to the hot table before it is edited. Must run in the caller's
+     * transaction with the note loaded; the caller's flush writes the content back to {@code notes}.
+     */
+    public void promote(Note note) {
+        if (note.getArchivedAt() == null) {
+            return;
+        }
+        noteArchiveRepository.findById(note.getId()).ifPresent(archive -> {
+            note.setContent(decompress(archive.getContent()));
+            noteArchiveRepository.delete(archive);
+        });
+        note.setArchivedAt(null);
+    }
+
+    /**
+     * Ids of the user's archived notes whose content contains {@code term}, compared under
+     * {@link Collation#fold} as the column collation would compare it. Archived bodies are
+     * compressed, so every body checked is inflated here: only those in {@code restrictToIds} when
+     * given (the trigram candidates, which cover archived bodies too), and never more than
+     * {@code notes.archive.search-max-bodies} per search. When that limit stops the check the
+     * result is marked truncated, and notes past it are matched on their title alone.
+     */
+    public ContentMatches findContentMatches(Long userId, String term, Collection<Long> restrictToIds,
+                                             SearchCancellation cancellation) {
+        String needle = Collation.fold(term);
+        Set<Long> matches = new HashSet<>();
+        int remaining = searchMaxBodies;
+        if (restrictToIds != null) {
+            // Already narrowed (by tags or trigrams): fetch just those archives by key
+            List<Long> scope = new ArrayList<>(restrictToIds);
+            for (int from = 0; from < scope.size() && remaining >= 0; from += searchPageSize) {
+                cancellation.throwIfCancelled();
+                List<Long> chunk = scope.subList(from, Math.min(scope.size(), from + searchPageSize));
+                remaining = match(noteArchiveRepository.findByNoteIdIn(chunk), userId, needle, remaining, matches);
+            }
+        } else {
+            long afterId = 0;
+            while (remaining >= 0) {
+                cancellation.throwIfCancelled();
+                List<NoteArchive> page = noteArchiveRepository.findPageByOwnerId(userId, afterId, PageRequest.of(0, searchPageSize));
+                remaining = match(page, userId, needle, remaining, matches);
+                if (page.size() < searchPageSize) {
+                    break;
+                }
+                afterId = page.get(page.size() - 1).getNoteId();
+            }
+        }
+        boolean truncated = remaining < 0;
+        if (truncated) {
+            logger.debug("Archived content search for user {} stopped after {} bodies", userId, searchMaxBodies);
+        }
+        return new ContentMatches(matches, truncated);
+    }
+
+    // Returns the bodies left to check, or -1 once one is found that the limit leaves unchecked
+    private static int match(List<NoteArchive> archives, Long userId, String needle, int remaining, Set<Long> matches) {
+        for (NoteArchive archive : archives) {
+            if (!archive.getOwnerId().equals(userId)) {
+                continue;
+            }
+            if (remaining == 0) {
+                return -1;
+            }
+            remaining--;
+            if (Collation.fold(decompress(archive.getContent())).contains(needle)) {
+                matches.add(archive.getNoteId());
+            }
+        }
+        return remaining;
+    }
+
+    /** Archived notes matching a search; {@code truncated} when the body limit left some unchecked. */
+    public record ContentMatches(Set<Long> noteIds, boolean truncated) {
+    }
+
+    private int archiveBatch(List<Long> ids, LocalDateTime cutoff) {
+        List<Object[]> rows = noteRepository.lockArchiveCandidates(ids, cutoff);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<NoteArchive> archives = new ArrayList<>(rows.size());
+        List<Long> lockedIds = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            archives.add(new NoteArchive((Long) row[0], (Long) row[1], compress((String) row[2]), now));
+            lockedIds.add((Long) row[0]);
+        }
+        noteArchiveRepository.saveAll(archives);
+        return noteRepository.markArchived(lockedIds, now);
+    }
+
+    private static byte[] compress(String content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, content.length() / 3));
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream stream = new DeflaterOutputStream(out, deflater)) {
+            stream.write(content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private static String decompress(byte[] compressed) {
+        try (InflaterInputStream inflater = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(inflater.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
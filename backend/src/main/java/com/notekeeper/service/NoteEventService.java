@@ -0,0 +1,254 @@
+package com.notekeeper.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notekeeper.dto.NoteChangeEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans note change events out to each user's open SSE connections.
+ *
+ * Publishing never blocks the caller: each event is serialized once, queued per connection, and
+ * a shared sender pool drains the queues with non-blocking servlet writes. A peer that stops
+ * reading leaves its bytes in its own queue instead of holding a sender thread, so it cannot
+ * stall delivery to anyone else. Idle connections cost only their async context and an empty
+ * queue. A connection whose queue overflows, or that has accepted no bytes for
+ * {@code notes.stream.send-time-limit-ms}, is considered too slow and is closed, and the client
+ * is expected to reconnect and refetch.
+ */
+@Service
+public class NoteEventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NoteEventService.class);
+
+    private static final byte[] HEARTBEAT = ":ping\n\n".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${notes.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${notes.stream.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${notes.stream.send-time-limit-ms:10000}")
+    private long sendTimeLimitMs;
+
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService sender;
+
+    public NoteEventService(@Value("${notes.stream.sender-threads:4}") int senderThreads) {
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "note-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Turns the request into an event stream for the user; the response stays open after this returns. */
+    public void subscribe(Long userId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Cache-Control", "no-cache");
+        response.setHeader("X-Accel-Buffering", "no");
+
+        AsyncContext context = request.startAsync(request, response);
+        context.setTimeout(timeoutMs);
+        Subscriber subscriber = new Subscriber(userId, context, response.getOutputStream(), queueCapacity);
+        context.addListener(subscriber);
+
+        // Flushes headers on the first write-possible callback so proxies see an open stream
+        subscriber.queue.offer(HEARTBEAT);
+        subscriber.out.setWriteListener(subscriber);
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+    }
+
+    public void publish(Long userId, NoteChangeEvent event) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null) {
+            return;
+        }
+        byte[] message;
+        try {
+            message = ("event:note\ndata:" + objectMapper.writeValueAsString(event) + "\n\n").getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not serialize note event {}: {}", event, e.getMessage());
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : userSubscribers) {
+            enqueue(subscriber, message, now);
+        }
+    }
+
+    public int connectionCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @Scheduled(fixedDelayString = "${notes.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                enqueue(subscriber, HEARTBEAT, now);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(this::close));
+        subscribers.clear();
+    }
+
+    private void enqueue(Subscriber subscriber, byte[] message, long now) {
+        long blockedSince = subscriber.blockedSince;
+        if (blockedSince != 0 && now - blockedSince > sendTimeLimitMs) {
+            logger.debug("Dropping stalled event stream for user {}", subscriber.userId);
+            close(subscriber);
+            return;
+        }
+        if (!subscriber.queue.offer(message)) {
+            logger.debug("Dropping slow event stream for user {}", subscriber.userId);
+            close(subscriber);
+            return;
+        }
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            sender.execute(() -> {
+                subscriber.scheduled.set(false);
+                drain(subscriber);
+            });
+        }
+    }
+
+    // Writes while the container accepts bytes without blocking; when it stops, the container calls
+    // onWritePossible once the peer has caught up and the drain resumes from there
+    private void drain(Subscriber subscriber) {
+        synchronized (subscriber) {
+            if (!subscriber.started || subscriber.closed) {
+                return;
+            }
+            try {
+                while (subscriber.out.isReady()) {
+                    byte[] next = subscriber.queue.poll();
+                    if (next != null) {
+                        subscriber.out.write(next);
+                        subscriber.unflushed = true;
+                    } else if (subscriber.unflushed) {
+                        subscriber.unflushed = false;
+                        subscriber.out.flush();
+                    } else {
+                        return;
+                    }
+                }
+                if (subscriber.blockedSince == 0) {
+                    subscriber.blockedSince = System.currentTimeMillis();
+                }
+            } catch (IOException | IllegalStateException e) {
+                close(subscriber);
+            }
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        unregister(subscriber);
+        if (subscriber.closed) {
+            return;
+        }
+        subscriber.closed = true;
+        try {
+            subscriber.context.complete();
+        } catch (IllegalStateException e) {
+            // Already completed by the container
+        }
+    }
+
+    private void unregister(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private final class Subscriber implements WriteListener, AsyncListener {
+        final Long userId;
+        final AsyncContext context;
+        final ServletOutputStream out;
+        final ArrayBlockingQueue<byte[]> queue;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        // When the connection last stopped accepting bytes, 0 while it keeps up
+        volatile long blockedSince;
+        volatile boolean closed;
+        // Guarded by the subscriber's monitor
+        boolean started;
+        boolean unflushed;
+
+        Subscriber(Long userId, AsyncContext context, ServletOutputStream out, int capacity) {
+            this.userId = userId;
+            this.context = context;
+            this.out = out;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        @Override
+        public void onWritePossible() {
+            // The first callback comes after the request thread has finished with the response
+            synchronized (this) {
+                started = true;
+                blockedSince = 0;
+            }
+            drain(this);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            close(this);
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            closed = true;
+            unregister(this);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close(this);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close(this);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
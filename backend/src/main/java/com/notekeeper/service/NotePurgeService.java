@@ -0,0 +1,95 @@
+package com.notekeeper.service;
+
+import com.notekeeper.repository.NoteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Physically removes notes that have sat in the trash past the retention period.
+ *
+ * Each batch is its own short transaction keyed by primary key, with a pause in between, so a
+ * large purge never holds row locks on {@code notes} for long. The batch locks its candidates and
+ * re-checks the cutoff before deleting them, and only once it has committed are the attachments of
+ * the notes it actually removed deleted, so a note restored in the meantime keeps its files.
+ */
+@Service
+public class NotePurgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotePurgeService.class);
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private AttachmentService attachmentService;
+
+    @Value("${notes.trash.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${notes.purge.batch-size:200}")
+    private int batchSize;
+
+    @Value("${notes.purge.max-batches:50}")
+    private int maxBatches;
+
+    @Value("${notes.purge.pause-ms:100}")
+    private long pauseMs;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public NotePurgeService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${notes.purge.interval-ms:600000}", initialDelayString = "${notes.purge.initial-delay-ms:60000}")
+    public void purgeExpiredNotes() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int purged = 0;
+
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Long> ids = noteRepository.findPurgeableIds(cutoff, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            List<Long> removed = transactionTemplate.execute(status -> purgeBatch(ids, cutoff));
+            if (!removed.isEmpty()) {
+                attachmentService.deleteAttachmentsForNotes(removed);
+            }
+            purged += removed.size();
+
+            if (ids.size() < batchSize) {
+                break;
+            }
+            try {
+                Thread.sleep(pauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (purged > 0) {
+            logger.info("Purged {} notes deleted before {}", purged, cutoff);
+        }
+    }
+
+    private List<Long> purgeBatch(List<Long> ids, LocalDateTime cutoff) {
+        List<Long> locked = noteRepository.lockPurgeable(ids, cutoff);
+        if (locked.isEmpty()) {
+            return locked;
+        }
+        noteRepository.purgeByIds(locked, cutoff);
+        return locked;
+    }
+}
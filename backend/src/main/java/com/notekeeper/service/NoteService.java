@@ -1,24 +1,51 @@
 package com.notekeeper.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notekeeper.dto.NoteChangeEvent;
 import com.notekeeper.dto.NoteRequest;
 import com.notekeeper.dto.NoteResponse;
+import com.notekeeper.dto.SearchResultPage;
 import com.notekeeper.entity.Note;
 import com.notekeeper.entity.User;
+import com.notekeeper.index.Collation;
+import com.notekeeper.index.TagBitmapIndex;
+import com.notekeeper.index.TagExpression;
+import com.notekeeper.profiling.NoteConversionEvent;
 import com.notekeeper.repository.NoteRepository;
+import com.notekeeper.repository.NoteSearchRepository;
+import com.notekeeper.search.SearchCancellation;
+import com.notekeeper.search.SnippetExtractor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.List;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 @Service
 public class NoteService {
 
+    /** Every trashed note was deleted after this; the trash page is read as a range from it. */
+    public static final LocalDateTime TRASHED_AFTER = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     @Autowired
     private NoteRepository noteRepository;
 
@@ -26,115 +53,538 @@ public class NoteService {
     private UserService userService;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private TagCodec tagCodec;
+
+    @Autowired
+    private SuggestService suggestService;
+
+    @Autowired
+    private NoteEventService noteEventService;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private TagIndexService tagIndexService;
+
+    @Autowired
+    private LinkService linkService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private NoteSearchRepository noteSearchRepository;
+
+    @Autowired
+    private NoteArchiveService noteArchiveService;
+
+    @Autowired
+    private RelatedNotesService relatedNotesService;
+
+    @Autowired
+    private TrigramIndexService trigramIndexService;
+
+    @Autowired
+    private ShareService shareService;
+
+    @Autowired
+    private NoteSnapshotService noteSnapshotService;
+
+    // Lazy: CollabService saves through this service
+    @Autowired
+    @Lazy
+    private CollabService collabService;
+
+    @Value("${search.snippet.window:200}")
+    private int snippetWindow;
+
+    @Value("${search.snippet.max-highlights:16}")
+    private int snippetMaxHighlights;
+
+    @Value("${search.timeout-ms:3000}")
+    private long searchTimeoutMs;
 
     public Page<NoteResponse> getAllNotesByUser(Long userId, Pageable pageable) {
-        Page<Note> notes = noteRepository.findByOwnerIdOrderByUpdatedAtDesc(userId, pageable);
-        return notes.map(this::convertToResponse);
+        return noteSnapshotService.readThrough(() -> {
+            // The total comes from the stats counters, so listing never runs COUNT(*)
+            List<NoteResponse> notes = convertAll(noteRepository.findByOwnerIdAndDeletedAtIsNullOrderByUpdatedAtDesc(userId, pageable));
+            Page<NoteResponse> page = new PageImpl<>(notes, pageable, userStatsService.getNoteCount(userId));
+            noteSnapshotService.recordAll(notes);
+            return page;
+        }, () -> noteSnapshotService.listNotes(userId, pageable));
     }
 
     public Page<NoteResponse> searchNotes(Long userId, String searchTerm, Pageable pageable) {
-        Page<Note> notes;
-        
-        if (searchTerm != null && !searchTerm.trim().isEmpty()) {
-            notes = noteRepository.findByOwnerIdAndSearchTerm(userId, searchTerm, pageable);
-        } else {
-            notes = noteRepository.findByOwnerIdOrderByUpdatedAtDesc(userId, pageable);
+        return searchNotes(userId, searchTerm, pageable, false);
+    }
+
+    public Page<NoteResponse> searchNotes(Long userId, String searchTerm, Pageable pageable, boolean includeContent) {
+        return searchNotes(userId, searchTerm, null, pageable, includeContent);
+    }
+
+    public Page<NoteResponse> searchNotes(Long userId, String searchTerm, String tagExpression, Pageable pageable,
+                                          boolean includeContent) {
+        return searchNotes(userId, searchTerm, tagExpression, pageable, includeContent, new SearchCancellation());
+    }
+
+    public Page<NoteResponse> searchNotes(Long userId, String searchTerm, String tagExpression, Pageable pageable,
+                                          boolean includeContent, SearchCancellation cancellation) {
+        boolean hasSearch = searchTerm != null && !searchTerm.trim().isEmpty();
+        boolean hasTags = tagExpression != null && !tagExpression.isBlank();
+        if (!hasSearch) {
+            return hasTags ? getNotesByTags(userId, TagExpression.parse(tagExpression), pageable)
+                    : getAllNotesByUser(userId, pageable);
+        }
+
+        List<Long> restrictToIds = null;
+        if (hasTags) {
+            long[] matching = tagIndexService.matchAll(userId, TagExpression.parse(tagExpression));
+            if (matching.length == 0) {
+                return Page.empty(pageable);
+            }
+            restrictToIds = Arrays.stream(matching).boxed().toList();
+        }
+
+        // Only notes holding every trigram of the term can match; the LIKE below verifies just those
+        long[] candidates = trigramIndexService.candidates(userId, searchTerm);
+        if (candidates != null) {
+            restrictToIds = intersect(restrictToIds, candidates);
+            if (restrictToIds.isEmpty()) {
+                return Page.empty(pageable);
+            }
+        }
+
+        // Archived bodies are not in notes.content, so their matches are found first and passed in by id
+        NoteArchiveService.ContentMatches archived = noteArchiveService.findContentMatches(userId, searchTerm, restrictToIds,
+                cancellation);
+        Set<Long> archivedMatches = archived.noteIds();
+
+        // The scan runs as cancellable JDBC with a driver-side timeout; only the page's rows are then loaded by id
+        int timeoutSeconds = (int) Math.max(1, (searchTimeoutMs + 999) / 1000);
+        List<Long> scope = restrictToIds;
+        List<Long> ids = noteSearchRepository.findIds(userId, searchTerm, scope, archivedMatches, pageable.getOffset(),
+                pageable.getPageSize(), timeoutSeconds, cancellation);
+        cancellation.throwIfCancelled();
+
+        SnippetExtractor extractor = new SnippetExtractor(searchTerm, snippetWindow, snippetMaxHighlights);
+        List<Note> page = loadInOrder(ids, userId);
+        Map<Long, String> archivedContents = noteArchiveService.contentsOf(page);
+        List<NoteResponse> notes = page.stream()
+                .map(note -> {
+                    NoteResponse response = convertToResponse(note, archivedContents);
+                    response.setSnippet(extractor.extract(note.getTitle(), response.getContent()));
+                    if (!includeContent) {
+                        response.setContent(null);
+                    }
+                    return response;
+                })
+                .toList();
+        Page<NoteResponse> result = PageableExecutionUtils.getPage(notes, pageable,
+                () -> noteSearchRepository.count(userId, searchTerm, scope, archivedMatches, timeoutSeconds, cancellation));
+        // Tells the client when matches in archived bodies past the inflate limit were not looked for
+        return new SearchResultPage<>(result.getContent(), pageable, result.getTotalElements(), archived.truncated());
+    }
+
+    private static List<Long> intersect(List<Long> ids, long[] candidates) {
+        if (ids == null) {
+            return Arrays.stream(candidates).boxed().toList();
+        }
+        Set<Long> allowed = new HashSet<>(candidates.length * 2);
+        for (long candidate : candidates) {
+            allowed.add(candidate);
         }
-        
-        return notes.map(this::convertToResponse);
+        return ids.stream().filter(allowed::contains).toList();
+    }
+
+    private Page<NoteResponse> getNotesByTags(Long userId, TagExpression expression, Pageable pageable) {
+        // The bitmap evaluation yields the page's ids and the total, so only the rows shown are loaded
+        TagBitmapIndex.Result result = tagIndexService.query(userId, expression,
+                (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE), pageable.getPageSize());
+        if (result.noteIds().length == 0) {
+            return new PageImpl<>(List.of(), pageable, result.total());
+        }
+
+        List<NoteResponse> notes = convertAll(loadInOrder(Arrays.stream(result.noteIds()).boxed().toList(), userId));
+        return new PageImpl<>(notes, pageable, result.total());
+    }
+
+    private List<Note> loadInOrder(List<Long> ids, Long userId) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Note> byId = new HashMap<>();
+        for (Note note : noteRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(ids, userId)) {
+            byId.put(note.getId(), note);
+        }
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     public NoteResponse getNoteById(Long noteId, Long userId) {
+        return noteSnapshotService.readThrough(() -> {
+            NoteResponse response = loadNote(noteId, userId);
+            noteSnapshotService.record(response);
+            return response;
+        }, () -> noteSnapshotService.getNote(userId, noteId));
+    }
+
+    private NoteResponse loadNote(Long noteId, Long userId) {
         Note note = noteRepository.findById(noteId)
+                .filter(found -> found.getDeletedAt() == null)
                 .orElseThrow(() -> new RuntimeException("Note not found"));
-        
+
         if (!note.getOwner().getId().equals(userId)) {
             throw new RuntimeException("Access denied");
         }
-        
+
         return convertToResponse(note);
     }
 
+    @Transactional
     public NoteResponse createNote(NoteRequest request, Long userId) {
         User user = userService.findById(userId);
-        
+
         Note note = new Note();
         note.setTitle(request.getTitle());
         note.setContent(request.getContent());
+        note.setContentSize(UserStatsService.contentBytes(request.getContent()));
         note.setOwner(user);
         note.setIsPrivate(request.getIsPrivate());
         note.setPassword(request.getPassword());
-        
+
         if (request.getTags() != null) {
-            try {
-                note.setTags(objectMapper.writeValueAsString(request.getTags()));
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException("Error processing tags", e);
-            }
+            note.setTags(tagCodec.encode(request.getTags()));
         }
-        
-        Note savedNote = noteRepository.save(note);
-        return convertToResponse(savedNote);
+
+        long seq = userStatsService.recordChange(userId, 1, note.getContentSize(),
+                UserStatsService.tagDeltas(null, request.getTags()));
+
+        Note savedNote = noteRepository.saveAndFlush(note);
+        linkService.updateLinks(userId, savedNote.getId(), savedNote.getContent());
+        int[] signature = relatedNotesService.recordSignature(userId, savedNote.getId(),
+                savedNote.getTitle(), savedNote.getContent());
+        outboxService.record(userId, savedNote.getId(), NoteChangeEvent.Type.CREATED, savedNote.getVersion());
+        NoteResponse response = convertToResponse(savedNote);
+        onNoteSaved(userId, response, NoteChangeEvent.Type.CREATED, signature, seq);
+        return response;
     }
 
+    @Transactional
     public NoteResponse updateNote(Long noteId, NoteRequest request, Long userId) {
         Note note = noteRepository.findById(noteId)
+                .filter(found -> found.getDeletedAt() == null)
                 .orElseThrow(() -> new RuntimeException("Note not found"));
-        
+
         if (!note.getOwner().getId().equals(userId)) {
             throw new RuntimeException("Access denied");
         }
-        
+
+        noteArchiveService.promote(note);
+        int oldSize = note.getContentSize();
+        List<String> oldTags = tagCodec.decode(note.getTags());
+        boolean contentChanged = !Objects.equals(note.getContent(), request.getContent());
+        boolean titleChanged = !Objects.equals(note.getTitle(), request.getTitle());
+
         note.setTitle(request.getTitle());
         note.setContent(request.getContent());
+        note.setContentSize(UserStatsService.contentBytes(request.getContent()));
         note.setIsPrivate(request.getIsPrivate());
         note.setPassword(request.getPassword());
-        
+
         if (request.getTags() != null) {
-            try {
-                note.setTags(objectMapper.writeValueAsString(request.getTags()));
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException("Error processing tags", e);
-            }
+            note.setTags(tagCodec.encode(request.getTags()));
+        }
+
+        long seq = userStatsService.recordChange(userId, 0, note.getContentSize() - oldSize,
+                UserStatsService.tagDeltas(oldTags, tagCodec.decode(note.getTags())));
+
+        Note updatedNote = noteRepository.saveAndFlush(note);
+        if (contentChanged) {
+            // Renames need nothing here: links are matched against titles when read
+            linkService.updateLinks(userId, noteId, updatedNote.getContent());
+        }
+        // Tag and privacy edits leave the signature as it is
+        int[] signature = contentChanged || titleChanged
+                ? relatedNotesService.recordSignature(userId, noteId, updatedNote.getTitle(), updatedNote.getContent())
+                : null;
+        outboxService.record(userId, noteId, NoteChangeEvent.Type.UPDATED, updatedNote.getVersion());
+        NoteResponse response = convertToResponse(updatedNote);
+        onNoteSaved(userId, response, NoteChangeEvent.Type.UPDATED, signature, seq);
+        return response;
+    }
+
+    @Transactional
+    public NoteResponse saveContent(Long noteId, Long userId, String content, long expectedVersion) {
+        // Snapshot from a collaborative session; refuses to overwrite changes it has not seen
+        Note note = noteRepository.findById(noteId)
+                .filter(found -> found.getDeletedAt() == null)
+                .orElseThrow(() -> new RuntimeException("Note not found"));
+
+        if (!note.getOwner().getId().equals(userId)) {
+            throw new RuntimeException("Access denied");
+        }
+        if (note.getVersion() != expectedVersion) {
+            throw new RuntimeException("Note was modified outside the editing session");
         }
-        
-        Note updatedNote = noteRepository.save(note);
-        return convertToResponse(updatedNote);
+
+        noteArchiveService.promote(note);
+        int oldSize = note.getContentSize();
+        note.setContent(content);
+        note.setContentSize(UserStatsService.contentBytes(content));
+        long seq = userStatsService.recordChange(userId, 0, note.getContentSize() - oldSize, Map.of());
+
+        Note updatedNote = noteRepository.saveAndFlush(note);
+        linkService.updateLinks(userId, noteId, updatedNote.getContent());
+        int[] signature = relatedNotesService.recordSignature(userId, noteId, updatedNote.getTitle(), updatedNote.getContent());
+        outboxService.record(userId, noteId, NoteChangeEvent.Type.UPDATED, updatedNote.getVersion());
+        NoteResponse response = convertToResponse(updatedNote);
+        onNoteSaved(userId, response, NoteChangeEvent.Type.UPDATED, signature, seq);
+        return response;
     }
 
+    @Transactional
     public void deleteNote(Long noteId, Long userId) {
-        if (!noteRepository.existsByIdAndOwnerId(noteId, userId)) {
+        if (deleteNotes(List.of(noteId), userId) == 0) {
             throw new RuntimeException("Note not found or access denied");
         }
-        
-        noteRepository.deleteById(noteId);
+    }
+
+    @Transactional
+    public int deleteNotes(Collection<Long> noteIds, Long userId) {
+        // Lock only the columns the counters need, then trash the rows with one owner-scoped UPDATE;
+        // note bodies are never loaded and rows are purged later in batches
+        List<Object[]> rows = noteRepository.lockLiveByIdsAndOwnerId(noteIds, userId);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> liveIds = new ArrayList<>(rows.size());
+        long bytes = 0;
+        Map<String, Integer> tagDeltas = new HashMap<>();
+        for (Object[] row : rows) {
+            liveIds.add((Long) row[0]);
+            bytes += ((Number) row[1]).longValue();
+            UserStatsService.tagDeltas(tagCodec.decode((String) row[2]), null, tagDeltas);
+        }
+
+        int affected = noteRepository.softDeleteByIdsAndOwnerId(liveIds, userId, LocalDateTime.now());
+        linkService.removeLinks(liveIds);
+        outboxService.recordAll(userId, liveIds, NoteChangeEvent.Type.DELETED);
+        long seq = userStatsService.recordChange(userId, -affected, -bytes, tagDeltas);
+        onNotesDeleted(userId, liveIds, seq);
+        return affected;
+    }
+
+    @Transactional
+    public NoteResponse restoreNote(Long noteId, Long userId) {
+        if (noteRepository.restoreByIdAndOwnerId(noteId, userId, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Note not found in trash");
+        }
+
+        NoteResponse response = loadNote(noteId, userId);
+        linkService.updateLinks(userId, noteId, response.getContent());
+        int[] signature = relatedNotesService.recordSignature(userId, noteId, response.getTitle(), response.getContent());
+        outboxService.record(userId, noteId, NoteChangeEvent.Type.RESTORED, response.getVersion());
+        long seq = userStatsService.recordChange(userId, 1, UserStatsService.contentBytes(response.getContent()),
+                UserStatsService.tagDeltas(null, response.getTags()));
+        onNoteSaved(userId, response, NoteChangeEvent.Type.RESTORED, signature, seq);
+        return response;
+    }
+
+    public Page<NoteResponse> getTrash(Long userId, Pageable pageable) {
+        Page<Note> trash = noteRepository.findByOwnerIdAndDeletedAtAfterOrderByDeletedAtDesc(userId, TRASHED_AFTER, pageable);
+        Map<Long, String> archivedContents = noteArchiveService.contentsOf(trash.getContent());
+        return trash.map(note -> convertToResponse(note, archivedContents));
     }
 
     public List<String> getTagsByUserId(Long userId) {
-        return noteRepository.findDistinctTagsByOwnerId(userId);
+        return noteSnapshotService.readThrough(() -> userStatsService.getTagNames(userId),
+                () -> noteSnapshotService.getTags(userId));
     }
 
-    private NoteResponse convertToResponse(Note note) {
-        List<String> tags = null;
-        if (note.getTags() != null) {
-            try {
-                tags = objectMapper.readValue(note.getTags(), new TypeReference<List<String>>() {});
-            } catch (JsonProcessingException e) {
-                tags = new ArrayList<>();
+    /** Renames a tag on every note, trash included; returns how many live notes changed. */
+    @Transactional
+    public int renameTag(Long userId, String from, String to) {
+        String source = from.trim();
+        String target = to.trim();
+        // A change of case or accents only is still a rename; anything else onto an existing tag is a merge
+        if (!Collation.fold(source).equals(Collation.fold(target)) && userStatsService.hasTag(userId, target)) {
+            throw new RuntimeException("Tag already exists; merge the tags instead");
+        }
+        return rewriteTags(userId, List.of(source), target);
+    }
+
+    /** Replaces each source tag with the target on every note, trash included; returns how many live notes changed. */
+    @Transactional
+    public int mergeTags(Long userId, Collection<String> sources, String target) {
+        return rewriteTags(userId, sources.stream().map(String::trim).toList(), target.trim());
+    }
+
+    /** Removes a tag from every note, trash included; returns how many live notes changed. */
+    @Transactional
+    public int deleteTag(Long userId, String name) {
+        return rewriteTags(userId, List.of(name.trim()), null);
+    }
+
+    // target is null to delete the sources outright. Tags are matched under Collation.fold, the
+    // identity user_tags and the tag index give them, so every spelling of a source is rewritten
+    private int rewriteTags(Long userId, Collection<String> sources, String target) {
+        Set<String> from = new TreeSet<>(Collation.ORDER);
+        from.addAll(sources);
+        if (from.isEmpty()) {
+            return 0;
+        }
+
+        // Rewritten here rather than in SQL, so the matching is the same on every database; rows
+        // stay locked until commit, and notes ending up with the same tags are updated together
+        Map<String, List<Long>> idsByTags = new HashMap<>();
+        Map<String, Integer> tagDeltas = new TreeMap<>(Collation.ORDER);
+        Map<Long, Long> liveVersions = new LinkedHashMap<>();
+        Map<Long, List<String>> liveTags = new HashMap<>();
+        for (Object[] row : noteRepository.lockTaggedByOwnerId(userId)) {
+            Long noteId = (Long) row[0];
+            List<String> oldTags = tagCodec.decode((String) row[1]);
+            List<String> newTags = rewrite(oldTags, from, target);
+            if (newTags.equals(oldTags)) {
+                continue;
+            }
+            idsByTags.computeIfAbsent(tagCodec.encode(newTags), tags -> new ArrayList<>()).add(noteId);
+            // Counters, events and in-memory copies cover nothing in the trash
+            if (row[2] == null) {
+                UserStatsService.tagDeltas(oldTags, newTags, tagDeltas);
+                liveVersions.put(noteId, (Long) row[3] + 1);
+                liveTags.put(noteId, newTags);
+            }
+        }
+        idsByTags.forEach((tags, ids) -> noteRepository.setTags(ids, tags));
+        if (target != null && from.contains(target)) {
+            userStatsService.respellTag(userId, target);
+        }
+        if (liveVersions.isEmpty()) {
+            return 0;
+        }
+
+        long seq = userStatsService.recordChange(userId, 0, 0, tagDeltas);
+        outboxService.recordAll(userId, liveVersions.keySet(), NoteChangeEvent.Type.UPDATED);
+        List<Long> sharedIds = noteRepository.findSharedIdsByOwnerId(userId);
+        afterCommit(() -> {
+            // Rebuilt from the database on next use; cheaper than replaying every touched note
+            suggestService.invalidate(userId);
+            tagIndexService.invalidate(userId);
+            trigramIndexService.onContentUnchanged(userId, seq);
+            sharedIds.forEach(shareService::evict);
+            liveVersions.forEach((noteId, version) -> {
+                noteSnapshotService.retag(userId, noteId, version, liveTags.get(noteId));
+                collabService.onVersionBumped(noteId, version - 1, version);
+                noteEventService.publish(userId, new NoteChangeEvent(noteId, version, NoteChangeEvent.Type.UPDATED));
+            });
+        });
+        return liveVersions.size();
+    }
+
+    // Sources become the target, or are dropped when it is null; a tag seen again under any
+    // spelling is dropped, and the order is kept
+    static List<String> rewrite(List<String> tags, Set<String> sources, String target) {
+        if (tags.stream().noneMatch(tag -> tag != null && sources.contains(tag.trim()))) {
+            return tags;
+        }
+        Set<String> seen = new TreeSet<>(Collation.ORDER);
+        List<String> rewritten = new ArrayList<>(tags.size());
+        for (String tag : tags) {
+            String result = tag != null && sources.contains(tag.trim()) ? target : tag;
+            if (result != null && seen.add(result)) {
+                rewritten.add(result);
+            }
+        }
+        return rewritten;
+    }
+
+    // signature is null when the write left the title and content as they were; seq is the
+    // user's change sequence number the write was recorded under
+    private void onNoteSaved(Long userId, NoteResponse response, NoteChangeEvent.Type type, int[] signature, long seq) {
+        afterCommit(() -> {
+            suggestService.onNoteSaved(userId, response.getId(), response.getTitle(), response.getTags(), response.getUpdatedAt());
+            tagIndexService.onNoteSaved(userId, response.getId(), response.getTags(), seq);
+            shareService.evict(response.getId());
+            noteSnapshotService.record(response);
+            if (signature != null) {
+                relatedNotesService.onNoteSaved(userId, response.getId(), signature);
+                trigramIndexService.onNoteSaved(userId, response.getId(), response.getTitle(), response.getContent(), seq);
+            } else {
+                trigramIndexService.onContentUnchanged(userId, seq);
             }
+            noteEventService.publish(userId, new NoteChangeEvent(response.getId(), response.getVersion(), type));
+        });
+    }
+
+    private void onNotesDeleted(Long userId, Collection<Long> noteIds, long seq) {
+        afterCommit(() -> {
+            tagIndexService.onNotesDeleted(userId, noteIds, seq);
+            trigramIndexService.onNotesDeleted(userId, noteIds, seq);
+            for (Long noteId : noteIds) {
+                suggestService.onNoteDeleted(userId, noteId);
+                relatedNotesService.onNoteDeleted(userId, noteId);
+                shareService.evict(noteId);
+                noteSnapshotService.remove(noteId);
+                noteEventService.publish(userId, new NoteChangeEvent(noteId, null, NoteChangeEvent.Type.DELETED));
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        // In-memory indexes and subscribers must never see a write that later rolls back
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
         }
-        
-        return new NoteResponse(
+    }
+
+    private List<NoteResponse> convertAll(List<Note> notes) {
+        // One archive lookup for the whole page instead of one per archived note
+        Map<Long, String> archivedContents = noteArchiveService.contentsOf(notes);
+        return notes.stream()
+                .map(note -> convertToResponse(note, archivedContents))
+                .toList();
+    }
+
+    private NoteResponse convertToResponse(Note note) {
+        return convertToResponse(note, null);
+    }
+
+    private NoteResponse convertToResponse(Note note, Map<Long, String> archivedContents) {
+        NoteConversionEvent event = new NoteConversionEvent();
+        event.begin();
+        String content = note.getArchivedAt() == null ? note.getContent()
+                : archivedContents != null ? archivedContents.getOrDefault(note.getId(), note.getContent())
+                : noteArchiveService.contentOf(note);
+        NoteResponse response = new NoteResponse(
             note.getId(),
             note.getTitle(),
-            note.getContent(),
-            tags,
+            content,
+            tagCodec.decode(note.getTags()),
             note.getIsPrivate(),
             note.getPassword(),
             note.getCreatedAt(),
             note.getUpdatedAt(),
             note.getOwner().getId()
         );
+        response.setVersion(note.getVersion());
+        response.setDeletedAt(note.getDeletedAt());
+        if (event.shouldCommit()) {
+            event.noteId = note.getId();
+            event.contentLength = content != null ? content.length() : 0;
+            event.archived = note.getArchivedAt() != null;
+            event.commit();
+        }
+        return response;
     }
 }
@@ -0,0 +1,192 @@
+package com.notekeeper.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notekeeper.dto.NoteResponse;
+import com.notekeeper.resilience.DatabaseCircuitBreaker;
+import com.notekeeper.resilience.SnapshotLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Local copy of recently read and written notes, used when the database cannot be reached.
+ *
+ * Every note a user lists or saves on this instance is written to a memory-mapped
+ * {@link SnapshotLog} as the same JSON the API returns, unless that version is already there.
+ * While the {@link DatabaseCircuitBreaker} is open, or when a read fails because the database
+ * went away, the note listing, single notes and the tag list are answered from it instead.
+ * The snapshot holds only what this instance has seen recently and may lag other instances, so it
+ * is a read-only stand-in until the database is back, not a replica.
+ */
+@Service
+public class NoteSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NoteSnapshotService.class);
+
+    @Autowired
+    private DatabaseCircuitBreaker databaseCircuitBreaker;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${resilience.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${resilience.snapshot.path:./data/snapshot/notekeeper-snapshot.bin}")
+    private String path;
+
+    @Value("${resilience.snapshot.size-bytes:67108864}")
+    private int sizeBytes;
+
+    private volatile SnapshotLog log;
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            log = SnapshotLog.open(Paths.get(path), sizeBytes);
+            logger.info("Note snapshot opened at {} with {} notes", path, log.size());
+        } catch (IOException | RuntimeException e) {
+            // Without a snapshot an outage is a plain outage, which is no reason not to start
+            logger.warn("Note snapshot unavailable: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (log != null) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close note snapshot: {}", e.getMessage());
+            }
+            log = null;
+        }
+    }
+
+    /**
+     * Runs {@code database}, or {@code snapshot} instead when the circuit is open or the database
+     * turns out to be unreachable.
+     */
+    public <T> T readThrough(Supplier<T> database, Supplier<T> snapshot) {
+        if (databaseCircuitBreaker.isOpen()) {
+            return snapshot.get();
+        }
+        try {
+            return database.get();
+        } catch (RuntimeException e) {
+            if (DatabaseCircuitBreaker.isConnectionFailure(e)) {
+                return snapshot.get();
+            }
+            throw e;
+        }
+    }
+
+    public void record(NoteResponse note) {
+        // Search results without bodies are not a full copy of the note
+        SnapshotLog current = log;
+        if (current == null || note.getContent() == null || note.getVersion() == null) {
+            return;
+        }
+        if (current.version(note.getId()) == note.getVersion()) {
+            return;
+        }
+        try {
+            current.put(note.getId(), note.getOwnerId(), note.getVersion(), objectMapper.writeValueAsBytes(note));
+        } catch (IOException e) {
+            logger.debug("Could not snapshot note {}: {}", note.getId(), e.getMessage());
+        }
+    }
+
+    public void recordAll(Collection<NoteResponse> notes) {
+        notes.forEach(this::record);
+    }
+
+    /** Applies a tag rewrite made in the database to the note's snapshot copy, if there is one. */
+    public void retag(Long ownerId, Long noteId, long version, List<String> tags) {
+        SnapshotLog current = log;
+        byte[] payload = current != null ? current.get(ownerId, noteId) : null;
+        if (payload == null) {
+            return;
+        }
+        NoteResponse note = read(payload);
+        note.setTags(tags);
+        note.setVersion(version);
+        record(note);
+    }
+
+    public void remove(Long noteId) {
+        SnapshotLog current = log;
+        if (current != null) {
+            current.remove(noteId);
+        }
+    }
+
+    /** The user's note from the snapshot; not found if it is not there or belongs to someone else. */
+    public NoteResponse getNote(Long userId, Long noteId) {
+        SnapshotLog current = log;
+        byte[] payload = current != null ? current.get(userId, noteId) : null;
+        if (payload == null) {
+            throw new RuntimeException("Note not found");
+        }
+        return read(payload);
+    }
+
+    /** The user's snapshot notes as one listing, most recently updated first. */
+    public Page<NoteResponse> listNotes(Long userId, Pageable pageable) {
+        List<NoteResponse> notes = allNotes(userId);
+        notes.sort(Comparator.comparing(NoteResponse::getUpdatedAt, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+                .thenComparing(NoteResponse::getId, Comparator.reverseOrder()));
+        int from = (int) Math.min(pageable.getOffset(), notes.size());
+        int to = Math.min(from + pageable.getPageSize(), notes.size());
+        return new PageImpl<>(new ArrayList<>(notes.subList(from, to)), pageable, notes.size());
+    }
+
+    public List<String> getTags(Long userId) {
+        TreeSet<String> tags = new TreeSet<>();
+        for (NoteResponse note : allNotes(userId)) {
+            if (note.getTags() != null) {
+                tags.addAll(note.getTags());
+            }
+        }
+        return new ArrayList<>(tags);
+    }
+
+    private List<NoteResponse> allNotes(Long userId) {
+        List<NoteResponse> notes = new ArrayList<>();
+        SnapshotLog current = log;
+        if (current != null) {
+            for (byte[] payload : current.getAll(userId)) {
+                notes.add(read(payload));
+            }
+        }
+        return notes;
+    }
+
+    private NoteResponse read(byte[] payload) {
+        try {
+            return objectMapper.readValue(payload, NoteResponse.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Corrupt note snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.notekeeper.service;
+
+import com.notekeeper.entity.OutboxCheckpoint;
+import com.notekeeper.entity.OutboxEvent;
+import com.notekeeper.outbox.OutboxGaps;
+import com.notekeeper.outbox.OutboxSubscriber;
+import com.notekeeper.repository.OutboxCheckpointRepository;
+import com.notekeeper.repository.OutboxEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers outbox events to every {@link OutboxSubscriber} in batches, off the request path.
+ *
+ * A single background thread wakes when a writing transaction commits (or every poll interval)
+ * and, per subscriber, locks its checkpoint row, reads the next batch after it, hands the batch
+ * over and advances the checkpoint in the same transaction. A failing subscriber backs off on
+ * its own without holding up the others.
+ *
+ * Auto-increment ids are allocated at insert but become visible at commit, so a lower id can
+ * appear after a higher one was read, and bulk inserts can leave ids that never appear at all.
+ * Delivery does not wait at a gap: the skipped ids are kept with the checkpoint as
+ * {@link OutboxGaps} and looked for again on every cycle, and events that commit late are
+ * delivered then, out of id order. A gap still empty after {@code outbox.gap-timeout-ms} is
+ * taken to be a rollback or an unused id and given up on.
+ */
+@Service
+public class OutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxCheckpointRepository checkpointRepository;
+
+    @Autowired(required = false)
+    private List<OutboxSubscriber> subscribers = List.of();
+
+    @Value("${outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${outbox.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${outbox.gap-timeout-ms:120000}")
+    private long gapTimeoutMs;
+
+    @Value("${outbox.max-gap-ranges:1000}")
+    private int maxGapRanges;
+
+    @Value("${outbox.max-backoff-ms:60000}")
+    private long maxBackoffMs;
+
+    private final TransactionTemplate transactionTemplate;
+    private final Semaphore signal = new Semaphore(0);
+    private final Map<String, Long> retryAt = new HashMap<>();
+    private final Map<String, Integer> failures = new HashMap<>();
+    private volatile boolean running;
+    private Thread worker;
+
+    public OutboxDispatcher(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "outbox-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(5000);
+        }
+    }
+
+    public void wakeUp() {
+        if (signal.availablePermits() == 0) {
+            signal.release();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                signal.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                signal.drainPermits();
+                dispatchAll();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Outbox dispatch cycle failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void dispatchAll() {
+        boolean more = true;
+        while (more && running) {
+            more = false;
+            for (OutboxSubscriber subscriber : subscribers) {
+                more |= dispatch(subscriber);
+            }
+        }
+        deleteDelivered();
+    }
+
+    /** Delivers one batch to {@code subscriber}; returns whether a full batch was delivered. */
+    private boolean dispatch(OutboxSubscriber subscriber) {
+        String name = subscriber.name();
+        Long notBefore = retryAt.get(name);
+        if (notBefore != null && System.currentTimeMillis() < notBefore) {
+            return false;
+        }
+
+        try {
+            Integer delivered = transactionTemplate.execute(status -> {
+                OutboxCheckpoint checkpoint = checkpointRepository.findForUpdate(name)
+                        // New subscribers start with future events rather than replaying history
+                        .orElseGet(() -> checkpointRepository.save(
+                                new OutboxCheckpoint(name, outboxEventRepository.findMaxId())));
+
+                OutboxGaps gaps = OutboxGaps.parse(checkpoint.getPendingGaps());
+                List<OutboxEvent> late = collectLate(name, gaps);
+                List<OutboxEvent> fresh = outboxEventRepository.findAfter(checkpoint.getLastEventId(),
+                        PageRequest.of(0, batchSize));
+                long lastEventId = recordGaps(checkpoint.getLastEventId(), fresh, gaps);
+                String pendingGaps = gaps.isEmpty() ? null : gaps.toString();
+                if (late.isEmpty() && fresh.isEmpty() && Objects.equals(pendingGaps, checkpoint.getPendingGaps())) {
+                    return 0;
+                }
+
+                List<OutboxEvent> batch = new ArrayList<>(late.size() + fresh.size());
+                batch.addAll(late);
+                batch.addAll(fresh);
+                if (!batch.isEmpty()) {
+                    subscriber.handle(batch);
+                }
+                checkpoint.setLastEventId(lastEventId);
+                checkpoint.setPendingGaps(pendingGaps);
+                checkpoint.setUpdatedAt(LocalDateTime.now());
+                checkpointRepository.save(checkpoint);
+                return fresh.size();
+            });
+            failures.remove(name);
+            retryAt.remove(name);
+            return delivered != null && delivered == batchSize;
+        } catch (RuntimeException e) {
+            int attempt = failures.merge(name, 1, Integer::sum);
+            long backoff = Math.min(maxBackoffMs, pollIntervalMs << Math.min(attempt, 16));
+            retryAt.put(name, System.currentTimeMillis() + backoff);
+            logger.warn("Outbox subscriber {} failed (attempt {}), retrying in {} ms: {}",
+                    name, attempt, backoff, e.getMessage());
+            return false;
+        }
+    }
+
+    // Events that have since committed into ids skipped earlier, at most a batch per cycle
+    private List<OutboxEvent> collectLate(String name, OutboxGaps gaps) {
+        long expired = gaps.expire(System.currentTimeMillis() - gapTimeoutMs);
+        if (expired > 0) {
+            logger.debug("Outbox subscriber {} gave up on {} skipped ids", name, expired);
+        }
+        if (gaps.isEmpty()) {
+            return List.of();
+        }
+        List<Long> found = new ArrayList<>();
+        for (Long id : outboxEventRepository.findIdsBetween(gaps.first(), gaps.last())) {
+            if (gaps.contains(id)) {
+                found.add(id);
+                if (found.size() == batchSize) {
+                    break;
+                }
+            }
+        }
+        if (found.isEmpty()) {
+            return List.of();
+        }
+        found.forEach(gaps::remove);
+        return outboxEventRepository.findByIds(found);
+    }
+
+    // Notes the ids missing between the checkpoint and each fresh event; returns the new checkpoint
+    private long recordGaps(long lastEventId, List<OutboxEvent> fresh, OutboxGaps gaps) {
+        long now = System.currentTimeMillis();
+        long expected = lastEventId + 1;
+        for (OutboxEvent event : fresh) {
+            gaps.add(expected, event.getId() - 1, now);
+            expected = event.getId() + 1;
+        }
+        gaps.limit(maxGapRanges);
+        return expected - 1;
+    }
+
+    private void deleteDelivered() {
+        long upTo;
+        if (subscribers.isEmpty()) {
+            upTo = outboxEventRepository.findMaxId();
+        } else {
+            // Keep everything from the oldest id any subscriber is still looking for
+            upTo = Long.MAX_VALUE;
+            List<OutboxCheckpoint> checkpoints = checkpointRepository.findBySubscribers(
+                    subscribers.stream().map(OutboxSubscriber::name).toList());
+            for (OutboxCheckpoint checkpoint : checkpoints) {
+                OutboxGaps gaps = OutboxGaps.parse(checkpoint.getPendingGaps());
+                long delivered = gaps.isEmpty() ? checkpoint.getLastEventId() : Math.min(checkpoint.getLastEventId(), gaps.first() - 1);
+                upTo = Math.min(upTo, delivered);
+            }
+            if (checkpoints.isEmpty()) {
+                upTo = 0;
+            }
+        }
+        // Bounded per cycle so cleanup after a long outage never runs as one huge delete
+        long lowest = outboxEventRepository.findMinId();
+        if (lowest > 0 && upTo >= lowest) {
+            outboxEventRepository.deleteUpTo(Math.min(upTo, lowest + batchSize * 10L));
+        }
+    }
+}
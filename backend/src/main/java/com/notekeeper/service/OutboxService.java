@@ -0,0 +1,49 @@
+package com.notekeeper.service;
+
+import com.notekeeper.dto.NoteChangeEvent;
+import com.notekeeper.entity.OutboxEvent;
+import com.notekeeper.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Writes note change events to the outbox table inside the caller's transaction, so an event
+ * exists exactly when its change committed. Delivery happens later in {@link OutboxDispatcher}.
+ */
+@Service
+public class OutboxService {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long userId, Long noteId, NoteChangeEvent.Type type, Long noteVersion) {
+        outboxEventRepository.save(new OutboxEvent(userId, noteId, type, noteVersion));
+        wakeDispatcherAfterCommit();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(Long userId, Collection<Long> noteIds, NoteChangeEvent.Type type) {
+        outboxEventRepository.insertForNotes(noteIds, userId, type.name(), LocalDateTime.now());
+        wakeDispatcherAfterCommit();
+    }
+
+    private void wakeDispatcherAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxDispatcher.wakeUp();
+            }
+        });
+    }
+}
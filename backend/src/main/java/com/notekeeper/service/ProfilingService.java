@@ -0,0 +1,291 @@
+package com.notekeeper.service;
+
+import com.notekeeper.dto.ProfileEventSummary;
+import com.notekeeper.dto.ProfileSummaryResponse;
+import com.notekeeper.profiling.AuthFilterEvent;
+import com.notekeeper.profiling.NoteConversionEvent;
+import com.notekeeper.profiling.NoteServiceEvent;
+import com.notekeeper.profiling.TagDecodeEvent;
+import com.notekeeper.profiling.UserLookupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Continuous, low-overhead Java Flight Recorder recording plus on-demand access to it.
+ *
+ * The recording uses the JDK's "default" settings (about 1% overhead) with the application's own
+ * events enabled, and keeps the last {@code profiling.max-age-minutes} on disk. Any window of it
+ * can be dumped to a .jfr file without restarting. Alongside it, a recording stream folds the
+ * application events into per-minute latency summaries that can be read or streamed, so a spike
+ * can be attributed to authentication, user lookup, a note service method, response conversion
+ * or tag parsing without opening the file.
+ */
+@Service
+public class ProfilingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfilingService.class);
+
+    private static final String RECORDING_NAME = "notekeeper-continuous";
+
+    private static final List<Class<? extends Event>> EVENTS = List.of(AuthFilterEvent.class,
+            UserLookupEvent.class, NoteServiceEvent.class, NoteConversionEvent.class, TagDecodeEvent.class);
+
+    @Value("${profiling.enabled:true}")
+    private boolean enabled;
+
+    @Value("${profiling.max-age-minutes:30}")
+    private int maxAgeMinutes;
+
+    @Value("${profiling.max-size-bytes:134217728}")
+    private long maxSizeBytes;
+
+    @Value("${profiling.dump-dir:${java.io.tmpdir}}")
+    private String dumpDir;
+
+    @Value("${profiling.admin-emails:}")
+    private Set<String> adminEmails;
+
+    @Value("${profiling.stream.timeout-ms:600000}")
+    private long streamTimeoutMs;
+
+    private Recording recording;
+    private RecordingStream summaryStream;
+    private ScheduledExecutorService streamSender;
+
+    // Minute (epoch) -> event key -> latency stats; guarded by itself
+    private final TreeMap<Long, Map<String, LatencyStats>> minutes = new TreeMap<>();
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            recording = new Recording(Configuration.getConfiguration("default"));
+            recording.setName(RECORDING_NAME);
+            recording.setToDisk(true);
+            recording.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+            recording.setMaxSize(maxSizeBytes);
+            for (Class<? extends Event> event : EVENTS) {
+                recording.enable(event).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+
+            summaryStream = new RecordingStream();
+            for (Class<? extends Event> event : EVENTS) {
+                summaryStream.enable(event).withThreshold(Duration.ZERO);
+                // The stream also sees every JDK event the continuous recording enables; only ours are summarised
+                summaryStream.onEvent(EventType.getEventType(event).getName(), this::aggregate);
+            }
+            summaryStream.startAsync();
+
+            streamSender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "profiling-stream");
+                thread.setDaemon(true);
+                return thread;
+            });
+            logger.info("Continuous flight recording started (last {} minutes kept)", maxAgeMinutes);
+        } catch (Exception e) {
+            // Profiling must never keep the application from starting
+            logger.warn("Flight recording unavailable: {}", e.getMessage());
+            stop();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (summaryStream != null) {
+            summaryStream.close();
+            summaryStream = null;
+        }
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        if (streamSender != null) {
+            streamSender.shutdownNow();
+            streamSender = null;
+        }
+    }
+
+    public boolean isAdmin(String email) {
+        return email != null && adminEmails.contains(email);
+    }
+
+    /**
+     * Writes the last {@code minutes} of the continuous recording to a new .jfr file and returns
+     * its path; the caller deletes it once sent.
+     */
+    public Path dump(int minutes) throws Exception {
+        if (recording == null) {
+            throw new IllegalStateException("Flight recording is not running");
+        }
+        int window = Math.max(1, Math.min(minutes, maxAgeMinutes));
+        Path file = Files.createTempFile(Files.createDirectories(Paths.get(dumpDir)), "notekeeper-", ".jfr");
+        // JFR.dump can cut a time window out of a running recording; the Recording API cannot before JDK 19
+        ManagementFactory.getPlatformMBeanServer().invoke(
+                new ObjectName("com.sun.management:type=DiagnosticCommand"),
+                "jfrDump",
+                new Object[] {new String[] {"name=" + RECORDING_NAME, "begin=-" + window + "m", "filename=" + file}},
+                new String[] {String[].class.getName()});
+        return file;
+    }
+
+    public ProfileSummaryResponse summary(int lastMinutes) {
+        int window = Math.max(1, Math.min(lastMinutes, maxAgeMinutes));
+        long now = System.currentTimeMillis() / 60_000;
+        long from = now - window + 1;
+
+        Map<String, LatencyStats> merged = new HashMap<>();
+        synchronized (minutes) {
+            for (Map<String, LatencyStats> minute : minutes.subMap(from, true, now, true).values()) {
+                minute.forEach((key, stats) -> merged.computeIfAbsent(key, k -> new LatencyStats()).add(stats));
+            }
+        }
+        List<ProfileEventSummary> events = merged.entrySet().stream()
+                .map(entry -> entry.getValue().toSummary(entry.getKey()))
+                .sorted(Comparator.comparingDouble(ProfileEventSummary::getTotalMs).reversed())
+                .collect(Collectors.toCollection(ArrayList::new));
+        return new ProfileSummaryResponse(Instant.ofEpochSecond(from * 60), Instant.now(), events);
+    }
+
+    /** Sends the summary of the last {@code lastMinutes} every {@code intervalSeconds} until the client goes away. */
+    public SseEmitter streamSummaries(int lastMinutes, int intervalSeconds) {
+        if (streamSender == null) {
+            throw new IllegalStateException("Flight recording is not running");
+        }
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        long period = Math.max(1, intervalSeconds);
+        ScheduledFuture<?> task = streamSender.scheduleAtFixedRate(() -> {
+            try {
+                emitter.send(SseEmitter.event().name("summary").data(summary(lastMinutes)));
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            }
+        }, 0, period, TimeUnit.SECONDS);
+        emitter.onCompletion(() -> task.cancel(false));
+        emitter.onTimeout(() -> task.cancel(false));
+        emitter.onError(error -> task.cancel(false));
+        return emitter;
+    }
+
+    private void aggregate(RecordedEvent event) {
+        String key = event.getEventType().getName();
+        if (event.hasField("method")) {
+            key += "#" + event.getString("method");
+        }
+        long minute = event.getEndTime().toEpochMilli() / 60_000;
+        long nanos = event.getDuration().toNanos();
+        synchronized (minutes) {
+            minutes.computeIfAbsent(minute, m -> new HashMap<>())
+                    .computeIfAbsent(key, k -> new LatencyStats())
+                    .record(nanos);
+            // Keep the same window as the recording
+            while (!minutes.isEmpty() && minutes.firstKey() < minute - maxAgeMinutes) {
+                minutes.pollFirstEntry();
+            }
+        }
+    }
+
+    private static final class LatencyStats {
+
+        // Log-linear buckets: values below 8 ns exactly, then each power of two split into 8 equal
+        // slices, so a bucket's upper bound is at most 12.5% above any value in it
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        private final long[] buckets = new long[SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS];
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        void record(long nanos) {
+            long value = Math.max(0, nanos);
+            buckets[bucketOf(value)]++;
+            count++;
+            totalNanos += value;
+            maxNanos = Math.max(maxNanos, value);
+        }
+
+        void add(LatencyStats other) {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] += other.buckets[i];
+            }
+            count += other.count;
+            totalNanos += other.totalNanos;
+            maxNanos = Math.max(maxNanos, other.maxNanos);
+        }
+
+        ProfileEventSummary toSummary(String key) {
+            return new ProfileEventSummary(key, count, millis(totalNanos),
+                    count > 0 ? millis(totalNanos / count) : 0,
+                    millis(percentile(0.50)), millis(percentile(0.99)), millis(maxNanos));
+        }
+
+        private long percentile(double quantile) {
+            long rank = (long) Math.ceil(quantile * count);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank && seen > 0) {
+                    return Math.min(maxNanos, upperBound(i));
+                }
+            }
+            return maxNanos;
+        }
+
+        private static int bucketOf(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int shift = exponent - SUB_BUCKET_BITS;
+            int slice = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+            return SUB_BUCKETS + shift * SUB_BUCKETS + slice;
+        }
+
+        private static long upperBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int shift = bucket / SUB_BUCKETS - 1;
+            int slice = bucket % SUB_BUCKETS;
+            return ((long) (SUB_BUCKETS + slice + 1) << shift) - 1;
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.notekeeper.service;
+
+import com.notekeeper.dto.DuplicateGroupResponse;
+import com.notekeeper.dto.RelatedNoteResponse;
+import com.notekeeper.entity.Note;
+import com.notekeeper.entity.NoteSignature;
+import com.notekeeper.index.LshIndex;
+import com.notekeeper.index.MinHash;
+import com.notekeeper.index.UserIndexCache;
+import com.notekeeper.repository.NoteRepository;
+import com.notekeeper.repository.NoteSignatureRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Related notes and near-duplicates from MinHash signatures. Signatures are computed from the
+ * title and content when a note is written and kept in {@code note_signatures}; each user's live
+ * signatures are loaded into an {@link LshIndex} on first use, so a lookup only compares the note
+ * against the few notes sharing one of its buckets.
+ *
+ * Loading only reads stored signatures. Notes written before signatures were recorded are signed
+ * on the backfill pool once the user's index is loaded, since that inflates archived bodies, and
+ * join the index batch by batch; until then lookups leave them out.
+ */
+@Service
+public class RelatedNotesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RelatedNotesService.class);
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteSignatureRepository noteSignatureRepository;
+
+    @Autowired
+    private NoteArchiveService noteArchiveService;
+
+    @Value("${related.max-results:20}")
+    private int maxResults;
+
+    @Value("${related.min-similarity:0.2}")
+    private double minSimilarity;
+
+    @Value("${related.duplicate-threshold:0.8}")
+    private double defaultDuplicateThreshold;
+
+    @Value("${related.max-groups:100}")
+    private int maxGroups;
+
+    @Value("${related.max-comparisons:100000}")
+    private int maxComparisons;
+
+    @Value("${related.backfill-batch-size:200}")
+    private int backfillBatchSize;
+
+    private final UserIndexCache<LshIndex> indexes;
+    private final Set<Long> backfilling = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor backfiller;
+    private final TransactionTemplate transactionTemplate;
+
+    public RelatedNotesService(@Value("${related.max-users:10000}") int maxUsers,
+                               @Value("${related.backfill-threads:1}") int backfillThreads,
+                               @Value("${related.backfill-queue-capacity:100}") int backfillQueueCapacity,
+                               PlatformTransactionManager transactionManager) {
+        this.indexes = new UserIndexCache<>(maxUsers);
+        this.backfiller = new ThreadPoolExecutor(backfillThreads, backfillThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(backfillQueueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "signature-backfill");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Computes and stores the note's signature; call inside the writing transaction and hand the
+     * result to {@link #onNoteSaved} once it commits.
+     */
+    public int[] recordSignature(Long userId, Long noteId, String title, String content) {
+        int[] signature = signatureOf(title, content);
+        noteSignatureRepository.save(new NoteSignature(noteId, userId, MinHash.toBytes(signature)));
+        return signature;
+    }
+
+    public void onNoteSaved(Long userId, Long noteId, int[] signature) {
+        // Only maintain indexes that are already loaded; others are built from the database on first use
+        indexes.update(userId, index -> index.put(noteId, signature));
+    }
+
+    public void onNoteDeleted(Long userId, Long noteId) {
+        indexes.update(userId, index -> index.remove(noteId));
+    }
+
+    public List<RelatedNoteResponse> getRelated(Long userId, Long noteId, int limit) {
+        int k = Math.max(1, Math.min(limit, maxResults));
+        LshIndex index = indexFor(userId);
+        int[] signature = index.signature(noteId);
+
+        Map<Long, Double> scores = new HashMap<>();
+        if (signature != null) {
+            for (Long candidate : index.candidates(noteId)) {
+                int[] other = index.signature(candidate);
+                double similarity = other != null ? MinHash.similarity(signature, other) : 0;
+                if (similarity >= minSimilarity) {
+                    scores.put(candidate, similarity);
+                }
+            }
+        }
+        List<Long> top = scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(k)
+                .map(Map.Entry::getKey)
+                .toList();
+
+        // Also confirms the note itself is live and belongs to the user
+        List<Long> ids = new ArrayList<>(top);
+        ids.add(noteId);
+        Map<Long, Object[]> nodes = findNodes(userId, ids);
+        if (!nodes.containsKey(noteId)) {
+            throw new RuntimeException("Note not found");
+        }
+
+        List<RelatedNoteResponse> related = new ArrayList<>(top.size());
+        for (Long id : top) {
+            Object[] node = nodes.get(id);
+            if (node != null) {
+                related.add(toResponse(node, scores.get(id)));
+            }
+        }
+        return related;
+    }
+
+    /**
+     * Groups of notes whose estimated similarity is at least {@code threshold}, largest groups
+     * first. Only notes sharing an LSH bucket are compared, and at most
+     * {@code related.max-comparisons} pairs per report, so huge buckets of boilerplate notes
+     * cannot make it quadratic in the size of the account.
+     */
+    public List<DuplicateGroupResponse> getDuplicates(Long userId, Double threshold) {
+        double minimum = threshold != null ? threshold : defaultDuplicateThreshold;
+        if (minimum <= 0 || minimum > 1) {
+            throw new IllegalArgumentException("Threshold must be between 0 and 1");
+        }
+        LshIndex index = indexFor(userId);
+
+        Map<Long, Long> parents = new HashMap<>();
+        Set<Pair> compared = new HashSet<>();
+        int comparisons = 0;
+        for (long[] bucket : index.sharedBuckets()) {
+            for (int i = 0; i < bucket.length && comparisons < maxComparisons; i++) {
+                int[] a = index.signature(bucket[i]);
+                for (int j = i + 1; j < bucket.length && comparisons < maxComparisons; j++) {
+                    // The same pair often shares several bands; compare it once
+                    long lo = Math.min(bucket[i], bucket[j]);
+                    long hi = Math.max(bucket[i], bucket[j]);
+                    if (!compared.add(new Pair(lo, hi))) {
+                        continue;
+                    }
+                    comparisons++;
+                    int[] b = index.signature(bucket[j]);
+                    if (a != null && b != null && MinHash.similarity(a, b) >= minimum) {
+                        union(parents, lo, hi);
+                    }
+                }
+            }
+        }
+
+        Map<Long, List<Long>> groups = new HashMap<>();
+        for (Long id : new ArrayList<>(parents.keySet())) {
+            groups.computeIfAbsent(find(parents, id), root -> new ArrayList<>()).add(id);
+        }
+        List<List<Long>> largest = groups.values().stream()
+                .filter(group -> group.size() > 1)
+                .sorted(Comparator.comparingInt((List<Long> group) -> group.size()).reversed()
+                        .thenComparing(group -> group.stream().min(Long::compare).orElse(0L)))
+                .limit(maxGroups)
+                .toList();
+        if (largest.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = new ArrayList<>();
+        largest.forEach(ids::addAll);
+        Map<Long, Object[]> nodes = findNodes(userId, ids);
+
+        List<DuplicateGroupResponse> report = new ArrayList<>(largest.size());
+        for (List<Long> group : largest) {
+            List<Object[]> members = group.stream()
+                    .map(nodes::get)
+                    .filter(node -> node != null)
+                    .sorted(Comparator.comparing((Object[] node) -> (LocalDateTime) node[2],
+                            Comparator.nullsLast(Comparator.reverseOrder())))
+                    .toList();
+            if (members.size() < 2) {
+                continue;
+            }
+            int[] newest = index.signature((Long) members.get(0)[0]);
+            List<RelatedNoteResponse> notes = new ArrayList<>(members.size());
+            for (Object[] node : members) {
+                int[] signature = index.signature((Long) node[0]);
+                double similarity = newest != null && signature != null ? MinHash.similarity(newest, signature) : 0;
+                notes.add(toResponse(node, similarity));
+            }
+            report.add(new DuplicateGroupResponse(notes));
+        }
+        return report;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backfiller.shutdownNow();
+    }
+
+    private LshIndex indexFor(Long userId) {
+        LshIndex index = indexes.get(userId);
+        if (index == null) {
+            index = indexes.getOrLoad(userId, this::load);
+            scheduleBackfill(userId);
+        }
+        return index;
+    }
+
+    private LshIndex load(Long userId) {
+        LshIndex index = new LshIndex();
+        for (Object[] row : noteSignatureRepository.findLiveByOwnerId(userId)) {
+            index.put((Long) row[0], MinHash.fromBytes((byte[]) row[1]));
+        }
+        return index;
+    }
+
+    private void scheduleBackfill(Long userId) {
+        if (!backfilling.add(userId)) {
+            return;
+        }
+        try {
+            backfiller.execute(() -> backfill(userId));
+        } catch (RejectedExecutionException e) {
+            // Too many backfills queued; the next load of the user's index asks again
+            backfilling.remove(userId);
+        }
+    }
+
+    private void backfill(Long userId) {
+        try {
+            // Each batch drops out of the next query once stored
+            while (true) {
+                List<Note> missing = noteSignatureRepository.findLiveWithoutSignature(userId,
+                        PageRequest.of(0, backfillBatchSize));
+                Map<Long, String> archivedContents = noteArchiveService.contentsOf(missing);
+                Map<Long, int[]> signatures = new HashMap<>();
+                for (Note note : missing) {
+                    String content = archivedContents.getOrDefault(note.getId(), note.getContent());
+                    signatures.put(note.getId(), signatureOf(note.getTitle(), content));
+                }
+                Map<Long, int[]> stored = transactionTemplate.execute(status -> store(userId, signatures));
+                indexes.update(userId, index -> stored.forEach(index::put));
+                // A batch that stores nothing would be read again; leave it to the next load
+                if (missing.size() < backfillBatchSize || stored.isEmpty()) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not backfill note signatures for user {}: {}", userId, e.getMessage());
+        } finally {
+            backfilling.remove(userId);
+        }
+    }
+
+    // A note written since it was read already has a newer signature, which is kept
+    private Map<Long, int[]> store(Long userId, Map<Long, int[]> signatures) {
+        Map<Long, int[]> stored = new HashMap<>();
+        signatures.forEach((noteId, signature) -> {
+            if (noteSignatureRepository.insertIfAbsent(noteId, userId, MinHash.toBytes(signature)) == 1) {
+                stored.put(noteId, signature);
+            }
+        });
+        return stored;
+    }
+
+    private Map<Long, Object[]> findNodes(Long userId, List<Long> ids) {
+        Map<Long, Object[]> nodes = new HashMap<>();
+        for (Object[] node : noteRepository.findLinkNodesByIdsAndOwnerId(ids, userId)) {
+            nodes.put((Long) node[0], node);
+        }
+        return nodes;
+    }
+
+    private static int[] signatureOf(String title, String content) {
+        return MinHash.signature((title != null ? title : "") + "\n" + (content != null ? content : ""));
+    }
+
+    private static void union(Map<Long, Long> parents, long a, long b) {
+        long rootA = find(parents, a);
+        long rootB = find(parents, b);
+        if (rootA != rootB) {
+            parents.put(Math.max(rootA, rootB), Math.min(rootA, rootB));
+        }
+    }
+
+    private static long find(Map<Long, Long> parents, long id) {
+        long root = id;
+        Long parent;
+        while ((parent = parents.putIfAbsent(root, root)) != null && parent != root) {
+            root = parent;
+        }
+        // Path compression
+        long current = id;
+        while (current != root) {
+            long next = parents.get(current);
+            parents.put(current, root);
+            current = next;
+        }
+        return root;
+    }
+
+    private static RelatedNoteResponse toResponse(Object[] node, double similarity) {
+        return new RelatedNoteResponse((Long) node[0], (String) node[1], (LocalDateTime) node[2], similarity);
+    }
+
+    private record Pair(long lo, long hi) {
+    }
+}
@@ -0,0 +1,193 @@
+package com.notekeeper.service;
+
+import com.notekeeper.entity.Note;
+import com.notekeeper.render.MarkdownRenderer;
+import com.notekeeper.repository.NoteRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Renders notes to sanitized HTML behind a cache keyed by content hash.
+ *
+ * Lookups go in two steps: (note id, version) maps to the content hash, and the hash maps to
+ * the HTML. A repeat view of an unchanged note therefore costs one indexed version lookup and
+ * never loads, hashes or parses the body. Identical content in different notes shares an entry.
+ * With persistence enabled, rendered HTML is also written to disk so restarts start warm.
+ */
+@Service
+public class RenderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderService.class);
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private MarkdownRenderer markdownRenderer;
+
+    @Autowired
+    private NoteArchiveService noteArchiveService;
+
+    @Value("${render.cache.max-bytes:33554432}")
+    private long maxBytes;
+
+    @Value("${render.cache.max-notes:50000}")
+    private int maxNotes;
+
+    @Value("${render.cache.persist:false}")
+    private boolean persist;
+
+    @Value("${render.cache.dir:./data/render-cache}")
+    private String cacheDir;
+
+    private Path cachePath;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, String> htmlByHash = new LinkedHashMap<>(256, 0.75f, true);
+    private long cachedBytes;
+
+    private final Map<Long, VersionedHash> hashByNote = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, VersionedHash> eldest) {
+            return size() > maxNotes;
+        }
+    };
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (persist) {
+            cachePath = Files.createDirectories(Paths.get(cacheDir));
+        }
+    }
+
+    public RenderedNote render(Long noteId, Long userId) {
+        Long version = noteRepository.findLiveVersion(noteId, userId)
+                .orElseThrow(() -> new RuntimeException("Note not found or access denied"));
+
+        VersionedHash known;
+        synchronized (hashByNote) {
+            known = hashByNote.get(noteId);
+        }
+        if (known != null && known.version() == version) {
+            String html = getCached(known.hash());
+            if (html != null) {
+                return new RenderedNote(known.hash(), html);
+            }
+        }
+
+        Note note = noteRepository.findById(noteId)
+                .filter(found -> found.getDeletedAt() == null && found.getOwner().getId().equals(userId))
+                .orElseThrow(() -> new RuntimeException("Note not found or access denied"));
+        String content = noteArchiveService.contentOf(note);
+        String hash = contentHash(content);
+        synchronized (hashByNote) {
+            hashByNote.put(noteId, new VersionedHash(note.getVersion(), hash));
+        }
+
+        String html = getCached(hash);
+        if (html == null) {
+            html = readPersisted(hash);
+            if (html == null) {
+                html = markdownRenderer.render(content);
+                writePersisted(hash, html);
+            }
+            putCached(hash, html);
+        }
+        return new RenderedNote(hash, html);
+    }
+
+    public synchronized int cachedEntries() {
+        return htmlByHash.size();
+    }
+
+    private synchronized String getCached(String hash) {
+        return htmlByHash.get(hash);
+    }
+
+    private synchronized void putCached(String hash, String html) {
+        long size = weight(html);
+        if (size > maxBytes) {
+            return;
+        }
+        String previous = htmlByHash.put(hash, html);
+        cachedBytes += size - (previous != null ? weight(previous) : 0);
+
+        var it = htmlByHash.entrySet().iterator();
+        while (cachedBytes > maxBytes && it.hasNext()) {
+            cachedBytes -= weight(it.next().getValue());
+            it.remove();
+        }
+    }
+
+    private String readPersisted(String hash) {
+        if (cachePath == null) {
+            return null;
+        }
+        Path file = persistedPath(hash);
+        try {
+            return Files.exists(file) ? Files.readString(file, StandardCharsets.UTF_8) : null;
+        } catch (IOException e) {
+            logger.warn("Could not read cached render {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writePersisted(String hash, String html) {
+        if (cachePath == null) {
+            return;
+        }
+        Path file = persistedPath(hash);
+        try {
+            // Write then rename so a concurrent reader never sees a partial file
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), hash, ".tmp");
+            Files.writeString(temp, html, StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not persist render {}: {}", file, e.getMessage());
+        }
+    }
+
+    private Path persistedPath(String hash) {
+        return cachePath.resolve(hash.substring(0, 2)).resolve(hash + ".html");
+    }
+
+    private static long weight(String html) {
+        return 2L * html.length() + 64;
+    }
+
+    private static String contentHash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // The renderer version is part of the key so output changes never serve stale HTML
+            digest.update(MarkdownRenderer.VERSION.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update((content != null ? content : "").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record RenderedNote(String hash, String html) {
+    }
+
+    private record VersionedHash(long version, String hash) {
+    }
+}
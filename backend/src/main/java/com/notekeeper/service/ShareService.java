@@ -0,0 +1,258 @@
+package com.notekeeper.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notekeeper.dto.ShareLinkResponse;
+import com.notekeeper.dto.SharedNoteResponse;
+import com.notekeeper.entity.Note;
+import com.notekeeper.repository.NoteRepository;
+import com.notekeeper.resilience.DatabaseCircuitBreaker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Public read-only links to notes. Each shared note carries a random token; revoking clears it.
+ *
+ * Anonymous reads are served from a bounded cache of pre-serialized JSON keyed by token and
+ * stamped with the note version, so a widely shared link neither loads the note nor serializes
+ * it per request. An entry is re-checked against the database at most every
+ * {@code share.cache.revalidate-ms} with one indexed version lookup, which also picks up edits
+ * and revocations made on other instances; edits made here evict it immediately.
+ *
+ * Live entries are evicted least recently used first once the cache exceeds its entry or byte
+ * limit. Tokens that resolved to nothing are remembered in a separate, smaller LRU map, so a
+ * burst of dead or guessed tokens cannot push live links out of the cache.
+ */
+@Service
+public class ShareService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteArchiveService noteArchiveService;
+
+    @Autowired
+    private TagCodec tagCodec;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DatabaseCircuitBreaker databaseCircuitBreaker;
+
+    @Value("${share.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${share.cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${share.cache.max-dead-entries:10000}")
+    private int maxDeadEntries;
+
+    @Value("${share.cache.revalidate-ms:5000}")
+    private long revalidateMs;
+
+    // Access-ordered, so iteration starts at the least recently used entry; guards tokensByNote and cachedBytes too
+    private final LinkedHashMap<String, SharedNote> cache = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<Long, String> tokensByNote = new HashMap<>();
+    private long cachedBytes;
+
+    // Tokens that resolved to nothing, with the time they were checked
+    private final Map<String, Long> deadTokens = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > maxDeadEntries;
+        }
+    };
+
+    private final ConcurrentMap<String, Object> loading = new ConcurrentHashMap<>();
+
+    /** Returns the note's share link, creating one if it is not shared yet. */
+    public ShareLinkResponse share(Long noteId, Long userId) {
+        Object[] state = findShareState(noteId, userId);
+        String password = (String) state[1];
+        if (password != null && !password.isEmpty()) {
+            throw new RuntimeException("Password-protected notes cannot be shared");
+        }
+
+        String token = (String) state[0];
+        if (token == null) {
+            token = newToken();
+            if (noteRepository.updateShareToken(noteId, userId, token) == 0) {
+                throw new RuntimeException("Note not found or access denied");
+            }
+        }
+        return new ShareLinkResponse(noteId, token, "/share/" + token);
+    }
+
+    public void revoke(Long noteId, Long userId) {
+        findShareState(noteId, userId);
+        noteRepository.updateShareToken(noteId, userId, null);
+        evict(noteId);
+    }
+
+    /** The shared note behind {@code token}, served from the cache whenever it is fresh enough. */
+    public SharedNote get(String token) {
+        long now = System.currentTimeMillis();
+        SharedNote shared = cached(token);
+        if (shared != null && shared.body() != null && now - shared.checkedAt() >= revalidateMs
+                && databaseCircuitBreaker.isOpen()) {
+            // Stale beats failing while the database is unreachable
+            return shared;
+        }
+        if (shared == null || now - shared.checkedAt() >= revalidateMs) {
+            // One request per token goes to the database; others asking for the same token wait for it
+            Object lock = loading.computeIfAbsent(token, key -> new Object());
+            try {
+                synchronized (lock) {
+                    shared = refresh(token, now);
+                }
+            } finally {
+                loading.remove(token, lock);
+            }
+        }
+        if (shared.body() == null) {
+            throw new RuntimeException("Share link not found");
+        }
+        return shared;
+    }
+
+    /** Drops the cached copy of a note that was just edited, deleted or restored. */
+    public void evict(Long noteId) {
+        synchronized (cache) {
+            String token = tokensByNote.remove(noteId);
+            if (token != null) {
+                release(cache.remove(token));
+            }
+        }
+    }
+
+    public int cachedEntries() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private SharedNote refresh(String token, long now) {
+        SharedNote current = cached(token);
+        if (current != null && now - current.checkedAt() < revalidateMs) {
+            return current;
+        }
+        List<Object[]> rows = noteRepository.findSharedVersion(token);
+        Long noteId = rows.isEmpty() ? null : (Long) rows.get(0)[0];
+        long version = rows.isEmpty() ? -1 : (Long) rows.get(0)[1];
+        if (current != null && current.body() != null && Objects.equals(current.noteId(), noteId) && current.version() == version) {
+            SharedNote revalidated = new SharedNote(noteId, version, current.body(), current.etag(), now);
+            store(token, revalidated);
+            return revalidated;
+        }
+
+        SharedNote loaded = noteId != null ? load(noteId, now) : null;
+        if (loaded == null) {
+            // Dead links are remembered too, so a revoked but still popular link stays off the database
+            synchronized (cache) {
+                release(cache.remove(token));
+                synchronized (deadTokens) {
+                    deadTokens.put(token, now);
+                }
+            }
+            return new SharedNote(null, -1, null, null, now);
+        }
+        store(token, loaded);
+        return loaded;
+    }
+
+    private SharedNote cached(String token) {
+        synchronized (cache) {
+            SharedNote entry = cache.get(token);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        synchronized (deadTokens) {
+            Long checkedAt = deadTokens.get(token);
+            return checkedAt != null ? new SharedNote(null, -1, null, null, checkedAt) : null;
+        }
+    }
+
+    private void store(String token, SharedNote entry) {
+        synchronized (cache) {
+            release(cache.put(token, entry));
+            cachedBytes += entry.body().length;
+            tokensByNote.put(entry.noteId(), token);
+            synchronized (deadTokens) {
+                deadTokens.remove(token);
+            }
+
+            Iterator<Map.Entry<String, SharedNote>> it = cache.entrySet().iterator();
+            while ((cache.size() > maxEntries || cachedBytes > maxBytes) && it.hasNext()) {
+                Map.Entry<String, SharedNote> eldest = it.next();
+                if (!eldest.getKey().equals(token)) {
+                    it.remove();
+                    release(eldest.getValue());
+                }
+            }
+        }
+    }
+
+    private SharedNote load(Long noteId, long now) {
+        Note note = noteRepository.findById(noteId)
+                .filter(found -> found.getDeletedAt() == null && found.getShareToken() != null)
+                .filter(found -> found.getPassword() == null || found.getPassword().isEmpty())
+                .orElse(null);
+        if (note == null) {
+            return null;
+        }
+        SharedNoteResponse response = new SharedNoteResponse(note.getTitle(), noteArchiveService.contentOf(note),
+                tagCodec.decode(note.getTags()), note.getUpdatedAt());
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(response);
+            String etag = "\"" + note.getVersion() + "-" + Integer.toHexString(Arrays.hashCode(body)) + "\"";
+            return new SharedNote(noteId, note.getVersion(), body, etag, now);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize shared note", e);
+        }
+    }
+
+    private Object[] findShareState(Long noteId, Long userId) {
+        List<Object[]> rows = noteRepository.findShareState(noteId, userId);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Note not found or access denied");
+        }
+        return rows.get(0);
+    }
+
+    // Caller holds the cache monitor
+    private void release(SharedNote entry) {
+        if (entry != null) {
+            cachedBytes -= entry.body().length;
+            tokensByNote.remove(entry.noteId());
+        }
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[24];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // A null body marks a token that resolved to nothing when last checked
+    public record SharedNote(Long noteId, long version, byte[] body, String etag, long checkedAt) {
+    }
+}
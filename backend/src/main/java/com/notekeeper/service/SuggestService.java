@@ -0,0 +1,83 @@
+package com.notekeeper.service;
+
+import com.notekeeper.dto.SuggestionResponse;
+import com.notekeeper.index.PrefixIndex;
+import com.notekeeper.index.UserIndexCache;
+import com.notekeeper.repository.NoteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+public class SuggestService {
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private TagCodec tagCodec;
+
+    @Value("${suggest.max-results:20}")
+    private int maxResults;
+
+    private final UserIndexCache<PrefixIndex> indexes;
+
+    public SuggestService(@Value("${suggest.max-users:10000}") int maxUsers) {
+        this.indexes = new UserIndexCache<>(maxUsers);
+    }
+
+    public List<SuggestionResponse> suggest(Long userId, String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        int k = Math.max(1, Math.min(limit, maxResults));
+        return indexFor(userId).suggest(prefix.trim(), k).stream()
+                .map(match -> new SuggestionResponse(
+                        match.kind().name(),
+                        match.text(),
+                        match.noteId(),
+                        toDateTime(match.updatedAt())))
+                .toList();
+    }
+
+    public void onNoteSaved(Long userId, Long noteId, String title, Collection<String> tags, LocalDateTime updatedAt) {
+        // Only maintain indexes that are already loaded; others are built from the database on first use
+        indexes.update(userId, index -> index.put(noteId, title, tags, toEpochMillis(updatedAt)));
+    }
+
+    public void onNoteDeleted(Long userId, Long noteId) {
+        indexes.update(userId, index -> index.remove(noteId));
+    }
+
+    /** Drops the user's index after a change too broad to apply note by note; it is rebuilt on next use. */
+    public void invalidate(Long userId) {
+        indexes.invalidate(userId);
+    }
+
+    private PrefixIndex indexFor(Long userId) {
+        return indexes.getOrLoad(userId, this::load);
+    }
+
+    private PrefixIndex load(Long userId) {
+        PrefixIndex index = new PrefixIndex();
+        for (Object[] row : noteRepository.findSuggestSourcesByOwnerId(userId)) {
+            index.put((Long) row[0], (String) row[1], tagCodec.decode((String) row[2]),
+                    toEpochMillis((LocalDateTime) row[3]));
+        }
+        return index;
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return epochMillis > 0 ? LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC) : null;
+    }
+}
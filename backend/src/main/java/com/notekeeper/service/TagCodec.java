@@ -0,0 +1,44 @@
+package com.notekeeper.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notekeeper.profiling.TagDecodeEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class TagCodec {
+
+    private static final TypeReference<List<String>> TAG_LIST = new TypeReference<List<String>>() {};
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public List<String> decode(String json) {
+        if (json == null) {
+            return null;
+        }
+        TagDecodeEvent event = new TagDecodeEvent();
+        event.begin();
+        try {
+            return objectMapper.readValue(json, TAG_LIST);
+        } catch (JsonProcessingException e) {
+            return new ArrayList<>();
+        } finally {
+            event.jsonLength = json.length();
+            event.commit();
+        }
+    }
+
+    public String encode(List<String> tags) {
+        try {
+            return objectMapper.writeValueAsString(tags);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error processing tags", e);
+        }
+    }
+}
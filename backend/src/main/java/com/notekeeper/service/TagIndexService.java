@@ -0,0 +1,99 @@
+package com.notekeeper.service;
+
+import com.notekeeper.index.TagBitmapIndex;
+import com.notekeeper.index.TagExpression;
+import com.notekeeper.index.UserIndexCache;
+import com.notekeeper.index.VersionedIndex;
+import com.notekeeper.repository.NoteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Answers tag filters from per-user bitmap indexes. Each index carries the user's change
+ * sequence it reflects; writes on this instance are applied to it in sequence order, and a
+ * query first checks the sequence in user_stats, rebuilding an index that writes made on
+ * another instance have left behind.
+ */
+@Service
+public class TagIndexService {
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private TagCodec tagCodec;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    private final UserIndexCache<VersionedIndex<TagBitmapIndex>> indexes;
+
+    public TagIndexService(@Value("${tag-index.max-users:10000}") int maxUsers) {
+        this.indexes = new UserIndexCache<>(maxUsers);
+    }
+
+    public TagBitmapIndex.Result query(Long userId, TagExpression expression, int offset, int limit) {
+        return indexFor(userId).query(expression, offset, limit);
+    }
+
+    public long[] matchAll(Long userId, TagExpression expression) {
+        return indexFor(userId).matchAll(expression);
+    }
+
+    /** Applies a committed write; {@code seq} is the change sequence number it was recorded under. */
+    public void onNoteSaved(Long userId, Long noteId, Collection<String> tags, long seq) {
+        apply(userId, seq, index -> index.put(noteId, tags));
+    }
+
+    public void onNotesDeleted(Long userId, Collection<Long> noteIds, long seq) {
+        apply(userId, seq, index -> noteIds.forEach(index::remove));
+    }
+
+    /** Drops the user's index after a change too broad to apply note by note; it is rebuilt on next use. */
+    public void invalidate(Long userId) {
+        indexes.invalidate(userId);
+    }
+
+    private void apply(Long userId, long seq, Consumer<TagBitmapIndex> change) {
+        // Only maintain indexes that are already loaded; others are built from the database on first use
+        indexes.update(userId, entry -> {
+            if (!entry.apply(seq, change)) {
+                indexes.invalidate(userId);
+            }
+        });
+    }
+
+    private TagBitmapIndex indexFor(Long userId) {
+        long seq = userStatsService.getChangeSeq(userId);
+        VersionedIndex<TagBitmapIndex> entry = indexes.getOrLoad(userId, this::load);
+        if (entry.version() < seq) {
+            indexes.invalidate(userId);
+            entry = indexes.getOrLoad(userId, this::load);
+        }
+        return entry.index();
+    }
+
+    private VersionedIndex<TagBitmapIndex> load(Long userId) {
+        // Read before the rows, so every change numbered up to it is in them
+        long seq = userStatsService.getChangeSeq(userId);
+        // Ordinals follow insertion order, so replay notes oldest first to match the list ordering
+        List<Object[]> rows = new ArrayList<>(noteRepository.findSuggestSourcesByOwnerId(userId));
+        rows.sort(Comparator.comparing((Object[] row) -> (LocalDateTime) row[3],
+                        Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(row -> (Long) row[0]));
+
+        TagBitmapIndex index = new TagBitmapIndex();
+        for (Object[] row : rows) {
+            index.put((Long) row[0], tagCodec.decode((String) row[2]));
+        }
+        return new VersionedIndex<>(index, seq);
+    }
+}
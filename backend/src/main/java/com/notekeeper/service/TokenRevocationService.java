@@ -0,0 +1,147 @@
+package com.notekeeper.service;
+
+import com.notekeeper.entity.TokenRevocation;
+import com.notekeeper.repository.TokenRevocationRepository;
+import com.notekeeper.resilience.DatabaseCircuitBreaker;
+import com.notekeeper.security.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Revokes single tokens (by {@code jti}) and every token a user holds (a "not before" cut-off).
+ *
+ * Each request is checked against an in-memory Bloom filter of revoked jtis and user ids first; only
+ * a filter hit costs a database lookup. The filter is rebuilt from the table periodically, which also
+ * picks up revocations made by other instances, and revocations made here are added immediately.
+ * Until the first build completes every check goes to the database. While the database is
+ * unreachable a filter hit is refused, since it cannot be confirmed; before the first build there is
+ * no filter to hit, and tokens are let in rather than locking every user out for the outage.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Autowired
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Autowired
+    private DatabaseCircuitBreaker databaseCircuitBreaker;
+
+    @Value("${jwt.expiration}")
+    private long expirationMs;
+
+    @Value("${revocation.bloom.expected-insertions:100000}")
+    private long expectedInsertions;
+
+    @Value("${revocation.bloom.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+
+    // Revocations made while a rebuild is reading the table, replayed into the new filter; guarded by this
+    private final List<String> revokedJtisSinceRead = new ArrayList<>();
+    private final List<Long> revokedUsersSinceRead = new ArrayList<>();
+
+    public boolean isRevoked(String jti, Long userId, Date issuedAt) {
+        BloomFilter current = filter;
+        boolean jtiHit = jti != null && (current == null || current.mightContain(jti));
+        boolean userHit = userId != null && (current == null || current.mightContain(userId.longValue()));
+        if (!jtiHit && !userHit) {
+            return false;
+        }
+        if (databaseCircuitBreaker.isOpen()) {
+            // A real filter hit cannot be confirmed without the database; refuse rather than let a revoked
+            // token in. Without a filter everything "hits", and refusing would lock out every user
+            return current != null;
+        }
+
+        if (jtiHit && tokenRevocationRepository.existsByJti(jti)) {
+            return true;
+        }
+        if (userHit && issuedAt != null) {
+            LocalDateTime notBefore = tokenRevocationRepository.findLatestNotBefore(userId);
+            return notBefore != null && !toLocal(issuedAt).isAfter(notBefore);
+        }
+        return false;
+    }
+
+    /** Revokes one token; tokens issued before jtis were added can only be revoked with the rest of the user's. */
+    public void revokeToken(String jti, Long userId, Date expiresAt) {
+        if (jti == null) {
+            revokeAllForUser(userId);
+            return;
+        }
+        if (!tokenRevocationRepository.existsByJti(jti)) {
+            tokenRevocationRepository.save(new TokenRevocation(userId, jti, null, toLocal(expiresAt)));
+        }
+        synchronized (this) {
+            if (filter != null) {
+                filter.add(jti);
+            }
+            revokedJtisSinceRead.add(jti);
+        }
+    }
+
+    /**
+     * Revokes every token the user currently holds. Issue times have second precision, so a token
+     * issued within the same second as the revocation is revoked too.
+     */
+    public void revokeAllForUser(Long userId) {
+        LocalDateTime notBefore = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime expiresAt = notBefore.plus(expirationMs, ChronoUnit.MILLIS).plusSeconds(1);
+        tokenRevocationRepository.save(new TokenRevocation(userId, null, notBefore, expiresAt));
+        synchronized (this) {
+            if (filter != null) {
+                filter.add(userId.longValue());
+            }
+            revokedUsersSinceRead.add(userId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${revocation.rebuild-interval-ms:60000}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        int pruned = tokenRevocationRepository.deleteExpired(now);
+
+        synchronized (this) {
+            revokedJtisSinceRead.clear();
+            revokedUsersSinceRead.clear();
+        }
+        List<Object[]> rows = tokenRevocationRepository.findActiveKeys(now);
+
+        BloomFilter next = new BloomFilter(Math.max(expectedInsertions, 2L * rows.size()), falsePositiveRate);
+        for (Object[] row : rows) {
+            if (row[0] != null) {
+                next.add((String) row[0]);
+            } else {
+                next.add((Long) row[1]);
+            }
+        }
+        synchronized (this) {
+            revokedJtisSinceRead.forEach(next::add);
+            revokedUsersSinceRead.forEach(next::add);
+            revokedJtisSinceRead.clear();
+            revokedUsersSinceRead.clear();
+            filter = next;
+        }
+        logger.debug("Rebuilt revocation filter from {} entries ({} pruned) in {} ms",
+                rows.size(), pruned, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static LocalDateTime toLocal(Date date) {
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+    }
+}
@@ -0,0 +1,200 @@
+package com.notekeeper.service;
+
+import com.notekeeper.entity.Note;
+import com.notekeeper.index.TrigramIndex;
+import com.notekeeper.index.UserIndexCache;
+import com.notekeeper.index.VersionedIndex;
+import com.notekeeper.repository.NoteRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Narrows substring searches to the notes that contain every trigram of the term, so the database
+ * only re-checks the LIKE on those rows instead of scanning all of the user's notes. Archived
+ * bodies are indexed too. Terms the index cannot narrow (shorter than three characters, or using
+ * LIKE wildcards) and terms matching too many notes to list fall back to the scan.
+ *
+ * Building a user's index reads every live note and inflates the archived ones, so it never runs
+ * on the request thread: the first search for a user queues the build on the loader pool and
+ * scans, and later searches use the index once it is ready. Changes made while a build is running
+ * are applied to the index being built, and the build skips notes they already touched.
+ *
+ * Indexes carry the user's change sequence they reflect (see {@link VersionedIndex}). A search
+ * first compares it with user_stats, and an index that writes made on another instance have left
+ * behind is dropped and rebuilt while searches scan, so a candidate list never misses a note.
+ */
+@Service
+public class TrigramIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrigramIndexService.class);
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteArchiveService noteArchiveService;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Value("${search.trigram.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.trigram.max-candidates:1000}")
+    private int maxCandidates;
+
+    @Value("${search.trigram.load-page-size:500}")
+    private int loadPageSize;
+
+    private final UserIndexCache<VersionedIndex<TrigramIndex>> indexes;
+    private final ConcurrentMap<Long, Build> building = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor loader;
+
+    public TrigramIndexService(@Value("${search.trigram.max-users:2000}") int maxUsers,
+                               @Value("${search.trigram.loader-threads:2}") int loaderThreads,
+                               @Value("${search.trigram.loader-queue-capacity:100}") int loaderQueueCapacity) {
+        this.indexes = new UserIndexCache<>(maxUsers);
+        this.loader = new ThreadPoolExecutor(loaderThreads, loaderThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(loaderQueueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "trigram-loader");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Ids of the user's live notes whose title or content may contain {@code term}; a superset of
+     * the matches that still needs verifying. {@code null} means the index cannot help, or is not
+     * built and current yet, and the caller should scan.
+     */
+    public long[] candidates(Long userId, String term) {
+        if (!enabled || term.indexOf('%') >= 0 || term.indexOf('_') >= 0 || term.indexOf('\\') >= 0) {
+            return null;
+        }
+        long seq = userStatsService.getChangeSeq(userId);
+        VersionedIndex<TrigramIndex> entry = indexes.get(userId);
+        if (entry == null || entry.version() < seq) {
+            if (entry != null) {
+                indexes.invalidate(userId);
+            }
+            scheduleLoad(userId, seq);
+            return null;
+        }
+        long[] candidates = entry.index().candidates(term);
+        return candidates != null && candidates.length <= maxCandidates ? candidates : null;
+    }
+
+    /** Applies a committed write; {@code seq} is the change sequence number it was recorded under. */
+    public void onNoteSaved(Long userId, Long noteId, String title, String content, long seq) {
+        apply(userId, seq, List.of(noteId), index -> index.put(noteId, title, content));
+    }
+
+    public void onNotesDeleted(Long userId, Collection<Long> noteIds, long seq) {
+        apply(userId, seq, noteIds, index -> noteIds.forEach(index::remove));
+    }
+
+    /** Accounts for a committed write that left every title and body as it was. */
+    public void onContentUnchanged(Long userId, long seq) {
+        apply(userId, seq, List.of(), index -> {
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    private void apply(Long userId, long seq, Collection<Long> noteIds, Consumer<TrigramIndex> change) {
+        // Only maintain indexes that are loaded or being built; others are built from the database on first use
+        indexes.update(userId, entry -> {
+            if (!entry.apply(seq, change)) {
+                indexes.invalidate(userId);
+            }
+        });
+        building.computeIfPresent(userId, (id, build) -> {
+            build.touched.addAll(noteIds);
+            if (!build.entry.apply(seq, change)) {
+                build.stale = true;
+            }
+            return build;
+        });
+    }
+
+    // seq was read before any of the rows the build reads
+    private void scheduleLoad(Long userId, long seq) {
+        Build build = new Build(seq);
+        if (building.putIfAbsent(userId, build) != null) {
+            return;
+        }
+        try {
+            loader.execute(() -> load(userId, build));
+        } catch (RejectedExecutionException e) {
+            // Too many builds queued; a later search asks again
+            building.remove(userId, build);
+        }
+    }
+
+    private void load(Long userId, Build build) {
+        try {
+            long afterId = 0;
+            while (true) {
+                List<Note> page = noteRepository.findLivePageByOwnerId(userId, afterId, PageRequest.of(0, loadPageSize));
+                Map<Long, String> archivedContents = noteArchiveService.contentsOf(page);
+                for (Note note : page) {
+                    String content = archivedContents.getOrDefault(note.getId(), note.getContent());
+                    building.computeIfPresent(userId, (id, current) -> {
+                        // A change seen during the build is newer than this row
+                        if (current == build && !build.touched.contains(note.getId())) {
+                            build.entry.index().put(note.getId(), note.getTitle(), content);
+                        }
+                        return current;
+                    });
+                }
+                if (page.size() < loadPageSize) {
+                    break;
+                }
+                afterId = page.get(page.size() - 1).getId();
+            }
+            building.computeIfPresent(userId, (id, current) -> {
+                // A change numbered past the next one never reached this instance; a later search builds again
+                if (current == build && !build.stale) {
+                    indexes.put(userId, build.entry);
+                }
+                return current;
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Could not build the trigram index for user {}: {}", userId, e.getMessage());
+        } finally {
+            building.remove(userId, build);
+        }
+    }
+
+    // An index being built, with the notes changed since the build started
+    private static final class Build {
+        final VersionedIndex<TrigramIndex> entry;
+        final Set<Long> touched = new HashSet<>();
+        boolean stale;
+
+        Build(long seq) {
+            this.entry = new VersionedIndex<>(new TrigramIndex(), seq);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.notekeeper.dto.AuthResponse;
 import com.notekeeper.entity.User;
 import com.notekeeper.repository.UserRepository;
 import com.notekeeper.security.JwtUtil;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -17,6 +18,7 @@ import org.slf4j.LoggerFactory;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
+import java.util.function.Function;
 
 @Service
 public class UserService {
@@ -38,6 +40,12 @@ public class UserService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     public AuthResponse register(AuthRequest request) {
         logger.info("Starting registration for email: {}", request.getEmail());
         
@@ -53,6 +61,7 @@ public class UserService {
         logger.info("Saving user to database: {}", user.getEmail());
         try {
             User savedUser = userRepository.save(user);
+            userStatsService.initialize(savedUser.getId());
             logger.info("User saved successfully with ID: {}", savedUser.getId());
             return generateAuthResponse(savedUser);
         } catch (Exception e) {
@@ -73,6 +82,39 @@ public class UserService {
         return generateAuthResponse(user);
     }
 
+    public void logout(String token) {
+        Claims claims = parseToken(token);
+        tokenRevocationService.revokeToken(claims.getId(), claims.get("userId", Long.class), claims.getExpiration());
+    }
+
+    public void logoutAllDevices(String token) {
+        Claims claims = parseToken(token);
+        tokenRevocationService.revokeAllForUser(claims.get("userId", Long.class));
+    }
+
+    /** A short-lived token for the SSE and collaboration endpoints, which take it as a URL parameter. */
+    public AuthResponse issueStreamToken(String token) {
+        Claims claims = parseToken(token);
+        String streamToken = jwtUtil.generateStreamToken(claims.getSubject(), claims.get("userId", Long.class));
+        LocalDateTime expiresAt = jwtUtil.extractExpiration(streamToken).toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+        return new AuthResponse(streamToken, claims.getSubject(), claims.get("userId", Long.class), expiresAt);
+    }
+
+    private Claims parseToken(String token) {
+        Claims claims;
+        try {
+            claims = jwtUtil.extractClaim(token, Function.identity());
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid token");
+        }
+        // A stream token seen in a URL must not be able to sign anyone out or mint more tokens
+        if (claims.get("userId", Long.class) == null || JwtUtil.isStreamToken(claims)
+                || tokenRevocationService.isRevoked(claims.getId(), claims.get("userId", Long.class), claims.getIssuedAt())) {
+            throw new RuntimeException("Invalid token");
+        }
+        return claims;
+    }
+
     private AuthResponse generateAuthResponse(User user) {
         String token = jwtUtil.generateToken(user.getEmail(), user.getId());
         Date expiration = jwtUtil.extractExpiration(token);
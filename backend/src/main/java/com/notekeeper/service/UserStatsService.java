@@ -0,0 +1,215 @@
+package com.notekeeper.service;
+
+import com.notekeeper.dto.UserStatsResponse;
+import com.notekeeper.entity.UserStats;
+import com.notekeeper.entity.UserTag;
+import com.notekeeper.index.Collation;
+import com.notekeeper.repository.NoteRepository;
+import com.notekeeper.repository.UserStatsRepository;
+import com.notekeeper.repository.UserTagRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Keeps a per-user counters row (notes, content bytes, distinct tags, last activity) in step
+ * with note writes, so totals and quota checks never need to count the user's notes.
+ *
+ * Changes are applied as relative UPDATEs inside the caller's transaction; the quota check is
+ * part of the same statement, so concurrent writers cannot overshoot a limit. Each change also
+ * bumps the user's change sequence, which in-memory indexes compare against to notice writes
+ * made on other instances.
+ */
+@Service
+public class UserStatsService {
+
+    private static final int MAX_TAG_LENGTH = 255;
+
+    @Autowired
+    private UserStatsRepository statsRepository;
+
+    @Autowired
+    private UserTagRepository tagRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private TagCodec tagCodec;
+
+    @Value("${notes.quota.max-notes:10000}")
+    private long maxNotes;
+
+    @Value("${notes.quota.max-content-bytes:104857600}")
+    private long maxContentBytes;
+
+    /** Records one write to the user's live notes and returns its change sequence number. */
+    @Transactional
+    public long recordChange(Long userId, long noteDelta, long bytesDelta, Map<String, Integer> tagDeltas) {
+        ensureInitialized(userId);
+
+        long tagDelta = 0;
+        for (Map.Entry<String, Integer> entry : fold(tagDeltas).entrySet()) {
+            int delta = entry.getValue();
+            if (delta > 0) {
+                // A concurrent writer may create the same new tag; whoever loses the insert adds to its row
+                if (tagRepository.adjustCount(userId, entry.getKey(), delta) == 0) {
+                    if (tagRepository.insertIfAbsent(userId, entry.getKey(), delta) == 1) {
+                        tagDelta++;
+                    } else {
+                        tagRepository.adjustCount(userId, entry.getKey(), delta);
+                    }
+                }
+            } else if (delta < 0) {
+                tagRepository.adjustCount(userId, entry.getKey(), delta);
+                tagDelta -= tagRepository.deleteIfUnused(userId, entry.getKey());
+            }
+        }
+
+        int updated = statsRepository.applyDelta(userId, noteDelta, bytesDelta, tagDelta,
+                LocalDateTime.now(), maxNotes, maxContentBytes);
+        if (updated == 0) {
+            throw new RuntimeException(noteDelta > 0 && getStats(userId).getNoteCount() + noteDelta > maxNotes
+                    ? "Note quota exceeded (" + maxNotes + " notes)"
+                    : "Storage quota exceeded (" + maxContentBytes + " bytes)");
+        }
+        // The row stays locked until commit, so numbers follow the order writes commit in
+        return statsRepository.findChangeSeq(userId).orElseThrow();
+    }
+
+    /** The number of the user's latest committed change, or 0 before the first one. */
+    public long getChangeSeq(Long userId) {
+        return statsRepository.findChangeSeq(userId).orElse(0L);
+    }
+
+    @Transactional
+    public UserStatsResponse getStats(Long userId) {
+        ensureInitialized(userId);
+        UserStats stats = statsRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("Stats not found"));
+        return new UserStatsResponse(stats.getNoteCount(), stats.getContentBytes(), stats.getTagCount(),
+                stats.getLastActivityAt(), maxNotes, maxContentBytes);
+    }
+
+    @Transactional
+    public long getNoteCount(Long userId) {
+        return getStats(userId).getNoteCount();
+    }
+
+    @Transactional
+    public List<String> getTagNames(Long userId) {
+        ensureInitialized(userId);
+        return tagRepository.findNamesByUserId(userId);
+    }
+
+    @Transactional
+    public boolean hasTag(Long userId, String name) {
+        ensureInitialized(userId);
+        return tagRepository.existsByUserIdAndName(userId, name);
+    }
+
+    /** Changes the stored spelling of a tag after it was renamed to a different case or accents. */
+    @Transactional
+    public void respellTag(Long userId, String name) {
+        tagRepository.respell(userId, name);
+    }
+
+    @Transactional
+    public void initialize(Long userId) {
+        statsRepository.insertIfAbsent(userId, LocalDateTime.now());
+    }
+
+    /**
+     * Builds the tag refcount changes for one note going from {@code oldTags} to {@code newTags},
+     * merging them into {@code into} so deltas for several notes can be applied together.
+     */
+    public static Map<String, Integer> tagDeltas(Collection<String> oldTags, Collection<String> newTags, Map<String, Integer> into) {
+        for (String tag : normalize(oldTags)) {
+            into.merge(tag, -1, Integer::sum);
+        }
+        for (String tag : normalize(newTags)) {
+            into.merge(tag, 1, Integer::sum);
+        }
+        return into;
+    }
+
+    public static Map<String, Integer> tagDeltas(Collection<String> oldTags, Collection<String> newTags) {
+        return tagDeltas(oldTags, newTags, new TreeMap<>(Collation.ORDER));
+    }
+
+    public static int contentBytes(String content) {
+        if (content == null) {
+            return 0;
+        }
+        int bytes = 0;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < content.length() && Character.isLowSurrogate(content.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    // user_tags names are unique under the column's case- and accent-insensitive collation, so
+    // "Work" and "work" are one row; merge their deltas under the first spelling seen
+    private static Map<String, Integer> fold(Map<String, Integer> tagDeltas) {
+        Map<String, Integer> folded = new TreeMap<>(Collation.ORDER);
+        tagDeltas.forEach((name, delta) -> folded.merge(name, delta, Integer::sum));
+        folded.values().removeIf(delta -> delta == 0);
+        return folded;
+    }
+
+    private static Set<String> normalize(Collection<String> tags) {
+        // Tags that differ only in case or accents are one tag to the database
+        Set<String> result = new TreeSet<>(Collation.ORDER);
+        if (tags != null) {
+            for (String tag : tags) {
+                if (tag != null && !tag.isBlank()) {
+                    String trimmed = tag.trim();
+                    result.add(trimmed.length() > MAX_TAG_LENGTH ? trimmed.substring(0, MAX_TAG_LENGTH) : trimmed);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void ensureInitialized(Long userId) {
+        if (statsRepository.existsById(userId)) {
+            return;
+        }
+        // The counters row doubles as the per-user lock: only the request that creates it backfills,
+        // and concurrent first requests wait on the key until that backfill commits
+        if (statsRepository.insertIfAbsent(userId, LocalDateTime.now()) == 0) {
+            return;
+        }
+
+        // One-off backfill for accounts created before counters existed
+        noteRepository.backfillContentSize(userId);
+        Object[] totals = noteRepository.sumLiveContentByOwnerId(userId).get(0);
+
+        Map<String, Integer> tagCounts = new TreeMap<>(Collation.ORDER);
+        for (String json : noteRepository.findLiveTagsByOwnerId(userId)) {
+            tagDeltas(null, tagCodec.decode(json), tagCounts);
+        }
+        tagCounts.forEach((name, count) -> tagRepository.save(new UserTag(userId, name, count)));
+
+        statsRepository.setTotals(userId, ((Number) totals[0]).longValue(), ((Number) totals[1]).longValue(), tagCounts.size());
+    }
+}
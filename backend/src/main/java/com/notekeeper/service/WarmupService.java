@@ -0,0 +1,242 @@
+package com.notekeeper.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notekeeper.dto.AuthRequest;
+import com.notekeeper.dto.NoteRequest;
+import com.notekeeper.dto.NoteResponse;
+import com.notekeeper.entity.User;
+import com.notekeeper.repository.UserRepository;
+import com.notekeeper.security.JwtUtil;
+import com.zaxxer.hikari.HikariDataSource;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Exercises the hot read paths before the instance reports ready, so the first real requests
+ * after a deploy do not pay for JIT compilation, Hibernate query plan caching, Jackson serializer
+ * lookup and connection setup.
+ *
+ * Once the application has started, the connection pool is filled to its minimum idle size and
+ * then rounds of token issue and parse, note listing, tag filtering, search and response
+ * serialization run against a dedicated warmup account. The account and its sample notes are
+ * created on first start; after that every call is a read. Readiness flips once the median round
+ * time of the last {@code warmup.window} rounds is within {@code warmup.tolerance} of the window
+ * before it, or when the round or time budget runs out, so a slow database never keeps the
+ * instance out of rotation for good.
+ */
+@Service
+public class WarmupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupService.class);
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warmup.tenant-email:warmup@notekeeper.invalid}")
+    private String tenantEmail;
+
+    @Value("${warmup.min-rounds:20}")
+    private int minRounds;
+
+    @Value("${warmup.max-rounds:2000}")
+    private int maxRounds;
+
+    @Value("${warmup.max-duration-ms:60000}")
+    private long maxDurationMs;
+
+    @Value("${warmup.window:10}")
+    private int window;
+
+    @Value("${warmup.tolerance:0.1}")
+    private double tolerance;
+
+    private volatile boolean ready;
+    private volatile int rounds;
+    private volatile long lastRoundMicros;
+    private volatile long durationMs;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpInBackground() {
+        if (!enabled) {
+            ready = true;
+            return;
+        }
+        Thread thread = new Thread(this::warmUp, "warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public long getLastRoundMicros() {
+        return lastRoundMicros;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    private void warmUp() {
+        long start = System.nanoTime();
+        try {
+            fillConnectionPool();
+            User tenant = findOrCreateTenant();
+
+            List<Long> roundMicros = new ArrayList<>();
+            boolean converged = false;
+            while (rounds < maxRounds && (System.nanoTime() - start) / 1_000_000 < maxDurationMs) {
+                long roundStart = System.nanoTime();
+                runRound(tenant);
+                long micros = (System.nanoTime() - roundStart) / 1_000;
+                roundMicros.add(micros);
+                lastRoundMicros = micros;
+                rounds++;
+                if (rounds >= minRounds && hasConverged(roundMicros)) {
+                    converged = true;
+                    break;
+                }
+            }
+
+            durationMs = (System.nanoTime() - start) / 1_000_000;
+            if (converged) {
+                logger.info("Warmup converged after {} rounds in {} ms (last round {} us)", rounds, durationMs, lastRoundMicros);
+            } else {
+                logger.warn("Warmup stopped after {} rounds in {} ms without converging (last round {} us)",
+                        rounds, durationMs, lastRoundMicros);
+            }
+        } catch (Exception e) {
+            durationMs = (System.nanoTime() - start) / 1_000_000;
+            logger.error("Warmup failed after {} rounds: {}", rounds, e.getMessage(), e);
+        } finally {
+            // Serving cold beats not serving at all
+            ready = true;
+        }
+    }
+
+    private void runRound(User tenant) throws Exception {
+        // Token issue and the same parse, revocation check and user load as JwtAuthenticationFilter
+        String token = jwtUtil.generateToken(tenant.getEmail(), tenant.getId());
+        Claims claims = jwtUtil.extractClaim(token, Function.identity());
+        tokenRevocationService.isRevoked(claims.getId(), claims.get("userId", Long.class), claims.getIssuedAt());
+        jwtUtil.validateToken(token, userDetailsService.loadUserByUsername(claims.getSubject()));
+        Long userId = jwtUtil.extractUserId(token);
+
+        PageRequest page = PageRequest.of(0, 10);
+        serialize(noteService.getAllNotesByUser(userId, page));
+        serialize(noteService.searchNotes(userId, null, "warmup", page, false));
+        serialize(noteService.searchNotes(userId, "warmup", page, true));
+        serialize(noteService.getTrash(userId, page));
+        objectMapper.writeValueAsBytes(noteService.getTagsByUserId(userId));
+    }
+
+    private void serialize(Page<NoteResponse> page) throws Exception {
+        // Through the application's ObjectMapper, so MVC's serializers are the ones warmed
+        objectMapper.writeValueAsBytes(page);
+        for (NoteResponse note : page.getContent()) {
+            objectMapper.writeValueAsBytes(note);
+        }
+    }
+
+    private User findOrCreateTenant() {
+        return userRepository.findByEmail(tenantEmail).orElseGet(() -> {
+            // Unguessable password: nobody signs in as this account, it only gives warmup real rows to read
+            AuthRequest request = new AuthRequest();
+            request.setEmail(tenantEmail);
+            request.setPassword(UUID.randomUUID().toString());
+            userService.register(request);
+            User tenant = userService.findByEmail(tenantEmail);
+
+            for (int i = 1; i <= 3; i++) {
+                NoteRequest note = new NoteRequest();
+                note.setTitle("Warmup note " + i);
+                note.setContent("Sample content for warmup note " + i + ", linking to [[Warmup note " + (i % 3 + 1) + "]].");
+                note.setTags(Arrays.asList("warmup", "sample-" + i));
+                noteService.createNote(note, tenant.getId());
+            }
+            logger.info("Created warmup account {}", tenantEmail);
+            return tenant;
+        });
+    }
+
+    private void fillConnectionPool() throws SQLException {
+        // The pool sits behind the circuit breaker's wrapper
+        int target = dataSource.isWrapperFor(HikariDataSource.class)
+                ? dataSource.unwrap(HikariDataSource.class).getMinimumIdle() : 1;
+        List<Connection> held = new ArrayList<>(target);
+        try {
+            // Holding each connection forces the next borrow to open a new one
+            for (int i = 0; i < target; i++) {
+                Connection connection = dataSource.getConnection();
+                held.add(connection);
+                connection.isValid(1);
+            }
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+        logger.debug("Connection pool filled with {} connections", held.size());
+    }
+
+    private boolean hasConverged(List<Long> roundMicros) {
+        int size = roundMicros.size();
+        if (size < 2 * window) {
+            return false;
+        }
+        long previous = median(roundMicros.subList(size - 2 * window, size - window));
+        long current = median(roundMicros.subList(size - window, size));
+        return Math.abs(current - previous) <= tolerance * previous;
+    }
+
+    private static long median(List<Long> values) {
+        long[] sorted = values.stream().mapToLong(Long::longValue).sorted().toArray();
+        return sorted[sorted.length / 2];
+    }
+}
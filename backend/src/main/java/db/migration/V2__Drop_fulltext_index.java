@@ -0,0 +1,44 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * Drops the FULLTEXT index database/init.sql created on notes. Search runs LIKE scans and never
+ * used it, so it only slowed down every write of a note body. Databases created by V1 never had
+ * it, and MySQL has no DROP INDEX IF EXISTS, so the index is looked up in the catalog first.
+ */
+public class V2__Drop_fulltext_index extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        if (hasIndex(connection, "notes", "idx_search")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER TABLE notes DROP INDEX idx_search");
+            }
+        }
+    }
+
+    // Unquoted names are stored lower case by MySQL on most platforms and upper case by others
+    private static boolean hasIndex(Connection connection, String table, String index) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        for (String name : new String[] {table, table.toUpperCase(Locale.ROOT)}) {
+            try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), null, name, false, false)) {
+                while (indexes.next()) {
+                    if (index.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
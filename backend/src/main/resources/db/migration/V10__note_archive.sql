@@ -0,0 +1,16 @@
+-- Cold tier: bodies of notes untouched for a long time move out of notes, deflate-compressed.
+-- The notes row stays (title, tags, counters, links all keep working) with content NULL and
+-- archived_at set until the note is edited again.
+ALTER TABLE notes ADD COLUMN archived_at TIMESTAMP NULL;
+
+-- Finds archive candidates oldest first without scanning the table
+CREATE INDEX idx_notes_archive_candidates ON notes (archived_at, deleted_at, updated_at);
+
+CREATE TABLE note_archive (
+    note_id BIGINT PRIMARY KEY,
+    owner_id BIGINT NOT NULL,
+    content LONGBLOB NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (note_id) REFERENCES notes(id) ON DELETE CASCADE,
+    INDEX idx_note_archive_owner_note (owner_id, note_id)
+);
@@ -0,0 +1,8 @@
+-- MinHash signatures (64 ints, big-endian) for related-note and near-duplicate lookups
+CREATE TABLE note_signatures (
+    note_id BIGINT PRIMARY KEY,
+    owner_id BIGINT NOT NULL,
+    signature VARBINARY(256) NOT NULL,
+    FOREIGN KEY (note_id) REFERENCES notes(id) ON DELETE CASCADE,
+    INDEX idx_note_signatures_owner (owner_id)
+);
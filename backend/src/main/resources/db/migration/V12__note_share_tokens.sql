@@ -0,0 +1,5 @@
+-- Public read-only share links: a random token per shared note, NULL when not shared.
+-- Revoking clears it; sharing again issues a new token so old links stay dead.
+ALTER TABLE notes ADD COLUMN share_token VARCHAR(64) NULL;
+
+CREATE UNIQUE INDEX idx_notes_share_token ON notes (share_token);
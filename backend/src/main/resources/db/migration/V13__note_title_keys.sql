@@ -0,0 +1,8 @@
+-- Normalised titles (trimmed, lower-cased) that [[links]] resolve against, so finding link targets
+-- is an index lookup instead of LOWER(TRIM(title)) over every note the user owns. Titles whose
+-- key is longer than a link target can be stay NULL.
+ALTER TABLE notes ADD COLUMN title_key VARCHAR(255) NULL;
+
+UPDATE notes SET title_key = LOWER(TRIM(title)) WHERE CHAR_LENGTH(TRIM(title)) <= 255;
+
+CREATE INDEX idx_notes_owner_title_key ON notes (owner_id, title_key);
@@ -0,0 +1,2 @@
+-- Outbox ids a subscriber read past before they committed, looked for again until they time out
+ALTER TABLE outbox_checkpoints ADD COLUMN pending_gaps TEXT NULL;
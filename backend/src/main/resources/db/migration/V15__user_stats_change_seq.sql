@@ -0,0 +1,3 @@
+-- Number of the user's latest write to live notes, bumped with the counters; in-memory indexes
+-- compare it with the version they were built at to notice writes made on other instances
+ALTER TABLE user_stats ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
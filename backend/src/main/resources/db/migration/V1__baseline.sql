@@ -1,11 +1,8 @@
--- NoteKeeper Database Initialization Script
--- MySQL 8.0+
+-- Baseline schema: the tables as they stood before migrations were versioned, i.e. as created by
+-- the original database/init.sql plus the notes.password column Hibernate added to them.
+-- Existing databases are baselined at this version and skip it. The FULLTEXT index from init.sql
+-- is not created: search runs LIKE scans and never used it, and V2 drops it where it exists.
 
--- Create database
-CREATE DATABASE IF NOT EXISTS notekeeper;
-USE notekeeper;
-
--- Create users table
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     email VARCHAR(255) NOT NULL UNIQUE,
@@ -15,7 +12,6 @@ CREATE TABLE IF NOT EXISTS users (
     INDEX idx_email (email)
 );
 
--- Create notes table
 CREATE TABLE IF NOT EXISTS notes (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     title VARCHAR(500) NOT NULL,
@@ -23,22 +19,11 @@ CREATE TABLE IF NOT EXISTS notes (
     tags JSON,
     owner_id BIGINT NOT NULL,
     is_private BOOLEAN DEFAULT FALSE,
+    password VARCHAR(255),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (owner_id) REFERENCES users(id) ON DELETE CASCADE,
     INDEX idx_owner_id (owner_id),
     INDEX idx_created_at (created_at),
-    INDEX idx_updated_at (updated_at),
-    FULLTEXT idx_search (title, content)
+    INDEX idx_updated_at (updated_at)
 );
-
--- Create user for application (optional - for development)
--- CREATE USER IF NOT EXISTS 'notekeeper'@'localhost' IDENTIFIED BY 'password';
--- GRANT ALL PRIVILEGES ON notekeeper.* TO 'notekeeper'@'localhost';
--- FLUSH PRIVILEGES;
-
--- Insert sample data (optional - for testing)
-INSERT INTO users (email, password) VALUES 
-('demo@notekeeper.com', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2.uheWG/igi'); -- password: password
-
--- No default notes
@@ -0,0 +1,8 @@
+-- Per-note counters and state: content size in bytes (backfilled per user on first use), a version
+-- bumped by every write for optimistic concurrency, and the soft-delete time of notes in the trash.
+ALTER TABLE notes ADD COLUMN content_size INT NOT NULL DEFAULT 0;
+ALTER TABLE notes ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE notes ADD COLUMN deleted_at TIMESTAMP NULL;
+
+-- The purge finds expired trash by deletion time across all users
+CREATE INDEX idx_deleted_at ON notes (deleted_at);
@@ -0,0 +1,18 @@
+-- Per-user counters kept in step with note writes, and the distinct tags with their note counts.
+CREATE TABLE user_stats (
+    user_id BIGINT PRIMARY KEY,
+    note_count BIGINT NOT NULL DEFAULT 0,
+    content_bytes BIGINT NOT NULL DEFAULT 0,
+    tag_count BIGINT NOT NULL DEFAULT 0,
+    last_activity_at TIMESTAMP NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE TABLE user_tags (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    note_count BIGINT NOT NULL DEFAULT 0,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_user_tags_user_name (user_id, name)
+);
@@ -0,0 +1,10 @@
+-- [[Wiki links]] from a note to the title key they point at, for backlinks and the link graph.
+CREATE TABLE note_links (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    owner_id BIGINT NOT NULL,
+    source_id BIGINT NOT NULL,
+    target_key VARCHAR(255) NOT NULL,
+    FOREIGN KEY (source_id) REFERENCES notes(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_note_links_source_target (source_id, target_key),
+    INDEX idx_note_links_owner_target (owner_id, target_key)
+);
@@ -0,0 +1,15 @@
+-- Transactional outbox of note changes and each in-process subscriber's delivery checkpoint.
+CREATE TABLE note_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    owner_id BIGINT NOT NULL,
+    note_id BIGINT NOT NULL,
+    type VARCHAR(16) NOT NULL,
+    note_version BIGINT,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE outbox_checkpoints (
+    subscriber VARCHAR(100) PRIMARY KEY,
+    last_event_id BIGINT NOT NULL,
+    updated_at TIMESTAMP NULL
+);
@@ -0,0 +1,21 @@
+-- Composite indexes for the hot note and attachment queries.
+
+-- Live list, trash, search and per-user scans all filter on owner_id and the live/trash split
+-- and sort on updated_at (live) or deleted_at (trash), so one index serves them without a filesort
+CREATE INDEX idx_notes_owner_deleted_updated ON notes (owner_id, deleted_at, updated_at);
+
+-- Superseded by the index above, which also backs the owner_id foreign key; nothing filters or
+-- sorts on created_at or updated_at alone
+DROP INDEX idx_owner_id ON notes;
+DROP INDEX idx_created_at ON notes;
+DROP INDEX idx_updated_at ON notes;
+
+-- A note's attachments are listed in upload order
+CREATE INDEX idx_attachments_owner_note_created ON attachments (owner_id, note_id, created_at);
+DROP INDEX idx_attachments_owner_note ON attachments;
+
+-- Attachments are looked up by note when notes are purged
+CREATE INDEX idx_attachments_note ON attachments (note_id);
+
+-- Expired upload sessions are swept by last activity
+CREATE INDEX idx_attachment_uploads_updated ON attachment_uploads (updated_at);
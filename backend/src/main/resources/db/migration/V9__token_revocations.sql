@@ -0,0 +1,14 @@
+-- Revoked tokens (jti set) and per-user "not before" cut-offs (jti null). Rows only matter until
+-- every token they could match has expired, after which they are pruned.
+CREATE TABLE token_revocations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    jti VARCHAR(36),
+    not_before TIMESTAMP NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_token_revocations_jti (jti),
+    INDEX idx_token_revocations_user_not_before (user_id, not_before),
+    INDEX idx_token_revocations_expires (expires_at)
+);
@@ -0,0 +1,98 @@
+package com.notekeeper.collab;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TextOperationTest {
+
+    @Test
+    void concurrentInsertsAtSamePositionConvergeWithFirstOperandFirst() {
+        String doc = "abc";
+        TextOperation a = new TextOperation().retain(1).insert("X").retain(2);
+        TextOperation b = new TextOperation().retain(1).insert("Y").retain(2);
+
+        TextOperation[] primes = TextOperation.transform(a, b);
+
+        String ab = primes[1].apply(a.apply(doc));
+        String ba = primes[0].apply(b.apply(doc));
+        assertThat(ab).isEqualTo(ba).isEqualTo("aXYbc");
+    }
+
+    @Test
+    void overlappingDeletesRemoveTheUnionOnce() {
+        String doc = "abcdef";
+        TextOperation a = new TextOperation().retain(1).delete(3).retain(2);
+        TextOperation b = new TextOperation().retain(2).delete(3).retain(1);
+
+        TextOperation[] primes = TextOperation.transform(a, b);
+
+        String ab = primes[1].apply(a.apply(doc));
+        String ba = primes[0].apply(b.apply(doc));
+        assertThat(ab).isEqualTo(ba).isEqualTo("af");
+    }
+
+    @Test
+    void insertInsideConcurrentlyDeletedRangeSurvives() {
+        String doc = "abcdef";
+        TextOperation a = new TextOperation().retain(3).insert("XY").retain(3);
+        TextOperation b = new TextOperation().retain(1).delete(4).retain(1);
+
+        TextOperation[] primes = TextOperation.transform(a, b);
+
+        String ab = primes[1].apply(a.apply(doc));
+        String ba = primes[0].apply(b.apply(doc));
+        assertThat(ab).isEqualTo(ba).isEqualTo("aXYf");
+    }
+
+    @Test
+    void rebaseAcrossHistoryMatchesApplyingInOrder() {
+        CollabDocument document = new CollabDocument(1L, 1L, "hello world", 0);
+        int clientRevision = document.revision;
+
+        // Two other clients' edits land first
+        TextOperation first = new TextOperation().insert(">> ").retain(11);
+        document.content = first.apply(document.content);
+        document.record(first, 10);
+        TextOperation second = new TextOperation().retain(9).delete(5).insert("there");
+        document.content = second.apply(document.content);
+        document.record(second, 10);
+        assertThat(document.content).isEqualTo(">> hello there");
+
+        // The late client replaced "world" with "WORLD!" against revision 0
+        TextOperation late = new TextOperation().retain(6).delete(5).insert("WORLD!");
+        assertThat(document.canTransformFrom(clientRevision)).isTrue();
+        TextOperation rebased = document.rebase(late, clientRevision);
+
+        assertThat(rebased.getBaseLength()).isEqualTo(document.content.length());
+        assertThat(rebased.apply(document.content)).isEqualTo(">> hello WORLD!there");
+    }
+
+    @Test
+    void historyBeyondLimitCannotBeRebased() {
+        CollabDocument document = new CollabDocument(1L, 1L, "", 0);
+        for (int i = 0; i < 3; i++) {
+            TextOperation op = new TextOperation().retain(document.content.length()).insert("x");
+            document.content = op.apply(document.content);
+            document.record(op, 2);
+        }
+
+        assertThat(document.canTransformFrom(0)).isFalse();
+        assertThat(document.canTransformFrom(1)).isTrue();
+    }
+
+    @Test
+    void jsonRoundTripAndLengthChecks() {
+        TextOperation op = TextOperation.fromJson(List.of(2, "hi", -1, 1));
+
+        assertThat(op.toJson()).containsExactly(2, "hi", -1, 1);
+        assertThat(op.getBaseLength()).isEqualTo(4);
+        assertThat(op.getTargetLength()).isEqualTo(5);
+        assertThat(op.apply("abcd")).isEqualTo("abhid");
+        assertThatThrownBy(() -> op.apply("abc")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TextOperation.fromJson(List.of(0))).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,144 @@
+package com.notekeeper.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoaringBitmapTest {
+
+    // Containers switch from a sorted array to a bitmap above this many values per 65536-value chunk
+    private static final int ARRAY_MAX = 4096;
+
+    @Test
+    void chunkGrowsFromArrayToBitmapAndShrinksBack() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int i = 0; i < ARRAY_MAX; i++) {
+            bitmap.add(i * 2);
+        }
+        assertThat(bitmap.cardinality()).isEqualTo(ARRAY_MAX);
+
+        bitmap.add(1);
+        assertThat(bitmap.cardinality()).isEqualTo(ARRAY_MAX + 1);
+        assertThat(bitmap.contains(1)).isTrue();
+        assertThat(bitmap.contains(3)).isFalse();
+        assertThat(bitmap.contains((ARRAY_MAX - 1) * 2)).isTrue();
+
+        bitmap.remove(1);
+        bitmap.remove(0);
+        assertThat(bitmap.cardinality()).isEqualTo(ARRAY_MAX - 1);
+        assertThat(bitmap.contains(0)).isFalse();
+        assertThat(bitmap.descending(0, 3)).containsExactly((ARRAY_MAX - 1) * 2, (ARRAY_MAX - 2) * 2, (ARRAY_MAX - 3) * 2);
+
+        for (int i = 1; i < ARRAY_MAX; i++) {
+            bitmap.remove(i * 2);
+        }
+        assertThat(bitmap.isEmpty()).isTrue();
+    }
+
+    @Test
+    void addAndRemoveAreIdempotent() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        bitmap.add(70000);
+        bitmap.add(70000);
+        bitmap.remove(5);
+        assertThat(bitmap.cardinality()).isEqualTo(1);
+        bitmap.remove(70000);
+        bitmap.remove(70000);
+        assertThat(bitmap.isEmpty()).isTrue();
+    }
+
+    @Test
+    void rejectsNegativeValues() {
+        assertThatThrownBy(() -> new RoaringBitmap().add(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void setOperationsMatchReferenceAcrossContainerKinds() {
+        Random random = new Random(42);
+        // Dense and sparse chunks on both sides so array/array, array/bitmap and bitmap/bitmap all meet
+        int[][] densities = { { 100, 100 }, { 6000, 100 }, { 100, 6000 }, { 6000, 6000 }, { 3000, 3000 }, { 0, 500 } };
+        for (int[] density : densities) {
+            TreeSet<Integer> left = new TreeSet<>();
+            TreeSet<Integer> right = new TreeSet<>();
+            RoaringBitmap a = fill(random, density[0], left);
+            RoaringBitmap b = fill(random, density[1], right);
+
+            TreeSet<Integer> and = new TreeSet<>(left);
+            and.retainAll(right);
+            TreeSet<Integer> or = new TreeSet<>(left);
+            or.addAll(right);
+            TreeSet<Integer> andNot = new TreeSet<>(left);
+            andNot.removeAll(right);
+
+            assertMatches(a.and(b), and);
+            assertMatches(a.or(b), or);
+            assertMatches(a.andNot(b), andNot);
+            // Operands are left untouched
+            assertMatches(a, left);
+            assertMatches(b, right);
+        }
+    }
+
+    @Test
+    void andNotOfDenseChunksCanDropBackToArray() {
+        RoaringBitmap a = new RoaringBitmap();
+        RoaringBitmap b = new RoaringBitmap();
+        for (int i = 0; i < 10000; i++) {
+            a.add(i);
+            if (i >= 10) {
+                b.add(i);
+            }
+        }
+        RoaringBitmap result = a.andNot(b);
+        assertThat(result.cardinality()).isEqualTo(10);
+        assertThat(result.descending(0, 20)).containsExactly(9, 8, 7, 6, 5, 4, 3, 2, 1, 0);
+
+        result.add(50000);
+        assertThat(result.cardinality()).isEqualTo(11);
+    }
+
+    @Test
+    void descendingPagesSkipWholeChunks() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        TreeSet<Integer> reference = new TreeSet<>(Comparator.reverseOrder());
+        for (int chunk = 0; chunk < 4; chunk++) {
+            for (int i = 0; i < (chunk % 2 == 0 ? 5000 : 20); i++) {
+                int value = (chunk << 16) + i * 3;
+                bitmap.add(value);
+                reference.add(value);
+            }
+        }
+        int[] all = reference.stream().mapToInt(Integer::intValue).toArray();
+        for (int offset : new int[] { 0, 19, 20, 5019, 5020, 10030, all.length - 1, all.length, all.length + 5 }) {
+            int from = Math.min(offset, all.length);
+            int to = Math.min(from + 25, all.length);
+            assertThat(bitmap.descending(offset, 25)).containsExactly(java.util.Arrays.copyOfRange(all, from, to));
+        }
+    }
+
+    private static RoaringBitmap fill(Random random, int perChunk, TreeSet<Integer> reference) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int chunk = 0; chunk < 3; chunk++) {
+            for (int i = 0; i < perChunk; i++) {
+                int value = (chunk << 16) | random.nextInt(1 << 16);
+                bitmap.add(value);
+                reference.add(value);
+            }
+        }
+        return bitmap;
+    }
+
+    private static void assertMatches(RoaringBitmap bitmap, TreeSet<Integer> expected) {
+        assertThat(bitmap.cardinality()).isEqualTo(expected.size());
+        int[] descending = expected.descendingSet().stream().mapToInt(Integer::intValue).toArray();
+        assertThat(bitmap.descending(0, Math.max(1, expected.size()))).containsExactly(descending);
+        for (int value : expected) {
+            assertThat(bitmap.contains(value)).isTrue();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.notekeeper.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TagExpressionTest {
+
+    // Notes 1-8, each tagged with the bits of its id: a = 1, b = 2, c = 4, plus a few named tags
+    private final Map<String, RoaringBitmap> tags = new HashMap<>();
+    private final RoaringBitmap all = new RoaringBitmap();
+
+    TagExpressionTest() {
+        for (int note = 1; note <= 8; note++) {
+            all.add(note);
+            if ((note & 1) != 0) {
+                tag("a", note);
+            }
+            if ((note & 2) != 0) {
+                tag("b", note);
+            }
+            if ((note & 4) != 0) {
+                tag("c", note);
+            }
+        }
+        tag("two words", 8);
+        tag("and", 7);
+        tag("to-do", 6);
+        tag("cafe", 5);
+    }
+
+    @Test
+    void andBindsTighterThanOr() {
+        assertThat(eval("a OR b AND c")).containsExactly(7, 6, 5, 3, 1);
+        assertThat(eval("a | b & c")).containsExactly(7, 6, 5, 3, 1);
+        assertThat(eval("(a OR b) AND c")).containsExactly(7, 6, 5);
+    }
+
+    @Test
+    void adjacentTermsAreAnded() {
+        assertThat(eval("a b")).isEqualTo(eval("a AND b")).containsExactly(7, 3);
+        assertThat(eval("a b OR c")).containsExactly(7, 6, 5, 4, 3);
+    }
+
+    @Test
+    void notBindsToTheNextTermOnly() {
+        assertThat(eval("NOT a b")).containsExactly(6, 2);
+        assertThat(eval("!a b")).isEqualTo(eval("-a b"));
+        assertThat(eval("NOT (a OR b)")).containsExactly(8, 4);
+        assertThat(eval("NOT NOT a")).isEqualTo(eval("a"));
+        assertThat(eval("c NOT a NOT b")).containsExactly(4);
+    }
+
+    @Test
+    void lowerCaseKeywordsQuotesAndHyphensAreTags() {
+        assertThat(eval("and")).containsExactly(7);
+        assertThat(eval("\"two words\"")).containsExactly(8);
+        assertThat(eval("\"OR\"")).isEmpty();
+        assertThat(eval("to-do")).containsExactly(6);
+        assertThat(eval("A")).isEqualTo(eval("a"));
+        assertThat(eval("missing OR c")).isEqualTo(eval("c"));
+    }
+
+    @Test
+    void termsFoldLikeUserTags() {
+        assertThat(eval("Café")).containsExactly(5);
+        assertThat(eval("\"CAFÉ\"")).containsExactly(5);
+    }
+
+    @Test
+    void rejectsMalformedExpressions() {
+        assertInvalid("(a OR b", "Missing ')'");
+        assertInvalid("a OR", "ends unexpectedly");
+        assertInvalid("a)", "Unexpected ')'");
+        assertInvalid("AND a", "Unexpected 'AND'");
+        assertInvalid("a OR OR b", "Unexpected 'OR'");
+        assertInvalid("\"open", "Unterminated quote");
+        assertInvalid("", "ends unexpectedly");
+        assertInvalid("t ".repeat(33), "more than 32 terms");
+    }
+
+    private int[] eval(String expression) {
+        RoaringBitmap result = TagExpression.parse(expression).evaluate(tags::get, all);
+        return result.descending(0, 100);
+    }
+
+    private void tag(String name, int note) {
+        tags.computeIfAbsent(name, n -> new RoaringBitmap()).add(note);
+    }
+
+    private static void assertInvalid(String expression, String message) {
+        assertThatThrownBy(() -> TagExpression.parse(expression))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(message);
+    }
+}
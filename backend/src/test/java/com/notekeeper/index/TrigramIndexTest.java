@@ -0,0 +1,37 @@
+package com.notekeeper.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    @Test
+    void candidatesAreFoldedLikeTheCollation() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "Café notes", null);
+        index.put(2, "Straße", "ÜBER alles");
+        index.put(3, "plain", "nothing here");
+
+        assertThat(index.candidates("CAFE")).containsExactly(1);
+        assertThat(index.candidates("strasse")).containsExactly(2);
+        assertThat(index.candidates("über")).containsExactly(2);
+        assertThat(index.candidates("uber")).containsExactly(2);
+        assertThat(index.candidates("missing")).isEmpty();
+        assertThat(index.candidates("ab")).isNull();
+    }
+
+    @Test
+    void replacedAndRemovedNotesLeaveNoCandidates() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "first", "apple pie");
+        index.put(2, "second", "apple tart");
+
+        index.put(1, "first", "pear pie");
+        index.remove(2);
+
+        assertThat(index.candidates("apple")).isEmpty();
+        assertThat(index.candidates("pear")).containsExactly(1);
+        assertThat(index.size()).isEqualTo(1);
+    }
+}
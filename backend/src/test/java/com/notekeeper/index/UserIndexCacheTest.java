@@ -0,0 +1,66 @@
+package com.notekeeper.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserIndexCacheTest {
+
+    @Test
+    void evictsTheLeastRecentlyUsedUser() {
+        UserIndexCache<String> cache = new UserIndexCache<>(2);
+        cache.getOrLoad(1L, id -> "one");
+        cache.getOrLoad(2L, id -> "two");
+        cache.getOrLoad(1L, id -> "reloaded");
+        cache.getOrLoad(3L, id -> "three");
+
+        assertThat(cache.get(1L)).isEqualTo("one");
+        assertThat(cache.get(2L)).isNull();
+        assertThat(cache.get(3L)).isEqualTo("three");
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void loadsOnceAndAppliesChangesToTheCachedIndex() {
+        UserIndexCache<List<String>> cache = new UserIndexCache<>(10);
+        AtomicInteger loads = new AtomicInteger();
+        cache.getOrLoad(1L, id -> {
+            loads.incrementAndGet();
+            return new ArrayList<>(List.of("a"));
+        });
+        cache.update(1L, index -> index.add("b"));
+        cache.update(2L, index -> index.add("never loaded"));
+
+        assertThat(cache.getOrLoad(1L, id -> List.of())).containsExactly("a", "b");
+        assertThat(cache.get(2L)).isNull();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void loadOverlappingAChangeIsReturnedButNotKept() {
+        UserIndexCache<String> cache = new UserIndexCache<>(10);
+        String loaded = cache.getOrLoad(1L, id -> {
+            cache.update(1L, index -> {
+            });
+            return "possibly stale";
+        });
+
+        assertThat(loaded).isEqualTo("possibly stale");
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.getOrLoad(1L, id -> "fresh")).isEqualTo("fresh");
+        assertThat(cache.get(1L)).isEqualTo("fresh");
+    }
+
+    @Test
+    void invalidateDropsTheIndex() {
+        UserIndexCache<String> cache = new UserIndexCache<>(10);
+        cache.getOrLoad(1L, id -> "one");
+        cache.invalidate(1L);
+
+        assertThat(cache.get(1L)).isNull();
+    }
+}
@@ -0,0 +1,33 @@
+package com.notekeeper.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionedIndexTest {
+
+    @Test
+    void appliesTheNextChangeAndSkipsOnesAlreadyBuiltIn() {
+        VersionedIndex<List<String>> entry = new VersionedIndex<>(new ArrayList<>(List.of("built")), 5);
+
+        assertThat(entry.apply(4, index -> index.add("older"))).isTrue();
+        assertThat(entry.apply(5, index -> index.add("same"))).isTrue();
+        assertThat(entry.apply(6, index -> index.add("next"))).isTrue();
+
+        assertThat(entry.index()).containsExactly("built", "next");
+        assertThat(entry.version()).isEqualTo(6);
+    }
+
+    @Test
+    void reportsAGapWithoutApplyingIt() {
+        VersionedIndex<List<String>> entry = new VersionedIndex<>(new ArrayList<>(), 5);
+
+        assertThat(entry.apply(7, index -> index.add("after a missed change"))).isFalse();
+
+        assertThat(entry.index()).isEmpty();
+        assertThat(entry.version()).isEqualTo(5);
+    }
+}
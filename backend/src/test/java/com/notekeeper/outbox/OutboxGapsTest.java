@@ -0,0 +1,64 @@
+package com.notekeeper.outbox;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxGapsTest {
+
+    @Test
+    void lateCommitSplitsItsRange() {
+        OutboxGaps gaps = new OutboxGaps();
+        gaps.add(10, 14, 1000);
+
+        gaps.remove(12);
+
+        assertThat(gaps.contains(11)).isTrue();
+        assertThat(gaps.contains(12)).isFalse();
+        assertThat(gaps.contains(13)).isTrue();
+        assertThat(gaps.first()).isEqualTo(10);
+        assertThat(gaps.last()).isEqualTo(14);
+    }
+
+    @Test
+    void rangesExpireByTheTimeTheyWereFirstSkipped() {
+        OutboxGaps gaps = new OutboxGaps();
+        gaps.add(1, 3, 1000);
+        gaps.add(7, 7, 5000);
+
+        assertThat(gaps.expire(2000)).isEqualTo(3);
+
+        assertThat(gaps.contains(2)).isFalse();
+        assertThat(gaps.contains(7)).isTrue();
+        assertThat(gaps.expire(6000)).isEqualTo(1);
+        assertThat(gaps.isEmpty()).isTrue();
+    }
+
+    @Test
+    void roundTripsThroughCheckpointText() {
+        OutboxGaps gaps = new OutboxGaps();
+        gaps.add(5, 6, 100);
+        gaps.add(9, 9, 200);
+        gaps.add(4, 3, 300);
+
+        String text = gaps.toString();
+        OutboxGaps parsed = OutboxGaps.parse(text);
+
+        assertThat(text).isEqualTo("5-6@100;9-9@200");
+        assertThat(parsed.toString()).isEqualTo(text);
+        assertThat(OutboxGaps.parse("garbage;1-2@x;3-4@5").toString()).isEqualTo("3-4@5");
+        assertThat(OutboxGaps.parse(null).isEmpty()).isTrue();
+    }
+
+    @Test
+    void limitDropsOldestIds() {
+        OutboxGaps gaps = new OutboxGaps();
+        gaps.add(1, 1, 0);
+        gaps.add(3, 3, 0);
+        gaps.add(5, 5, 0);
+
+        gaps.limit(2);
+
+        assertThat(gaps.toString()).isEqualTo("3-3@0;5-5@0");
+    }
+}
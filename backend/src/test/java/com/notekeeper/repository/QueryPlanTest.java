@@ -0,0 +1,430 @@
+package com.notekeeper.repository;
+
+import com.notekeeper.search.SearchCancellation;
+import com.notekeeper.service.NoteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the hot repository queries against an H2 database built by the Flyway migrations and
+ * seeded with a few thousand rows, captures the SQL and bind values each one actually issues, and
+ * EXPLAINs it. A plan that reads a whole table fails the build, and so does an ORDER BY that the
+ * chosen index does not already return rows in, i.e. a filesort.
+ *
+ * H2 itself only reports an index-ordered read when the ORDER BY columns start the index, so the
+ * sort check also accepts an index whose leading columns are all pinned by equality (or IS NULL)
+ * conditions and whose next columns are the ORDER BY columns, which is the case MySQL reads in
+ * index order too.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:plans;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.flyway.enabled=true"
+})
+@Import({NoteSearchRepository.class, H2MigrationConfig.class, QueryPlanTest.CaptureConfig.class})
+class QueryPlanTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private static final Pattern INDEX_COMMENT = Pattern.compile("/\\* PUBLIC\\.(\\w+): (.*?)\\*/", Pattern.DOTALL);
+    private static final Pattern PINNED = Pattern.compile("(\\w+) (= |IS NULL)");
+    private static final Pattern QUOTED = Pattern.compile("\"(\\w+)\"\\s*(ASC|DESC)?\\s*$");
+
+    // 200 users with 50 notes each, a tenth in the trash and a seventh archived, and rows in the
+    // other tables to match, so the optimizer weighs its indexes as it would on real data
+    private static final List<String> SEED = List.of(
+            "INSERT INTO users (id, email, password) SELECT X, CONCAT('user', X, '@example.com'), 'x' FROM SYSTEM_RANGE(1, 200)",
+            "INSERT INTO notes (id, title, title_key, owner_id, content, updated_at, deleted_at, archived_at, share_token) " +
+                    "SELECT X, CONCAT('Note ', X), CONCAT('note ', X), MOD(X, 200) + 1, 'body', DATEADD('MINUTE', -X, CURRENT_TIMESTAMP), " +
+                    "CASE WHEN MOD(X, 10) = 0 THEN DATEADD('DAY', -X, CURRENT_TIMESTAMP) END, " +
+                    "CASE WHEN MOD(X, 7) = 0 THEN CURRENT_TIMESTAMP END, CONCAT('share', X) FROM SYSTEM_RANGE(1, 10000)",
+            "INSERT INTO note_links (owner_id, source_id, target_key) SELECT MOD(X, 200) + 1, X, CONCAT('note ', X + 1) FROM SYSTEM_RANGE(1, 10000)",
+            "INSERT INTO note_archive (note_id, owner_id, content, archived_at) SELECT X, MOD(X, 200) + 1, X'00', CURRENT_TIMESTAMP " +
+                    "FROM SYSTEM_RANGE(1, 10000) WHERE MOD(X, 7) = 0",
+            "INSERT INTO note_signatures (note_id, owner_id, signature) SELECT X, MOD(X, 200) + 1, X'00' FROM SYSTEM_RANGE(1, 10000)",
+            "INSERT INTO attachments (owner_id, note_id, filename, size, sha256) " +
+                    "SELECT MOD(X, 200) + 1, X, 'a.png', 1, CONCAT('sha', X) FROM SYSTEM_RANGE(1, 5000)",
+            "INSERT INTO attachment_uploads (id, owner_id, filename, size, updated_at) " +
+                    "SELECT CONCAT('upload-', X), MOD(X, 200) + 1, 'a.bin', 1, DATEADD('MINUTE', -X, CURRENT_TIMESTAMP) FROM SYSTEM_RANGE(1, 2000)",
+            "INSERT INTO user_tags (user_id, name, note_count) SELECT MOD(X, 200) + 1, CONCAT('tag', X), 1 FROM SYSTEM_RANGE(1, 5000)",
+            "INSERT INTO note_outbox (owner_id, note_id, type, note_version, created_at) " +
+                    "SELECT MOD(X, 200) + 1, X, 'UPDATED', 1, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, 5000)",
+            "ANALYZE"
+    );
+
+    private static boolean seeded;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteSearchRepository noteSearchRepository;
+
+    @Autowired
+    private NoteArchiveRepository noteArchiveRepository;
+
+    @Autowired
+    private NoteLinkRepository noteLinkRepository;
+
+    @Autowired
+    private NoteSignatureRepository noteSignatureRepository;
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    @Autowired
+    private AttachmentUploadRepository attachmentUploadRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private UserTagRepository userTagRepository;
+
+    @BeforeEach
+    void seed() throws SQLException {
+        if (seeded) {
+            return;
+        }
+        // Own connection, so the rows are committed once rather than rolled back with each test
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (String sql : SEED) {
+                statement.execute(sql);
+            }
+        }
+        seeded = true;
+    }
+
+    @AfterEach
+    void stopCapturing() {
+        Capture.stop();
+    }
+
+    @Test
+    void liveNotePage() throws SQLException {
+        assertSorted("notes.live-page", () -> noteRepository.findByOwnerIdAndDeletedAtIsNullOrderByUpdatedAtDesc(1L, PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void trashPage() throws SQLException {
+        assertSorted("notes.trash-page", () -> noteRepository.findByOwnerIdAndDeletedAtAfterOrderByDeletedAtDesc(1L, NoteService.TRASHED_AFTER, PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void suggestSources() throws SQLException {
+        assertIndexed("notes.live-sources", () -> noteRepository.findSuggestSourcesByOwnerId(1L));
+    }
+
+    @Test
+    void substringSearch() throws SQLException {
+        assertSorted("notes.search", () -> noteSearchRepository.findIds(1L, "term", null, List.of(), 0, 20, 5, new SearchCancellation()));
+        assertIndexed("notes.search-scoped", () -> noteSearchRepository.findIds(1L, "term", List.of(1L, 2L, 3L), List.of(2L), 0, 20, 5, new SearchCancellation()));
+    }
+
+    @Test
+    void linkTargets() throws SQLException {
+        assertIndexed("notes.link-targets", () -> noteRepository.findLinkNodesByOwnerIdAndTitleKeys(1L, List.of("a", "b")));
+    }
+
+    @Test
+    void sharedNote() throws SQLException {
+        assertIndexed("notes.by-share-token", () -> noteRepository.findSharedVersion("abc"));
+    }
+
+    @Test
+    void archiveCandidates() throws SQLException {
+        assertSorted("notes.archive-candidates", () -> noteRepository.findArchiveCandidateIds(CUTOFF, PageRequest.of(0, 200)));
+    }
+
+    @Test
+    void purgeableNotes() throws SQLException {
+        assertSorted("notes.purgeable", () -> noteRepository.findPurgeableIds(CUTOFF, PageRequest.of(0, 200)));
+        assertIndexed("notes.purge-lock", () -> noteRepository.lockPurgeable(List.of(10L, 20L), CUTOFF));
+    }
+
+    @Test
+    void archivedBodiesByOwner() throws SQLException {
+        assertSorted("note_archive.by-owner", () -> noteArchiveRepository.findPageByOwnerId(1L, 0, PageRequest.of(0, 200)));
+    }
+
+    @Test
+    void backlinks() throws SQLException {
+        assertIndexed("note_links.backlinks", () -> noteLinkRepository.findByOwnerIdAndTargetKeys(1L, List.of("a", "b")));
+        assertIndexed("note_links.by-source", () -> noteLinkRepository.findTargetKeysBySourceId(1L));
+    }
+
+    @Test
+    void liveSignatures() throws SQLException {
+        assertIndexed("note_signatures.live", () -> noteSignatureRepository.findLiveByOwnerId(1L));
+    }
+
+    @Test
+    void attachments() throws SQLException {
+        // A note has a handful of attachments; reading them by note_id and sorting is as cheap
+        assertIndexed("attachments.by-note", () -> attachmentRepository.findByOwnerIdAndNoteIdOrderByCreatedAtAsc(1L, 1L));
+        assertIndexed("attachments.by-notes", () -> attachmentRepository.findByNoteIdIn(List.of(1L, 2L)));
+        assertIndexed("attachment_uploads.expired", () -> attachmentUploadRepository.findByUpdatedAtBefore(CUTOFF));
+    }
+
+    @Test
+    void outboxAfterCheckpoint() throws SQLException {
+        assertSorted("note_outbox.after", () -> outboxEventRepository.findAfter(0, PageRequest.of(0, 200)));
+        assertIndexed("note_outbox.between", () -> outboxEventRepository.findIdsBetween(1, 100));
+    }
+
+    @Test
+    void tagRewrite() throws SQLException {
+        assertIndexed("notes.tagged-for-update", () -> noteRepository.lockTaggedByOwnerId(1L));
+    }
+
+    @Test
+    void tagNames() throws SQLException {
+        assertSorted("user_tags.names", () -> userTagRepository.findNamesByUserId(1L));
+    }
+
+    // Every statement the call issues must read through an index
+    private void assertIndexed(String name, Runnable query) throws SQLException {
+        for (String plan : explain(name, query)) {
+            assertThat(plan).as("%s plan", name).doesNotContainIgnoringCase(".tableScan");
+        }
+    }
+
+    // As above, and the ORDER BY must come from the index rather than a sort
+    private void assertSorted(String name, Runnable query) throws SQLException {
+        for (String plan : explain(name, query)) {
+            assertThat(plan).as("%s plan", name).doesNotContainIgnoringCase(".tableScan");
+            if (plan.contains("\nORDER BY ")) {
+                assertThat(sortedByIndex(plan)).as("%s reads in index order: %s", name, plan).isTrue();
+            }
+        }
+    }
+
+    private boolean sortedByIndex(String plan) throws SQLException {
+        if (plan.contains("/* index sorted */")) {
+            return true;
+        }
+        Matcher index = INDEX_COMMENT.matcher(plan);
+        if (!index.find()) {
+            return false;
+        }
+        Set<String> pinned = new HashSet<>();
+        Matcher condition = PINNED.matcher(index.group(2));
+        while (condition.find()) {
+            pinned.add(condition.group(1));
+        }
+
+        List<String> remaining = new ArrayList<>();
+        for (String column : indexColumns(index.group(1))) {
+            if (remaining.isEmpty() && pinned.contains(column)) {
+                continue;
+            }
+            remaining.add(column);
+        }
+        List<String> orderBy = orderByColumns(plan);
+        return !orderBy.isEmpty() && remaining.size() >= orderBy.size()
+                && remaining.subList(0, orderBy.size()).equals(orderBy);
+    }
+
+    // ORDER BY items are either a quoted column or the position of one in the select list
+    private static List<String> orderByColumns(String plan) {
+        String[] lines = plan.split("\n");
+        List<String> selected = new ArrayList<>();
+        String orderBy = null;
+        boolean inSelect = false;
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.equals("SELECT")) {
+                inSelect = true;
+            } else if (trimmed.startsWith("FROM ")) {
+                inSelect = false;
+            } else if (inSelect) {
+                selected.add(column(trimmed.replaceAll(",$", "")));
+            } else if (trimmed.startsWith("ORDER BY ")) {
+                orderBy = trimmed.substring("ORDER BY ".length());
+            }
+        }
+        List<String> columns = new ArrayList<>();
+        if (orderBy == null) {
+            return columns;
+        }
+        for (String item : orderBy.split(", ")) {
+            String position = item.replaceAll("\\s+(ASC|DESC)$", "");
+            columns.add(position.matches("\\d+") ? selected.get(Integer.parseInt(position) - 1) : column(item));
+        }
+        return columns;
+    }
+
+    private static String column(String expression) {
+        Matcher quoted = QUOTED.matcher(expression);
+        return quoted.find() ? quoted.group(1) : expression;
+    }
+
+    private List<String> indexColumns(String index) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS " +
+                     "WHERE INDEX_NAME = ? ORDER BY ORDINAL_POSITION")) {
+            statement.setString(1, index);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    columns.add(rs.getString(1));
+                }
+            }
+        }
+        return columns;
+    }
+
+    private List<String> explain(String name, Runnable query) throws SQLException {
+        Capture.start();
+        query.run();
+        List<Capture.Query> statements = Capture.stop();
+        assertThat(statements).as("%s issued no query", name).isNotEmpty();
+
+        List<String> plans = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            for (Capture.Query statement : statements) {
+                try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+                    statement.bind(explain);
+                    try (ResultSet rs = explain.executeQuery()) {
+                        StringBuilder plan = new StringBuilder();
+                        while (rs.next()) {
+                            plan.append(rs.getString(1)).append('\n');
+                        }
+                        plans.add(plan.toString());
+                    }
+                }
+            }
+        }
+        return plans;
+    }
+
+    /**
+     * Records the SQL and bind calls of every query run on the test thread while capturing, by
+     * wrapping the pool's connections and statements.
+     */
+    static final class Capture {
+
+        record Bind(Method method, Object[] args) {
+        }
+
+        record Query(String sql, List<Bind> binds) {
+            void bind(PreparedStatement target) throws SQLException {
+                for (Bind bind : binds) {
+                    try {
+                        bind.method().invoke(target, bind.args());
+                    } catch (IllegalAccessException | InvocationTargetException e) {
+                        throw new SQLException("Could not replay " + bind.method().getName(), e);
+                    }
+                }
+            }
+        }
+
+        private static final ThreadLocal<List<Query>> CAPTURED = new ThreadLocal<>();
+
+        static void start() {
+            CAPTURED.set(new ArrayList<>());
+        }
+
+        static List<Query> stop() {
+            List<Query> captured = CAPTURED.get();
+            CAPTURED.remove();
+            return captured != null ? captured : List.of();
+        }
+
+        static DataSource wrap(DataSource dataSource) {
+            return (DataSource) Proxy.newProxyInstance(Capture.class.getClassLoader(), new Class<?>[] {DataSource.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(dataSource, method, args);
+                        return result instanceof Connection connection ? wrap(connection) : result;
+                    });
+        }
+
+        private static Connection wrap(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Capture.class.getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                            return wrap(statement, (String) args[0]);
+                        }
+                        return result;
+                    });
+        }
+
+        private static PreparedStatement wrap(PreparedStatement statement, String sql) {
+            List<Bind> binds = new ArrayList<>();
+            return (PreparedStatement) Proxy.newProxyInstance(Capture.class.getClassLoader(),
+                    new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                            binds.add(new Bind(method, args.clone()));
+                        } else if (name.equals("executeQuery") && args == null) {
+                            List<Query> captured = CAPTURED.get();
+                            if (captured != null) {
+                                captured.add(new Query(sql, List.copyOf(binds)));
+                            }
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class CaptureConfig {
+
+        @Bean
+        static BeanPostProcessor captureDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? Capture.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+}
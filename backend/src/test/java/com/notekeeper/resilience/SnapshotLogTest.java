@@ -0,0 +1,120 @@
+package com.notekeeper.resilience;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnapshotLogTest {
+
+    private static final int CAPACITY = 4096;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoversNotesAndTombstonesAfterReopening() throws IOException {
+        Path file = dir.resolve("snapshot.bin");
+        try (SnapshotLog log = SnapshotLog.open(file, CAPACITY)) {
+            log.put(1, 10, 1, bytes("one"));
+            log.put(2, 10, 1, bytes("two"));
+            log.put(1, 10, 2, bytes("one again"));
+            log.remove(2);
+            log.put(3, 20, 5, bytes("three"));
+        }
+
+        try (SnapshotLog log = SnapshotLog.open(file, CAPACITY)) {
+            assertThat(log.size()).isEqualTo(2);
+            assertThat(text(log.get(10, 1))).isEqualTo("one again");
+            assertThat(log.version(1)).isEqualTo(2);
+            assertThat(log.get(10, 2)).isNull();
+            assertThat(log.version(2)).isEqualTo(-1);
+            assertThat(log.getAll(20)).hasSize(1);
+
+            // Appends continue after the recovered head
+            log.put(4, 10, 1, bytes("four"));
+        }
+        try (SnapshotLog log = SnapshotLog.open(file, CAPACITY)) {
+            assertThat(log.size()).isEqualTo(3);
+            assertThat(text(log.get(10, 1))).isEqualTo("one again");
+        }
+    }
+
+    @Test
+    void servesNotesToTheirOwnerOnly() throws IOException {
+        try (SnapshotLog log = SnapshotLog.open(dir.resolve("snapshot.bin"), CAPACITY)) {
+            log.put(1, 10, 1, bytes("mine"));
+
+            assertThat(log.get(11, 1)).isNull();
+            assertThat(log.getAll(11)).isEmpty();
+            assertThat(text(log.get(10, 1))).isEqualTo("mine");
+        }
+    }
+
+    @Test
+    void wrappingKeepsTheNewestNotesAndTheirTombstones() throws IOException {
+        Path file = dir.resolve("snapshot.bin");
+        byte[] payload = new byte[200];
+        try (SnapshotLog log = SnapshotLog.open(file, CAPACITY)) {
+            log.put(1, 10, 1, payload);
+            log.remove(1);
+            // Several laps over a file that holds about sixteen of these records
+            for (long id = 100; id < 160; id++) {
+                log.put(id, 10, 1, payload);
+            }
+            assertThat(log.get(10, 159)).isNotNull();
+            assertThat(log.get(10, 100)).isNull();
+            assertThat(log.get(10, 1)).isNull();
+        }
+
+        try (SnapshotLog log = SnapshotLog.open(file, CAPACITY)) {
+            assertThat(log.get(10, 1)).isNull();
+            assertThat(log.get(10, 100)).isNull();
+            assertThat(log.get(10, 159)).hasSize(200);
+            assertThat(log.size()).isBetween(10, 16);
+        }
+    }
+
+    @Test
+    void skipsADamagedRecordOnRecovery() throws IOException {
+        Path file = dir.resolve("snapshot.bin");
+        try (SnapshotLog log = SnapshotLog.open(file, CAPACITY)) {
+            log.put(1, 10, 1, bytes("first"));
+            log.put(2, 10, 1, bytes("second"));
+        }
+        // The first record's payload starts right after its 44-byte header
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes("X")), 44);
+        }
+
+        try (SnapshotLog log = SnapshotLog.open(file, CAPACITY)) {
+            assertThat(log.get(10, 1)).isNull();
+            assertThat(text(log.get(10, 2))).isEqualTo("second");
+        }
+    }
+
+    @Test
+    void oversizedNoteDropsItsOlderCopy() throws IOException {
+        try (SnapshotLog log = SnapshotLog.open(dir.resolve("snapshot.bin"), CAPACITY)) {
+            log.put(1, 10, 1, bytes("small"));
+            log.put(1, 10, 2, new byte[CAPACITY / 2]);
+
+            assertThat(log.get(10, 1)).isNull();
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] payload) {
+        return payload != null ? new String(payload, StandardCharsets.UTF_8) : null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.notekeeper.search;
+
+import com.notekeeper.dto.SearchSnippet;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnippetExtractorTest {
+
+    @Test
+    void centresWindowOnFirstHitAndHighlightsLaterHits() {
+        SearchSnippet snippet = new SnippetExtractor("foo", 20, 16)
+                .extract("title", "one two three four five foo six foo seven eight nine ten foo");
+
+        assertThat(snippet.getText()).isEqualTo("five foo six foo");
+        assertThat(snippet.getOffset()).isEqualTo(19);
+        assertThat(snippet.getHighlights()).containsExactly(new int[] { 5, 8 }, new int[] { 13, 16 });
+        assertThat(snippet.isTruncatedStart()).isTrue();
+        assertThat(snippet.isTruncatedEnd()).isTrue();
+    }
+
+    @Test
+    void termLongerThanWindowKeepsWholeMatch() {
+        SearchSnippet snippet = new SnippetExtractor("abcdefghij", 4, 16)
+                .extract("title", "xx yy abcdefghij zz abcdefghij");
+
+        assertThat(snippet.getText()).isEqualTo("abcdefghij");
+        assertThat(snippet.getOffset()).isEqualTo(6);
+        assertThat(snippet.getHighlights()).containsExactly(new int[] { 0, 10 });
+    }
+
+    @Test
+    void noMatchReturnsLeadingWindow() {
+        SearchSnippet snippet = new SnippetExtractor("zzz", 10, 16).extract("title", "one two three four five");
+
+        assertThat(snippet.getText()).isEqualTo("one two");
+        assertThat(snippet.getOffset()).isZero();
+        assertThat(snippet.getHighlights()).isEmpty();
+    }
+
+    @Test
+    void matchingIsCaseInsensitiveAndStopsAtHighlightLimit() {
+        SearchSnippet snippet = new SnippetExtractor("Ab", 100, 2).extract("AB ab", "ab AB aB ab");
+
+        assertThat(snippet.getHighlights()).hasSize(2);
+        assertThat(snippet.getTitleHighlights()).hasSize(2);
+    }
+}
@@ -0,0 +1,95 @@
+package com.notekeeper.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void neverMissesAnAddedKey() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        for (long i = 0; i < 1_000; i++) {
+            filter.add(i);
+            filter.add("jti-" + i);
+        }
+
+        for (long i = 0; i < 1_000; i++) {
+            assertThat(filter.mightContain(i)).isTrue();
+            assertThat(filter.mightContain("jti-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void stringKeysStayNearTheRequestedFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("jti-" + i);
+        }
+
+        int hits = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("other-" + i)) {
+                hits++;
+            }
+        }
+        assertThat((double) hits / probes).isLessThan(0.015);
+    }
+
+    @Test
+    void longKeysStayNearTheRequestedFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (long i = 0; i < 10_000; i++) {
+            filter.add(i);
+        }
+
+        int hits = 0;
+        int probes = 100_000;
+        for (long i = 0; i < probes; i++) {
+            if (filter.mightContain(1_000_000 + i)) {
+                hits++;
+            }
+        }
+        assertThat((double) hits / probes).isLessThan(0.015);
+    }
+
+    @Test
+    void negativeLookupsDoNotAllocate() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        BloomFilter filter = new BloomFilter(1_000, 0.001);
+        filter.add("revoked");
+        filter.add(42L);
+        String jti = "3f2504e0-4f89-11d3-9a0c-0305e82c3301";
+        // Warm up so the measured loop is not charged for class loading
+        int hits = lookups(filter, jti, 20_000);
+
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        hits += lookups(filter, jti, 100_000);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertThat(hits).isZero();
+        // One boxed key or copied string per lookup would be megabytes
+        assertThat(allocated).isLessThan(16 * 1024);
+    }
+
+    private static int lookups(BloomFilter filter, String jti, int count) {
+        int hits = 0;
+        for (int i = 0; i < count; i++) {
+            if (filter.mightContain(jti)) {
+                hits++;
+            }
+            if (filter.mightContain(7L)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
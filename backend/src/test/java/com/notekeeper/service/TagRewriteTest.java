@@ -0,0 +1,52 @@
+package com.notekeeper.service;
+
+import com.notekeeper.index.Collation;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TagRewriteTest {
+
+    @Test
+    void renamesEverySpellingOfTheSourceInPlace() {
+        assertThat(NoteService.rewrite(List.of("home", "Work", "urgent"), sources("work"), "job"))
+                .containsExactly("home", "job", "urgent");
+        assertThat(NoteService.rewrite(List.of("café"), sources("CAFE"), "coffee"))
+                .containsExactly("coffee");
+    }
+
+    @Test
+    void mergeKeepsTheFirstOccurrenceOfATag() {
+        assertThat(NoteService.rewrite(List.of("b", "a", "job", "c"), sources("a", "b"), "Job"))
+                .containsExactly("Job", "c");
+    }
+
+    @Test
+    void deleteDropsTheSources() {
+        assertThat(NoteService.rewrite(List.of("a", "b"), sources("A"), null)).containsExactly("b");
+        assertThat(NoteService.rewrite(List.of("a"), sources("a"), null)).isEmpty();
+    }
+
+    @Test
+    void caseOnlyRenameChangesTheSpelling() {
+        assertThat(NoteService.rewrite(List.of("work", "home"), sources("work"), "Work"))
+                .containsExactly("Work", "home");
+    }
+
+    @Test
+    void notesWithoutASourceAreLeftAlone() {
+        List<String> tags = Arrays.asList("x", null, "X");
+        assertThat(NoteService.rewrite(tags, sources("a"), "b")).isSameAs(tags);
+    }
+
+    private static Set<String> sources(String... names) {
+        Set<String> sources = new TreeSet<>(Collation.ORDER);
+        sources.addAll(List.of(names));
+        return sources;
+    }
+}
@@ -0,0 +1,103 @@
+package com.notekeeper.service;
+
+import com.notekeeper.entity.TokenRevocation;
+import com.notekeeper.repository.TokenRevocationRepository;
+import com.notekeeper.resilience.DatabaseCircuitBreaker;
+import com.notekeeper.security.BloomFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationServiceTest {
+
+    private TokenRevocationRepository repository;
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(TokenRevocationRepository.class);
+        service = new TokenRevocationService();
+        ReflectionTestUtils.setField(service, "tokenRevocationRepository", repository);
+        ReflectionTestUtils.setField(service, "databaseCircuitBreaker", mock(DatabaseCircuitBreaker.class));
+        ReflectionTestUtils.setField(service, "expirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(service, "expectedInsertions", 1_000L);
+        ReflectionTestUtils.setField(service, "falsePositiveRate", 0.001);
+    }
+
+    @Test
+    void revocationsMadeDuringARebuildReachTheNewFilter() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {"stored-jti", 1L});
+        when(repository.findActiveKeys(any())).thenAnswer(invocation -> {
+            // Committed after the rebuild started reading the table
+            service.revokeToken("late-jti", 2L, new Date(System.currentTimeMillis() + 60_000));
+            service.revokeAllForUser(3L);
+            return rows;
+        });
+
+        service.rebuild();
+
+        BloomFilter filter = (BloomFilter) ReflectionTestUtils.getField(service, "filter");
+        assertThat(filter.mightContain("stored-jti")).isTrue();
+        assertThat(filter.mightContain("late-jti")).isTrue();
+        assertThat(filter.mightContain(3L)).isTrue();
+    }
+
+    @Test
+    void aMissInTheFilterSkipsTheDatabase() {
+        when(repository.findActiveKeys(any())).thenReturn(List.of());
+        service.rebuild();
+
+        assertThat(service.isRevoked("fresh-jti", 9L, new Date())).isFalse();
+
+        verify(repository, never()).existsByJti(anyString());
+        verify(repository, never()).findLatestNotBefore(any());
+    }
+
+    @Test
+    void tokensIssuedInTheSecondOfARevokeAllAreRevoked() {
+        LocalDateTime notBefore = LocalDateTime.of(2026, 3, 1, 12, 0, 0);
+        when(repository.findLatestNotBefore(5L)).thenReturn(notBefore);
+
+        // Issue times come from the token's iat claim, whole seconds
+        assertThat(service.isRevoked(null, 5L, toDate(notBefore.minusSeconds(1)))).isTrue();
+        assertThat(service.isRevoked(null, 5L, toDate(notBefore))).isTrue();
+        assertThat(service.isRevoked(null, 5L, toDate(notBefore.plusSeconds(1)))).isFalse();
+    }
+
+    @Test
+    void revokeAllCutsOffAtTheStartOfItsSecond() {
+        // The token is issued first, so its second can be no later than the revocation's
+        Date issuedAt = Date.from(new Date().toInstant().truncatedTo(ChronoUnit.SECONDS));
+        service.revokeAllForUser(5L);
+
+        ArgumentCaptor<TokenRevocation> saved = ArgumentCaptor.forClass(TokenRevocation.class);
+        verify(repository).save(saved.capture());
+        LocalDateTime notBefore = saved.getValue().getNotBefore();
+        assertThat(notBefore.getNano()).isZero();
+
+        when(repository.findLatestNotBefore(5L)).thenReturn(notBefore);
+        assertThat(service.isRevoked(null, 5L, issuedAt)).isTrue();
+        assertThat(service.isRevoked(null, 5L, toDate(notBefore.plusSeconds(1)))).isFalse();
+    }
+
+    private static Date toDate(LocalDateTime time) {
+        return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
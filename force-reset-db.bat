@@ -23,17 +23,12 @@ mysql -u root -e "DROP DATABASE IF EXISTS notekeeper;"
 echo Creating new database...
 mysql -u root -e "CREATE DATABASE notekeeper;"
 
-:: Import the updated schema and data
-echo Importing data...
-mysql -u root notekeeper < "%~dp0database\init.sql"
-
 echo.
 echo ========================================
 echo Database reset complete!
 echo.
-echo Login with:
-echo Email: demo@notekeeper.com
-echo Password: password
+echo The backend creates the schema when it next starts.
+echo Register a new account to log in.
 echo.
 echo ========================================
 pause
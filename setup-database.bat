@@ -43,15 +43,7 @@ if %errorlevel% neq 0 (
 )
 
 echo.
-echo Initializing database schema...
-mysql -u notekeeper -ppassword notekeeper < database\init.sql
-
-if %errorlevel% neq 0 (
-    echo ERROR: Failed to initialize database schema
-    echo Please check the database/init.sql file exists
-    pause
-    exit /b 1
-)
+echo The schema is created by the backend's migrations when it first starts.
 
 echo.
 echo ========================================
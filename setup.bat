@@ -64,8 +64,7 @@ echo    GRANT ALL PRIVILEGES ON notekeeper.* TO 'notekeeper'@'localhost';
 echo    FLUSH PRIVILEGES;
 echo    EXIT;
 echo.
-echo 3. Run the database initialization script:
-echo    mysql -u notekeeper -p notekeeper ^< database/init.sql
+echo 3. The backend creates the schema when it first starts
 echo.
 
 echo 🚀 To start the application:
@@ -0,0 +1,62 @@
+#!/bin/bash
+
+# Measures time-to-first-request for the default fat jar and the AOT + CDS build.
+# Requires MySQL to be running (see setup.sh). Results are appended to
+# backend/target/startup-benchmark.csv as: timestamp,mode,run,millis
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-8080}
+URL="http://localhost:${PORT}/api/auth/login"
+
+cd "$(dirname "$0")/backend" || exit 1
+
+JAR=target/notekeeper-backend-1.0.0.jar
+EXEC_JAR=target/notekeeper-backend-1.0.0-exec.jar
+RESULTS=target/startup-benchmark.csv
+
+if [ ! -f "$EXEC_JAR" ] || [ ! -f target/cds/app.jsa ]; then
+    echo "📦 Building optimised artifacts (mvn -Pstartup package)..."
+    mvn -q -Pstartup package -DskipTests || exit 1
+fi
+
+[ -f "$RESULTS" ] || echo "timestamp,mode,run,millis" > "$RESULTS"
+
+measure() {
+    local mode=$1
+    shift
+    for run in $(seq 1 "$RUNS"); do
+        local start
+        start=$(date +%s%N)
+        "$@" > "target/startup-${mode}.log" 2>&1 &
+        local pid=$!
+
+        # Any HTTP status means the server is answering requests
+        until [ "$(curl -s -o /dev/null -w '%{http_code}' "$URL")" != "000" ]; do
+            if ! kill -0 "$pid" 2> /dev/null; then
+                echo "❌ ${mode} run ${run} exited early, see target/startup-${mode}.log"
+                return 1
+            fi
+            sleep 0.05
+        done
+
+        local millis=$(( ($(date +%s%N) - start) / 1000000 ))
+        echo "$(date -u +%Y-%m-%dT%H:%M:%SZ),${mode},${run},${millis}" >> "$RESULTS"
+        echo "⏱️  ${mode} run ${run}: ${millis} ms"
+
+        kill "$pid"
+        wait "$pid" 2> /dev/null
+    done
+}
+
+echo "🚀 Default mode"
+measure default java -jar "$EXEC_JAR"
+
+echo "🚀 Optimised mode (AOT + CDS)"
+measure optimized java -XX:SharedArchiveFile=target/cds/app.jsa \
+    -Dspring.aot.enabled=true \
+    -Dspring.profiles.active=startup \
+    -cp "${JAR}:target/cds/lib/*" com.notekeeper.NoteKeeperApplication
+
+echo ""
+echo "📊 Averages (ms):"
+awk -F, 'NR > 1 { sum[$2] += $4; n[$2]++ } END { for (m in sum) printf "   %-10s %d\n", m, sum[m] / n[m] }' "$RESULTS"
@@ -44,7 +44,7 @@ if %errorlevel% neq 0 (
     echo.
     echo Possible solutions:
     echo 1. Run setup-database.bat to recreate the database
-    echo 2. Check the database/init.sql file
+    echo 2. Start the backend once so its migrations create the tables
     echo.
     pause
     exit /b 1